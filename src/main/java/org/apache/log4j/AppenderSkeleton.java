@@ -45,7 +45,7 @@ public abstract class AppenderSkeleton implements Appender, OptionHandler {
 
   /**
      There is no level threshold filtering by default.  */
-  protected Priority threshold;
+  protected volatile Priority threshold;
 
   /** 
       It is assumed and enforced that errorHandler is never null.
@@ -58,10 +58,18 @@ public abstract class AppenderSkeleton implements Appender, OptionHandler {
   /** The last filter in the filter chain. */
   protected Filter tailFilter;
 
+  /** Shared by appenders without filters. */
+  private static final Filter[] NO_FILTERS = new Filter[0];
+
+  /** Immutable copy of the filter chain starting at headFilter,
+      rebuilt by {@link #addFilter} and {@link #clearFilters} so that
+      it can be read without holding the lock of this appender. */
+  private volatile Filter[] filters = NO_FILTERS;
+
   /**
      Is this appender closed? 
    */
-  protected boolean closed = false;
+  protected volatile boolean closed = false;
 
     /**
      * Create new instance.
@@ -99,14 +107,35 @@ public abstract class AppenderSkeleton implements Appender, OptionHandler {
    */
   public
   void addFilter(Filter newFilter) {
-    if(headFilter == null) {
-      headFilter = tailFilter = newFilter;
-    } else {
-      tailFilter.setNext(newFilter);
-      tailFilter = newFilter;    
+    synchronized(this) {
+      if(headFilter == null) {
+	headFilter = tailFilter = newFilter;
+      } else {
+	tailFilter.setNext(newFilter);
+	tailFilter = newFilter;    
+      }
+      copyFilters();
     }
   }
 
+  /**
+     Replace the copy of the filter chain, following the next filter
+     of each filter from headFilter. Must hold the lock of this
+     appender.  */
+  private
+  void copyFilters() {
+    int n = 0;
+    for(Filter f = headFilter; f != null; f = f.getNext()) {
+      n++;
+    }
+    Filter[] copy = (n == 0) ? NO_FILTERS : new Filter[n];
+    n = 0;
+    for(Filter f = headFilter; f != null && n < copy.length; f = f.getNext()) {
+      copy[n++] = f;
+    }
+    filters = copy;
+  }
+
   /**
      Subclasses of <code>AppenderSkeleton</code> should implement this
      method to perform actual logging. See also {@link #doAppend
@@ -118,6 +147,21 @@ public abstract class AppenderSkeleton implements Appender, OptionHandler {
   protected
   void append(LoggingEvent event);
 
+  /**
+     Called by {@link #doAppend(LoggingEvent[], int)} with the events
+     which passed the threshold and the filters. This implementation
+     calls {@link #append(LoggingEvent)} for each of them, subclasses
+     may override it to process the batch at once.
+
+     @since 1.2.18
+  */
+  protected
+  void append(LoggingEvent[] events, int count) {
+    for(int i = 0; i < count; i++) {
+      append(events[i]);
+    }
+  }
+
 
   /**
      Clear the filters chain.
@@ -125,7 +169,10 @@ public abstract class AppenderSkeleton implements Appender, OptionHandler {
      @since 0.9.0 */
   public
   void clearFilters() {
-    headFilter = tailFilter = null;
+    synchronized(this) {
+      headFilter = tailFilter = null;
+      copyFilters();
+    }
   }
 
   /**
@@ -233,22 +280,113 @@ public abstract class AppenderSkeleton implements Appender, OptionHandler {
       return;
     }
     
-    if(!isAsSevereAsThreshold(event.getLevel())) {
+    if(isAccepted(event)) {
+      this.append(event);
+    }
+  }
+
+  /**
+    * Batch counterpart of {@link #doAppend(LoggingEvent)}. The
+    * threshold and the filters are applied to each event, then the
+    * accepted events are passed to {@link #append(LoggingEvent[], int)}
+    * while holding the lock of this appender only once.
+    *
+    * <p>Subclasses implementing {@link
+    * org.apache.log4j.spi.BatchAppender} get this method as their
+    * implementation of it.
+    *
+    * @since 1.2.18
+    * */
+  public
+  synchronized
+  void doAppend(LoggingEvent[] events, int count) {
+    if(closed) {
+      LogLog.error("Attempted to append to closed appender named ["+name+"].");
       return;
     }
 
+    LoggingEvent[] accepted = accept(events, count, false);
+    int n = (accepted == events) ? count : accepted.length;
+    if(n > 0) {
+      this.append(accepted, n);
+    }
+  }
+
+  /**
+     Check the event against the threshold and the filter chain
+     starting at headFilter. Must hold the lock of this appender.
+
+     @return true if the event should be appended.  */
+  final
+  boolean isAccepted(LoggingEvent event) {
+    if(!isAsSevereAsThreshold(event.getLevel())) {
+      return false;
+    }
+
     Filter f = this.headFilter;
-    
-    FILTER_LOOP:
     while(f != null) {
       switch(f.decide(event)) {
-      case Filter.DENY: return;
-      case Filter.ACCEPT: break FILTER_LOOP;
-      case Filter.NEUTRAL: f = f.getNext();
+      case Filter.DENY: return false;
+      case Filter.ACCEPT: return true;
+      default: f = f.getNext();
       }
     }
-    
-    this.append(event);    
+    return true;
+  }
+
+  /**
+     Check the event against the threshold and the copy of the filter
+     chain made by the last call to {@link #addFilter} or {@link
+     #clearFilters}. Does not need the lock of this appender.
+
+     @return true if the event should be appended.  */
+  final
+  boolean isAcceptedUnlocked(LoggingEvent event) {
+    if(!isAsSevereAsThreshold(event.getLevel())) {
+      return false;
+    }
+
+    Filter[] chain = this.filters;
+    for(int i = 0; i < chain.length; i++) {
+      switch(chain[i].decide(event)) {
+      case Filter.DENY: return false;
+      case Filter.ACCEPT: return true;
+      }
+    }
+    return true;
+  }
+
+  /**
+     Check the first <code>count</code> events against the threshold
+     and the filter chain, see {@link #isAccepted} and {@link
+     #isAcceptedUnlocked}.
+
+     @param unlocked true if the lock of this appender is not held.
+     @return <code>events</code> itself if every event was accepted,
+     otherwise a new array holding exactly the accepted events.  */
+  final
+  LoggingEvent[] accept(LoggingEvent[] events, int count, boolean unlocked) {
+    // the array is only copied once an event has been rejected
+    LoggingEvent[] accepted = events;
+    int n = 0;
+    for(int i = 0; i < count; i++) {
+      if(unlocked ? isAcceptedUnlocked(events[i]) : isAccepted(events[i])) {
+	if(accepted != events) {
+	  accepted[n] = events[i];
+	}
+	n++;
+      } else if(accepted == events) {
+	accepted = new LoggingEvent[count];
+	System.arraycopy(events, 0, accepted, 0, n);
+      }
+    }
+
+    if(accepted != events && n < accepted.length) {
+      LoggingEvent[] exact = new LoggingEvent[n];
+      System.arraycopy(accepted, 0, exact, 0, n);
+      accepted = exact;
+    }
+    return accepted;
   }
 
   /** 
@@ -28,8 +28,11 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.log4j.helpers.AppenderAttachableImpl;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.helpers.RingBuffer;
 import org.apache.log4j.spi.AppenderAttachable;
 import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.ReusableLoggingEvent;
 
 
 /**
@@ -48,12 +51,17 @@ import org.apache.log4j.spi.LoggingEvent;
  * <b>Important note:</b> The <code>AsyncAppender</code> can only be script
  * configured using the {@link org.apache.log4j.xml.DOMConfigurator}.
  * </p>
+ * <p/>
+ * Since 1.2.18, calls to the AsyncAppender are not serialized by the lock
+ * of the appender: events are added to the buffer while holding the lock of
+ * the buffer only or, in ring buffer mode, without any lock.
+ * </p>
  *
  * @author Ceki G&uuml;lc&uuml;
  * @author Curt Arnold
  * @since 0.9.1
  */
-public class AsyncAppender extends AppenderSkeleton
+public class AsyncAppender extends UnsynchronizedAppenderSkeleton
   implements AppenderAttachable {
   /**
    * The default buffer size is set to 128 events.
@@ -99,6 +107,33 @@ public class AsyncAppender extends AppenderSkeleton
    */
   private boolean blocking = true;
 
+  /**
+   * Are parameterized messages formatted by the dispatcher.
+   */
+  private volatile boolean deferredRendering = false;
+
+  /**
+   * Should events be queued in a ring buffer instead of the list buffer.
+   */
+  private boolean ringBuffer = false;
+
+  /**
+   * Wait strategy of the ring buffer.
+   */
+  private int waitStrategy = RingBuffer.BLOCK;
+
+  /**
+   * Ring buffer, null unless the ring buffer mode has been activated.
+   * Once set, discardMap is still guarded by buffer but only accessed
+   * when the ring is full.
+   */
+  private volatile RingBuffer ring;
+
+  /**
+   * Set by producers after adding to discardMap in ring buffer mode.
+   */
+  private volatile boolean discardPending = false;
+
   /**
    * Create new instance.
    */
@@ -122,6 +157,20 @@ public class AsyncAppender extends AppenderSkeleton
     dispatcher.start();
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public void activateOptions() {
+    if (ringBuffer && ring == null) {
+      synchronized (buffer) {
+        ring = new RingBuffer(bufferSize, waitStrategy);
+        //
+        //   wake the dispatcher so it switches to the ring buffer.
+        buffer.notifyAll();
+      }
+    }
+  }
+
   /**
    * Add appender.
    *
@@ -149,6 +198,13 @@ public class AsyncAppender extends AppenderSkeleton
       return;
     }
 
+    //
+    //   the dispatcher needs an event which outlives this call
+    if (event instanceof ReusableLoggingEvent) {
+      append(((ReusableLoggingEvent) event).copy());
+      return;
+    }
+
     // Set the NDC and thread name for the calling thread as these
     // LoggingEvent fields were not set at event creation time.
     event.getNDC();
@@ -158,11 +214,29 @@ public class AsyncAppender extends AppenderSkeleton
     if (locationInfo) {
       event.getLocationInformation();
     }
-    event.getRenderedMessage();
+    if (!deferredRendering
+        || !(event.getMessage() instanceof ParameterizedMessage)) {
+      event.getRenderedMessage();
+    }
     event.getThrowableStrRep();
 
+    RingBuffer ring = this.ring;
+    if (ring != null) {
+      appendToRing(ring, event);
+      return;
+    }
+
     synchronized (buffer) {
       while (true) {
+        //
+        //   activateOptions may have switched to the ring buffer
+        //      since it was checked, the dispatcher no longer
+        //      reads the list buffer once it has.
+        ring = this.ring;
+        if (ring != null) {
+          break;
+        }
+
         int previousSize = buffer.size();
 
         if (previousSize < bufferSize) {
@@ -222,6 +296,56 @@ public class AsyncAppender extends AppenderSkeleton
         }
       }
     }
+
+    if (ring != null) {
+      appendToRing(ring, event);
+    }
+  }
+
+  /**
+   * Add an event to the ring buffer, waiting for space or summarizing
+   * the event as discarded when the ring is full.
+   *
+   * @param ring ring buffer, may not be null.
+   * @param event event, may not be null.
+   */
+  private void appendToRing(final RingBuffer ring, final LoggingEvent event) {
+    while (!ring.offer(event)) {
+      //
+      //   Following code is only reachable if buffer is full
+      //
+      if (blocking
+              && Thread.currentThread() != dispatcher
+              && !ring.isHalted()) {
+        if (!Thread.interrupted()) {
+          ring.waitForSpace();
+          continue;
+        }
+        //
+        //  reset interrupt status so
+        //    calling code can see interrupt on
+        //    their next wait or sleep.
+        Thread.currentThread().interrupt();
+      }
+
+      //
+      //   if blocking is false or thread has been interrupted
+      //   add event to discard map.
+      //
+      synchronized (buffer) {
+        String loggerName = event.getLoggerName();
+        DiscardSummary summary = (DiscardSummary) discardMap.get(loggerName);
+
+        if (summary == null) {
+          summary = new DiscardSummary(event);
+          discardMap.put(loggerName, summary);
+        } else {
+          summary.add(event);
+        }
+      }
+      discardPending = true;
+      return;
+    }
   }
 
   /**
@@ -238,6 +362,11 @@ public class AsyncAppender extends AppenderSkeleton
       buffer.notifyAll();
     }
 
+    RingBuffer ring = this.ring;
+    if (ring != null) {
+      ring.halt();
+    }
+
     try {
       dispatcher.join();
     } catch (InterruptedException e) {
@@ -421,6 +550,113 @@ public class AsyncAppender extends AppenderSkeleton
     return blocking;
   }
 
+  /**
+   * Sets whether {@link ParameterizedMessage messages} of requests made
+   * through {@link LogMF} or {@link LogSF} are formatted by the
+   * dispatcher thread instead of the calling thread. The arguments are
+   * then handed to the dispatcher and must not be modified by the caller
+   * afterwards. Other messages are always rendered by the calling thread.
+   * The default value is false.
+   *
+   * <p>LogMF and LogSF only log parameterized messages to loggers
+   * whose events reach an open AsyncAppender with this option set,
+   * the messages of their events are formatted strings otherwise.
+   *
+   * @since 1.2.18
+   * @param value true to format parameterized messages in the dispatcher.
+   */
+  public void setDeferredRendering(final boolean value) {
+    deferredRendering = value;
+  }
+
+  /**
+   * Gets whether parameterized messages are formatted by the dispatcher.
+   *
+   * @since 1.2.18
+   * @return the current value of the <b>DeferredRendering</b> option.
+   */
+  public boolean getDeferredRendering() {
+    return deferredRendering;
+  }
+
+  /**
+   * Determines if parameterized messages logged to this appender are
+   * formatted by the dispatcher, see {@link Category#defersRendering}.
+   *
+   * @return true if DeferredRendering is set and this appender is open.
+   */
+  boolean defersRendering() {
+    return deferredRendering && !closed;
+  }
+
+  /**
+   * Sets whether events should be queued in a pre-allocated ring buffer
+   * which producers fill without taking any monitor, instead of in a list
+   * guarded by a monitor. Takes effect when {@link #activateOptions} is
+   * called and cannot be reverted afterwards. The ring buffer size is
+   * <b>BufferSize</b> rounded up to a power of two.
+   * <p>
+   * The ring buffer relies on <code>java.util.concurrent</code> and
+   * requires a JRE 1.5 or later.
+   * </p>
+   *
+   * @since 1.2.18
+   * @param value true to use a ring buffer.
+   */
+  public void setRingBuffer(final boolean value) {
+    ringBuffer = value;
+  }
+
+  /**
+   * Gets whether events are queued in a ring buffer.
+   *
+   * @since 1.2.18
+   * @return the current value of the <b>RingBuffer</b> option.
+   */
+  public boolean getRingBuffer() {
+    return ringBuffer;
+  }
+
+  /**
+   * Sets how the dispatcher waits for events in ring buffer mode:
+   * <code>block</code> (the default) waits on a monitor which producers
+   * only signal when the dispatcher is idle, <code>park</code> parks the
+   * dispatcher thread, <code>yield</code> and <code>spin</code> poll the
+   * ring buffer, with or without yielding the processor. Polling gives
+   * the lowest latency at the cost of a busy processor.
+   *
+   * @since 1.2.18
+   * @param value wait strategy name.
+   */
+  public void setWaitStrategy(final String value) {
+    int strategy = RingBuffer.toWaitStrategy(value, -1);
+    if (strategy < 0) {
+      LogLog.warn("[" + value + "] is not a valid wait strategy,"
+        + " expected block, park, yield or spin.");
+    } else {
+      waitStrategy = strategy;
+    }
+  }
+
+  /**
+   * Gets the wait strategy used in ring buffer mode.
+   *
+   * @since 1.2.18
+   * @return the current value of the <b>WaitStrategy</b> option.
+   */
+  public String getWaitStrategy() {
+    switch (waitStrategy) {
+    case RingBuffer.PARK:
+      return "park";
+    case RingBuffer.YIELD:
+      return "yield";
+    case RingBuffer.SPIN:
+      return "spin";
+    default:
+      return "block";
+    }
+  }
+
   /**
    * Summary of discarded logging events for a logger.
    */
@@ -531,10 +767,12 @@ public class AsyncAppender extends AppenderSkeleton
       //
       try {
         //
-        //   loop until the AsyncAppender is closed.
+        //   loop until the AsyncAppender is closed
+        //      or switched to the ring buffer.
         //
         while (isActive) {
           LoggingEvent[] events = null;
+          RingBuffer ring = null;
 
           //
           //   extract pending events while synchronized
@@ -543,11 +781,13 @@ public class AsyncAppender extends AppenderSkeleton
           synchronized (buffer) {
             int bufferSize = buffer.size();
             isActive = !parent.closed;
+            ring = parent.ring;
 
-            while ((bufferSize == 0) && isActive) {
+            while ((bufferSize == 0) && isActive && (ring == null)) {
               buffer.wait();
               bufferSize = buffer.size();
               isActive = !parent.closed;
+              ring = parent.ring;
             }
 
             if (bufferSize > 0) {
@@ -581,16 +821,91 @@ public class AsyncAppender extends AppenderSkeleton
           //   process events after lock on buffer is released.
           //
           if (events != null) {
-            for (int i = 0; i < events.length; i++) {
-              synchronized (appenders) {
-                appenders.appendLoopOnAppenders(events[i]);
-              }
-            }
+            dispatch(events, events.length);
+          } else if (ring != null) {
+            break;
           }
         }
+
+        //
+        //   once switched to the ring buffer, dispatch from it
+        //      until it is halted and drained.
+        //
+        RingBuffer ring = parent.ring;
+        if (ring != null) {
+          runRing(ring);
+        }
       } catch (InterruptedException ex) {
         Thread.currentThread().interrupt();
       }
     }
+
+    /**
+     * Dispatch events from the ring buffer until it is halted
+     * and drained.
+     *
+     * @param ring ring buffer, may not be null.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private void runRing(final RingBuffer ring) throws InterruptedException {
+      LoggingEvent[] events = new LoggingEvent[ring.getCapacity()];
+
+      while (true) {
+        //
+        //   read halted before draining so that events published
+        //      before the ring was halted are not left behind.
+        boolean halted = ring.isHalted();
+        int count = ring.drainTo(events);
+
+        if (count > 0) {
+          dispatch(events, count);
+          for (int i = 0; i < count; i++) {
+            events[i] = null;
+          }
+        }
+
+        if (parent.discardPending) {
+          dispatchDiscards();
+        }
+
+        if (count == 0) {
+          if (halted) {
+            break;
+          }
+          ring.waitForEvents();
+        }
+      }
+    }
+
+    /**
+     * Dispatch the summaries of events discarded from the ring buffer.
+     */
+    private void dispatchDiscards() {
+      LoggingEvent[] summaries;
+      synchronized (buffer) {
+        parent.discardPending = false;
+        summaries = new LoggingEvent[discardMap.size()];
+        int index = 0;
+        for (
+          Iterator iter = discardMap.values().iterator(); iter.hasNext();) {
+          summaries[index++] = ((DiscardSummary) iter.next()).createEvent();
+        }
+        discardMap.clear();
+      }
+      dispatch(summaries, summaries.length);
+    }
+
+    /**
+     * Call the attached appenders with the events, as a single batch
+     * for appenders implementing {@link org.apache.log4j.spi.BatchAppender}.
+     *
+     * @param events events, may not be null.
+     * @param count number of events to dispatch.
+     */
+    private void dispatch(final LoggingEvent[] events, final int count) {
+      synchronized (appenders) {
+        appenders.appendLoopOnAppenders(events, count);
+      }
+    }
   }
 }
@@ -34,9 +34,11 @@ package org.apache.log4j;
 import org.apache.log4j.spi.AppenderAttachable;
 import org.apache.log4j.spi.LoggingEvent;
 import org.apache.log4j.spi.LoggerRepository;
+import org.apache.log4j.spi.ReusableLoggingEvent;
 import org.apache.log4j.spi.HierarchyEventListener;
 import org.apache.log4j.helpers.NullEnumeration;
 import org.apache.log4j.helpers.AppenderAttachableImpl;
+import org.apache.log4j.helpers.OptionConverter;
 
 import java.util.Enumeration;
 import java.util.MissingResourceException;
@@ -107,6 +109,16 @@ public class Category implements AppenderAttachable {
      which case it is inherited form the hierarchy.  */
   volatile protected Level level;
 
+  /**
+     The smallest level int which is enabled for this category, that
+     is the greater of the repository threshold and the effective
+     level, in the low 32 bits, and the level generation of the
+     hierarchy it was computed in, in the high 32 bits, or {@link
+     #UNKNOWN_LEVEL}. Only cached when the category belongs to a
+     {@link Hierarchy}, whose generation changes whenever a level or
+     the threshold changes. */
+  volatile long enabledLevel = UNKNOWN_LEVEL;
+
   /**
      The parent of this category. All categories have at least one
      ancestor which is the root category. */
@@ -117,6 +129,39 @@ public class Category implements AppenderAttachable {
      getFQCN method. */
   private static final String FQCN = Category.class.getName();
 
+  /**
+     System property which, when set to <code>true</code>, makes
+     {@link #callAppenders} read the appender snapshot of each
+     category without taking its monitor.
+
+     @since 1.2.18 */
+  public static final String LOCK_FREE_DISPATCH_KEY = "log4j.lockFreeDispatch";
+
+  private static final boolean lockFreeDispatch =
+    OptionConverter.toBoolean(
+      OptionConverter.getSystemProperty(LOCK_FREE_DISPATCH_KEY, null), false);
+
+  /**
+     System property which, when set to <code>true</code>, makes each
+     thread log through a single {@link ReusableLoggingEvent} instead
+     of creating a new event for each request, and lets {@link
+     WriterAppender} format {@link PatternLayout} output into reusable
+     buffers.
+
+     @since 1.2.18 */
+  public static final String GARBAGE_FREE_KEY = "log4j.garbageFree";
+
+  static final boolean garbageFree =
+    OptionConverter.toBoolean(
+      OptionConverter.getSystemProperty(GARBAGE_FREE_KEY, null), false);
+
+  private static final Appender[] NO_APPENDERS = new Appender[0];
+
+  /**
+     Value of {@link #enabledLevel} when it has to be recomputed. Its
+     generation is never the current generation of a hierarchy. */
+  static final long UNKNOWN_LEVEL = Long.MIN_VALUE;
+
   protected ResourceBundle resourceBundle;
 
   // Categories need to know what Hierarchy they are in
@@ -125,6 +170,13 @@ public class Category implements AppenderAttachable {
 
   AppenderAttachableImpl aai;
 
+  /**
+     Immutable copy of the appenders held in <code>aai</code>. It is
+     replaced, never modified, each time an appender is added or
+     removed so that it can be read without holding the monitor of
+     this category. */
+  private volatile Appender[] appenderSnapshot = NO_APPENDERS;
+
   /** Additivity is set to true by default, that is children inherit
       the appenders of their ancestors by default. If this variable is
       set to <code>false</code> then the appenders found in the
@@ -132,7 +184,7 @@ public class Category implements AppenderAttachable {
       of this category will inherit its appenders, unless the children
       have their additivity flag set to <code>false</code> too. See
       the user manual for more details. */
-  protected boolean additive = true;
+  volatile protected boolean additive = true;
 
   /**
      This constructor created a new <code>Category</code> instance and
@@ -162,6 +214,7 @@ public class Category implements AppenderAttachable {
       aai = new AppenderAttachableImpl();
     }
     aai.addAppender(newAppender);
+    publishAppenders();
     repository.fireAddAppenderEvent(this, newAppender);
   }
 
@@ -197,6 +250,11 @@ public class Category implements AppenderAttachable {
      @param event the event to log.  */
   public
   void callAppenders(LoggingEvent event) {
+    if(lockFreeDispatch) {
+      callAppendersLockFree(event);
+      return;
+    }
+
     int writes = 0;
 
     for(Category c = this; c != null; c=c.parent) {
@@ -216,6 +274,81 @@ public class Category implements AppenderAttachable {
     }
   }
 
+  /**
+     Same as {@link #callAppenders} except that the appenders of each
+     category are read from its immutable snapshot instead of under
+     the category's monitor. Appenders are therefore called
+     concurrently from all logging threads and must protect
+     themselves, as {@link AppenderSkeleton#doAppend} does.
+
+     <p>An appender removed from a category while an event is being
+     dispatched may still receive that event.
+
+     @since 1.2.18 */
+  final
+  void callAppendersLockFree(LoggingEvent event) {
+    int writes = 0;
+
+    for(Category c = this; c != null; c=c.parent) {
+      Appender[] appenders = c.appenderSnapshot;
+      for(int i = 0; i < appenders.length; i++) {
+	appenders[i].doAppend(event);
+      }
+      writes += appenders.length;
+      if(!c.additive) {
+	break;
+      }
+    }
+
+    if(writes == 0) {
+      repository.emitNoAppenderWarning(this);
+    }
+  }
+
+  /**
+     Returns true if the events of this category reach an open {@link
+     AsyncAppender} with the <b>DeferredRendering</b> option set,
+     through the appenders of this category or of its ancestors as
+     far as additivity allows. Read from the appender snapshots
+     without locking.
+
+     @since 1.2.18 */
+  final
+  boolean defersRendering() {
+    for(Category c = this; c != null; c=c.parent) {
+      Appender[] appenders = c.appenderSnapshot;
+      for(int i = 0; i < appenders.length; i++) {
+	if(appenders[i] instanceof AsyncAppender
+	   && ((AsyncAppender) appenders[i]).defersRendering()) {
+	  return true;
+	}
+      }
+      if(!c.additive) {
+	break;
+      }
+    }
+    return false;
+  }
+
+  /**
+     Replace the appender snapshot with the current content of
+     <code>aai</code>. Must be called while holding the monitor of
+     this category after every change to <code>aai</code>.  */
+  private
+  void publishAppenders() {
+    Vector v = new Vector();
+    Enumeration e = (aai == null) ? null : aai.getAllAppenders();
+    while(e != null && e.hasMoreElements()) {
+      v.addElement(e.nextElement());
+    }
+    Appender[] appenders = NO_APPENDERS;
+    if(v.size() > 0) {
+      appenders = new Appender[v.size()];
+      v.copyInto(appenders);
+    }
+    appenderSnapshot = appenders;
+  }
+
   /**
      Close all attached appenders implementing the AppenderAttachable
      interface.
@@ -254,9 +387,7 @@ public class Category implements AppenderAttachable {
     @param message the message object to log. */
   public
   void debug(Object message) {
-    if(repository.isDisabled(Level.DEBUG_INT))
-      return;
-    if(Level.DEBUG.isGreaterOrEqual(this.getEffectiveLevel())) {
+    if(isLevelEnabled(Level.DEBUG_INT)) {
       forcedLog(FQCN, Level.DEBUG, message, null);
     }
   }
@@ -273,9 +404,7 @@ public class Category implements AppenderAttachable {
    @param t the exception to log, including its stack trace.  */
   public
   void debug(Object message, Throwable t) {
-    if(repository.isDisabled(Level.DEBUG_INT))
-      return;
-    if(Level.DEBUG.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.DEBUG_INT))
       forcedLog(FQCN, Level.DEBUG, message, t);
   }
 
@@ -299,9 +428,7 @@ public class Category implements AppenderAttachable {
     @param message the message object to log */
   public
   void error(Object message) {
-    if(repository.isDisabled(Level.ERROR_INT))
-      return;
-    if(Level.ERROR.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.ERROR_INT))
       forcedLog(FQCN, Level.ERROR, message, null);
   }
 
@@ -316,9 +443,7 @@ public class Category implements AppenderAttachable {
    @param t the exception to log, including its stack trace.  */
   public
   void error(Object message, Throwable t) {
-    if(repository.isDisabled(Level.ERROR_INT))
-      return;
-    if(Level.ERROR.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.ERROR_INT))
       forcedLog(FQCN, Level.ERROR, message, t);
 
   }
@@ -359,9 +484,7 @@ public class Category implements AppenderAttachable {
     @param message the message object to log */
   public
   void fatal(Object message) {
-    if(repository.isDisabled(Level.FATAL_INT))
-      return;
-    if(Level.FATAL.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.FATAL_INT))
       forcedLog(FQCN, Level.FATAL, message, null);
   }
 
@@ -376,9 +499,7 @@ public class Category implements AppenderAttachable {
    @param t the exception to log, including its stack trace.  */
   public
   void fatal(Object message, Throwable t) {
-    if(repository.isDisabled(Level.FATAL_INT))
-      return;
-    if(Level.FATAL.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.FATAL_INT))
       forcedLog(FQCN, Level.FATAL, message, t);
   }
 
@@ -388,6 +509,19 @@ public class Category implements AppenderAttachable {
      without further checks.  */
   protected
   void forcedLog(String fqcn, Priority level, Object message, Throwable t) {
+    if(garbageFree) {
+      ReusableLoggingEvent event =
+	ReusableLoggingEvent.acquire(fqcn, this, level, message, t);
+      // null if an appender is logging while handling this thread's event
+      if(event != null) {
+	try {
+	  callAppenders(event);
+	} finally {
+	  event.release();
+	}
+	return;
+      }
+    }
     callAppenders(new LoggingEvent(fqcn, this, level, message, t));
   }
 
@@ -446,6 +580,35 @@ public class Category implements AppenderAttachable {
     return null; // If reached will cause an NullPointerException.
   }
 
+  /**
+     Check whether requests of the level passed as parameter are
+     enabled, taking into account both the repository threshold and
+     the effective level of this category.
+
+     <p>When this category belongs to a {@link Hierarchy} the answer
+     is computed from a cached value which is valid as long as the
+     level generation of the hierarchy does not change, so that the
+     check costs two volatile reads. Other repositories are queried
+     on every call.
+
+     @since 1.2.18 */
+  final
+  boolean isLevelEnabled(int level) {
+    LoggerRepository repository = this.repository;
+    if(repository instanceof Hierarchy) {
+      Hierarchy h = (Hierarchy) repository;
+      // read the generation first, see Hierarchy.updateEnabledLevel
+      int generation = h.levelGeneration;
+      long enabled = this.enabledLevel;
+      if((int) (enabled >>> 32) != generation) {
+	return level >= h.updateEnabledLevel(this, generation);
+      }
+      return level >= (int) enabled;
+    }
+    return !repository.isDisabled(level)
+      && level >= getEffectiveLevel().level;
+  }
+
   /**
     *
     * @deprecated Please use the the {@link #getEffectiveLevel} method
@@ -660,9 +823,7 @@ public class Category implements AppenderAttachable {
     @param message the message object to log */
   public
   void info(Object message) {
-    if(repository.isDisabled(Level.INFO_INT))
-      return;
-    if(Level.INFO.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.INFO_INT))
       forcedLog(FQCN, Level.INFO, message, null);
   }
 
@@ -677,9 +838,7 @@ public class Category implements AppenderAttachable {
    @param t the exception to log, including its stack trace.  */
   public
   void info(Object message, Throwable t) {
-    if(repository.isDisabled(Level.INFO_INT))
-      return;
-    if(Level.INFO.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.INFO_INT))
       forcedLog(FQCN, Level.INFO, message, t);
   }
 
@@ -731,9 +890,7 @@ public class Category implements AppenderAttachable {
     *   */
   public
   boolean isDebugEnabled() {
-    if(repository.isDisabled( Level.DEBUG_INT))
-      return false;
-    return Level.DEBUG.isGreaterOrEqual(this.getEffectiveLevel());
+    return isLevelEnabled(Level.DEBUG_INT);
   }
 
   /**
@@ -746,9 +903,7 @@ public class Category implements AppenderAttachable {
   */
   public
   boolean isEnabledFor(Priority level) {
-    if(repository.isDisabled(level.level))
-      return false;
-    return level.isGreaterOrEqual(this.getEffectiveLevel());
+    return isLevelEnabled(level.level);
   }
 
   /**
@@ -760,9 +915,7 @@ public class Category implements AppenderAttachable {
   */
   public
   boolean isInfoEnabled() {
-    if(repository.isDisabled(Level.INFO_INT))
-      return false;
-    return Level.INFO.isGreaterOrEqual(this.getEffectiveLevel());
+    return isLevelEnabled(Level.INFO_INT);
   }
 
 
@@ -776,10 +929,7 @@ public class Category implements AppenderAttachable {
      @since 0.8.4 */
   public
   void l7dlog(Priority priority, String key, Throwable t) {
-    if(repository.isDisabled(priority.level)) {
-      return;
-    }
-    if(priority.isGreaterOrEqual(this.getEffectiveLevel())) {
+    if(isLevelEnabled(priority.level)) {
       String msg = getResourceBundleString(key);
       // if message corresponding to 'key' could not be found in the
       // resource bundle, then default to 'key'.
@@ -800,10 +950,7 @@ public class Category implements AppenderAttachable {
   */
   public
   void l7dlog(Priority priority, String key,  Object[] params, Throwable t) {
-    if(repository.isDisabled(priority.level)) {
-      return;
-    }
-    if(priority.isGreaterOrEqual(this.getEffectiveLevel())) {
+    if(isLevelEnabled(priority.level)) {
       String pattern = getResourceBundleString(key);
       String msg;
       if(pattern == null)
@@ -819,10 +966,7 @@ public class Category implements AppenderAttachable {
    */
   public
   void log(Priority priority, Object message, Throwable t) {
-    if(repository.isDisabled(priority.level)) {
-      return;
-    }
-    if(priority.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(priority.level))
       forcedLog(FQCN, priority, message, t);
   }
 
@@ -831,10 +975,7 @@ public class Category implements AppenderAttachable {
  */
   public
   void log(Priority priority, Object message) {
-    if(repository.isDisabled(priority.level)) {
-      return;
-    }
-    if(priority.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(priority.level))
       forcedLog(FQCN, priority, message, null);
   }
 
@@ -849,10 +990,7 @@ public class Category implements AppenderAttachable {
      @param t The throwable of the logging request, may be null.  */
   public
   void log(String callerFQCN, Priority level, Object message, Throwable t) {
-    if(repository.isDisabled(level.level)) {
-      return;
-    }
-    if(level.isGreaterOrEqual(this.getEffectiveLevel())) {
+    if(isLevelEnabled(level.level)) {
       forcedLog(callerFQCN, level, message, t);
     }
   }
@@ -888,11 +1026,14 @@ public class Category implements AppenderAttachable {
       for (Enumeration iter = aai.getAllAppenders(); iter != null && iter.hasMoreElements();) {
           appenders.add(iter.nextElement());
       }
-      aai.removeAllAppenders();
+      // Withdraw the snapshot before the appenders get closed.
+      AppenderAttachableImpl removed = aai;
+      aai = null;
+      publishAppenders();
+      removed.removeAllAppenders();
       for(Enumeration iter = appenders.elements(); iter.hasMoreElements();) {
           fireRemoveAppenderEvent((Appender) iter.nextElement());
       }
-      aai = null;
     }
   }
 
@@ -909,6 +1050,7 @@ public class Category implements AppenderAttachable {
       return;
     boolean wasAttached = aai.isAttached(appender);
     aai.removeAppender(appender);
+    publishAppenders();
     if (wasAttached) {
         fireRemoveAppenderEvent(appender);
     }
@@ -925,6 +1067,7 @@ public class Category implements AppenderAttachable {
     if(name == null || aai == null) return;
     Appender appender = aai.getAppender(name);
     aai.removeAppender(name);
+    publishAppenders();
     if (appender != null) {
         fireRemoveAppenderEvent(appender);
     }
@@ -945,6 +1088,17 @@ public class Category implements AppenderAttachable {
   final
   void setHierarchy(LoggerRepository repository) {
     this.repository = repository;
+    this.enabledLevel = UNKNOWN_LEVEL;
+  }
+
+  /**
+     Let the repository know that the level of this category has
+     changed so that cached effective levels can be discarded.  */
+  private
+  void fireLevelChanged() {
+    if(repository instanceof Hierarchy) {
+      ((Hierarchy) repository).levelsChanged();
+    }
   }
 
   /**
@@ -961,6 +1115,7 @@ public class Category implements AppenderAttachable {
   public
   void setLevel(Level level) {
     this.level = level;
+    fireLevelChanged();
   }
 
 
@@ -974,6 +1129,7 @@ public class Category implements AppenderAttachable {
   public
   void setPriority(Priority priority) {
     this.level = (Level) priority;
+    fireLevelChanged();
   }
 
 
@@ -1036,10 +1192,7 @@ public class Category implements AppenderAttachable {
     @param message the message object to log.  */
   public
   void warn(Object message) {
-    if(repository.isDisabled( Level.WARN_INT))
-      return;
-
-    if(Level.WARN.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.WARN_INT))
       forcedLog(FQCN, Level.WARN, message, null);
   }
 
@@ -1054,9 +1207,7 @@ public class Category implements AppenderAttachable {
    @param t the exception to log, including its stack trace.  */
   public
   void warn(Object message, Throwable t) {
-    if(repository.isDisabled(Level.WARN_INT))
-      return;
-    if(Level.WARN.isGreaterOrEqual(this.getEffectiveLevel()))
+    if(isLevelEnabled(Level.WARN_INT))
       forcedLog(FQCN, Level.WARN, message, t);
   }
 }
@@ -20,6 +20,7 @@ package org.apache.log4j;
 import java.io.IOException;
 import java.io.OutputStream;
 import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.LoggingEvent;
 
 /**
   * ConsoleAppender appends log events to <code>System.out</code> or
@@ -145,6 +146,51 @@ public class ConsoleAppender extends WriterAppender {
         super.activateOptions();
   }
   
+  /**
+   *  Performs the closed and threshold checks without
+   *  synchronization and only holds the lock of this appender while
+   *  the event is filtered, formatted and written.
+   *
+   *  @param event event, may not be null.
+   *  @since 1.2.18
+   */
+  public void doAppend(final LoggingEvent event) {
+    if (closed) {
+      LogLog.error("Attempted to append to closed appender named ["+name+"].");
+      return;
+    }
+
+    if (isAsSevereAsThreshold(event.getLevel())) {
+      synchronized (this) {
+        if (isAccepted(event)) {
+          append(event);
+        }
+      }
+    }
+  }
+
+  /**
+   *  Batch counterpart of {@link #doAppend(LoggingEvent)}.
+   *
+   *  @param events events, may not be null.
+   *  @param count number of events to append from the start of events.
+   *  @since 1.2.18
+   */
+  public void doAppend(final LoggingEvent[] events, final int count) {
+    if (closed) {
+      LogLog.error("Attempted to append to closed appender named ["+name+"].");
+      return;
+    }
+
+    synchronized (this) {
+      LoggingEvent[] accepted = accept(events, count, false);
+      int n = (accepted == events) ? count : accepted.length;
+      if (n > 0) {
+        append(accepted, n);
+      }
+    }
+  }
+
   /**
    *  {@inheritDoc}
    */
@@ -22,6 +22,7 @@ package org.apache.log4j;
 import java.io.IOException;
 import java.io.File;
 import java.io.InterruptedIOException;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -29,6 +30,7 @@ import java.util.Calendar;
 import java.util.TimeZone;
 import java.util.Locale;
 
+import org.apache.log4j.helpers.FileCompressor;
 import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.spi.LoggingEvent;
 
@@ -183,6 +185,11 @@ public class DailyRollingFileAppender extends FileAppender {
 
   int checkPeriod = TOP_OF_TROUBLE;
 
+  /**
+     Format rolled files are compressed to, null if they are not
+     compressed.  */
+  private String compression;
+
   // The gmtTimeZone is used only in computeCheckPeriod() method.
   static final TimeZone gmtTimeZone = TimeZone.getTimeZone("GMT");
 
@@ -219,6 +226,33 @@ public class DailyRollingFileAppender extends FileAppender {
     return datePattern;
   }
 
+  /**
+     The <b>Compression</b> option takes "gz" or "zip" to compress
+     rolled files with gzip or into a zip archive, for example
+     <code>/foo/bar.log.2001-02-16</code> to
+     <code>/foo/bar.log.2001-02-16.gz</code>. Files are compressed by a
+     background thread, see {@link FileCompressor}, and remain
+     uncompressed until their compression completes. Rolled files
+     left uncompressed, that is files of the same directory named
+     after the <b>File</b> option followed by a date matching the
+     <b>DatePattern</b>, are compressed when the appender is
+     activated.
+
+     <p>Rolled files are not compressed by default.
+
+     @since 1.2.18 */
+  public void setCompression(String value) {
+    compression = FileCompressor.toFormat(value);
+  }
+
+  /**
+     Returns the value of the <b>Compression</b> option.
+
+     @since 1.2.18 */
+  public String getCompression() {
+    return compression;
+  }
+
   public void activateOptions() {
     super.activateOptions();
     if(datePattern != null && fileName != null) {
@@ -229,6 +263,9 @@ public class DailyRollingFileAppender extends FileAppender {
       rc.setType(type);
       File file = new File(fileName);
       scheduledFilename = fileName+sdf.format(new Date(file.lastModified()));
+      if(compression != null) {
+        resumeCompression(file);
+      }
 
     } else {
       LogLog.error("Either File or DatePattern options are not set for appender ["
@@ -236,6 +273,42 @@ public class DailyRollingFileAppender extends FileAppender {
     }
   }
 
+  /**
+     Queues the rolled files left uncompressed for compression.  */
+  private void resumeCompression(File file) {
+    File dir = file.getAbsoluteFile().getParentFile();
+    String[] names = (dir == null) ? null : dir.list();
+    if(names == null) {
+      return;
+    }
+    String prefix = file.getName();
+    int skipped = 0;
+    for(int i = 0; i < names.length; i++) {
+      if(names[i].length() > prefix.length() && names[i].startsWith(prefix)) {
+        String suffix = names[i].substring(prefix.length());
+        if(suffix.endsWith(".tmp")) {
+          // renamed while compressed
+          suffix = suffix.substring(0, suffix.length() - 4);
+        }
+        try {
+          if(suffix.equals(sdf.format(sdf.parse(suffix)))) {
+            // named as by rollOver for the compressor to match them
+            if(!FileCompressor.resume(new File(fileName + suffix),
+                                      compression)) {
+              skipped++;
+            }
+          }
+        } catch(ParseException e) {
+          // not a rolled file
+        }
+      }
+    }
+    if(skipped > 0) {
+      LogLog.warn("Too many pending compressions, leaving " + skipped
+                  + " rolled files of [" + fileName + "] uncompressed.");
+    }
+  }
+
   void printPeriodicity(int type) {
     switch(type) {
     case TOP_OF_MINUTE:
@@ -320,7 +393,9 @@ public class DailyRollingFileAppender extends FileAppender {
     this.closeFile();
 
     File target  = new File(scheduledFilename);
-    if (target.exists()) {
+    if (compression != null) {
+      FileCompressor.delete(target, compression);
+    } else if (target.exists()) {
       target.delete();
     }
 
@@ -328,6 +403,9 @@ public class DailyRollingFileAppender extends FileAppender {
     boolean result = file.renameTo(target);
     if(result) {
       LogLog.debug(fileName +" -> "+ scheduledFilename);
+      if (compression != null) {
+        FileCompressor.submit(target, compression);
+      }
     } else {
       LogLog.error("Failed to rename ["+fileName+"] to ["+scheduledFilename+"].");
     }
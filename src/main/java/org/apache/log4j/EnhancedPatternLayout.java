@@ -462,6 +462,22 @@ public class EnhancedPatternLayout extends Layout {
    */
   private boolean handlesExceptions;
 
+  /**
+   * True unless a subclass overrides {@link #format(LoggingEvent)}.
+   */
+  private final boolean formatInherited = isFormatInherited(getClass());
+
+  /**
+   * True if the output is shared with equivalent layouts.
+   */
+  private boolean shareOutput = false;
+
+  /**
+   * Identifies the output of this layout among the layouts formatting
+   * the same event, null unless the output is shared.
+   */
+  private String outputKey;
+
   /**
      Constructs a EnhancedPatternLayout using the DEFAULT_LAYOUT_PATTERN.
 
@@ -502,6 +518,7 @@ public class EnhancedPatternLayout extends Layout {
       } else {
           handlesExceptions = false;
       }
+      outputKey = createOutputKey();
   }
 
   /**
@@ -512,6 +529,41 @@ public class EnhancedPatternLayout extends Layout {
     return conversionPattern;
   }
 
+  /**
+   * Sets the <b>ShareOutput</b> option. When true, the output of this
+   * layout is kept with each event it formats and reused by the other
+   * EnhancedPatternLayouts with the same conversion pattern and sharing
+   * enabled, so an event written by several appenders is formatted once.
+   * Subclasses of EnhancedPatternLayout never share their output.
+   * The default is false.
+   * @param shareOutput true to share the output.
+   * @since 1.2.18
+   */
+  public void setShareOutput(final boolean shareOutput) {
+    this.shareOutput = shareOutput;
+    outputKey = createOutputKey();
+  }
+
+  /**
+   * Returns the value of the <b>ShareOutput</b> option.
+   * @return true if the output is shared.
+   * @since 1.2.18
+   */
+  public boolean getShareOutput() {
+    return shareOutput;
+  }
+
+  /**
+   * Creates the key identifying the output of this layout.
+   * @return key, null if the output is not shared.
+   */
+  private String createOutputKey() {
+    if (!shareOutput || getClass() != EnhancedPatternLayout.class) {
+      return null;
+    }
+    return EnhancedPatternLayout.class.getName() + ':' + conversionPattern;
+  }
+
 
     /**
       Returns PatternParser used to parse the conversion string. Subclasses
@@ -539,13 +591,96 @@ public class EnhancedPatternLayout extends Layout {
    * @param event logging event to be formatted.
   */
   public String format(final LoggingEvent event) {
+      if (outputKey != null) {
+          String shared = event.getFormattedOutput(outputKey);
+          if (shared != null) {
+              return shared;
+          }
+      }
       StringBuffer buf = new StringBuffer();
+      appendConverters(buf, event);
+      String output = buf.toString();
+      if (outputKey != null) {
+          event.setFormattedOutput(outputKey, output);
+      }
+      return output;
+  }
+
+  /**
+   * Appends a formatted logging event to a buffer without creating
+   * a String.  If a subclass overrides {@link #format(LoggingEvent)} and
+   * not this method, the result of {@link #format(LoggingEvent)} is
+   * appended.
+   *
+   * @param buf buffer to append to.
+   * @param event logging event to be formatted.
+   * @since 1.2.18
+   */
+  public void format(final StringBuffer buf, final LoggingEvent event) {
+      if (outputKey != null) {
+          appendShared(buf, event);
+      } else if (formatInherited) {
+          appendConverters(buf, event);
+      } else {
+          super.format(buf, event);
+      }
+  }
+
+  /**
+   * Returns true unless a subclass overrides {@link #format(LoggingEvent)}.
+   * @return true if {@link #format(StringBuffer, LoggingEvent)} does not
+   * create an intermediate String.
+   * @since 1.2.18
+   */
+  public boolean formatsInPlace() {
+      return formatInherited;
+  }
+
+  /**
+   * Appends the output of each converter.
+   * @param buf buffer to append to.
+   * @param event logging event to be formatted.
+   */
+  private void appendConverters(final StringBuffer buf,
+                                final LoggingEvent event) {
       for(PatternConverter c = head;
           c != null;
           c = c.next) {
           c.format(buf, event);
       }
-      return buf.toString();
+  }
+
+  /**
+   * Appends the output shared by an equivalent layout, or formats
+   * the event and shares the output.
+   * @param buf buffer to append to.
+   * @param event logging event to be formatted.
+   */
+  private void appendShared(final StringBuffer buf,
+                            final LoggingEvent event) {
+      String shared = event.getFormattedOutput(outputKey);
+      if (shared != null) {
+          buf.append(shared);
+      } else {
+          int start = buf.length();
+          appendConverters(buf, event);
+          event.setFormattedOutput(outputKey, buf.substring(start));
+      }
+  }
+
+  /**
+   * Determines if a class inherits format(LoggingEvent).
+   * @param clazz layout class.
+   * @return true if the method is declared by EnhancedPatternLayout.
+   */
+  private static boolean isFormatInherited(final Class clazz) {
+      try {
+          return clazz.getMethod("format", new Class[] { LoggingEvent.class })
+            .getDeclaringClass() == EnhancedPatternLayout.class;
+      } catch (Exception e) {
+          // NoSuchMethodException cannot happen, SecurityException can
+          return false;
+      }
   }
 
   /**
@@ -22,17 +22,39 @@ import java.io.File;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.security.CodeSource;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Enhanced implementation of ThrowableRenderer.  Uses Throwable.getStackTrace
  * if running on JDK 1.4 or later and delegates to DefaultThrowableRenderer.render
  * on earlier virtual machines.
  *
+ * <p>Since 1.2.18 the location and version appended to each frame are
+ * computed once for each class and context class loader, and shared by
+ * all instances.
+ *
  * @since 1.2.16
  */
 public final class EnhancedThrowableRenderer implements ThrowableRenderer {
+    /**
+     * Maximum number of classes cached for each class loader.
+     */
+    private static final int MAX_CLASSES_PER_LOADER = 1024;
+
+    /**
+     * Location and version of classes, keyed by the context class loader
+     * used to find them and then by class name. Entries of class loaders
+     * which are no longer used are released with them.
+     */
+    private static final Map classDetailsByLoader = new WeakHashMap();
+
+    /**
+     * Location and version of classes found without context class loader.
+     */
+    private static final Map noLoaderClassDetails = createClassDetails();
+
     /**
      * Throwable.getStackTrace() method.
      */
@@ -66,9 +88,10 @@ public final class EnhancedThrowableRenderer implements ThrowableRenderer {
                 Object[] elements = (Object[]) getStackTraceMethod.invoke(throwable, noArgs);
                 String[] lines = new String[elements.length + 1];
                 lines[0] = throwable.toString();
-                Map classMap = new HashMap();
+                Map classDetails = getClassDetails(
+                        Thread.currentThread().getContextClassLoader());
                 for(int i = 0; i < elements.length; i++) {
-                    lines[i+1] = formatElement(elements[i], classMap);
+                    lines[i+1] = formatElement(elements[i], classDetails);
                 }
                 return lines;
             } catch(Exception ex) {
@@ -77,6 +100,39 @@ public final class EnhancedThrowableRenderer implements ThrowableRenderer {
         return DefaultThrowableRenderer.render(throwable);
     }
 
+    /**
+     * Create a bounded map of class name to location and version.
+     * @return new map.
+     */
+    private static Map createClassDetails() {
+        return new LinkedHashMap(16, 0.75f, true) {
+            protected boolean removeEldestEntry(final Map.Entry eldest) {
+                return size() > MAX_CLASSES_PER_LOADER;
+            }
+        };
+    }
+
+    /**
+     * Get the location and version of the classes found through
+     * a context class loader.
+     * @param loader context class loader, may be null.
+     * @return map of class name to location, access must be synchronized
+     *     on the map.
+     */
+    private static Map getClassDetails(final ClassLoader loader) {
+        if (loader == null) {
+            return noLoaderClassDetails;
+        }
+        synchronized(classDetailsByLoader) {
+            Map classDetails = (Map) classDetailsByLoader.get(loader);
+            if (classDetails == null) {
+                classDetails = createClassDetails();
+                classDetailsByLoader.put(loader, classDetails);
+            }
+            return classDetails;
+        }
+    }
+
     /**
      * Format one element from stack trace.
      * @param element element, may not be null.
@@ -88,61 +144,79 @@ public final class EnhancedThrowableRenderer implements ThrowableRenderer {
         buf.append(element);
         try {
             String className = getClassNameMethod.invoke(element, (Object[]) null).toString();
-            Object classDetails = classMap.get(className);
-            if (classDetails != null) {
-                buf.append(classDetails);
-            } else {
-                Class cls = findClass(className);
-                int detailStart = buf.length();
-                buf.append('[');
-                try {
-                    CodeSource source = cls.getProtectionDomain().getCodeSource();
-                    if (source != null) {
-                        URL locationURL = source.getLocation();
-                        if (locationURL != null) {
-                            //
-                            //   if a file: URL
-                            //
-                            if ("file".equals(locationURL.getProtocol())) {
-                                String path = locationURL.getPath();
-                                if (path != null) {
-                                    //
-                                    //  find the last file separator character
-                                    //
-                                    int lastSlash = path.lastIndexOf('/');
-                                    int lastBack = path.lastIndexOf(File.separatorChar);
-                                    if (lastBack > lastSlash) {
-                                        lastSlash = lastBack;
-                                    }
-                                    //
-                                    //  if no separator or ends with separator (a directory)
-                                    //     then output the URL, otherwise just the file name.
-                                    //
-                                    if (lastSlash <= 0 || lastSlash == path.length() - 1) {
-                                        buf.append(locationURL);
-                                    } else {
-                                        buf.append(path.substring(lastSlash + 1));
-                                    }
+            Object classDetails;
+            synchronized(classMap) {
+                classDetails = classMap.get(className);
+            }
+            if (classDetails == null) {
+                classDetails = formatClassDetails(className);
+                synchronized(classMap) {
+                    classMap.put(className, classDetails);
+                }
+            }
+            buf.append(classDetails);
+        } catch(Exception ex) {
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Format the location and version of a class.
+     * @param className class name, may not be null.
+     * @return location and version, empty if the class can not be found.
+     */
+    private String formatClassDetails(final String className) {
+        StringBuffer buf = new StringBuffer();
+        try {
+            Class cls = findClass(className);
+            buf.append('[');
+            try {
+                CodeSource source = cls.getProtectionDomain().getCodeSource();
+                if (source != null) {
+                    URL locationURL = source.getLocation();
+                    if (locationURL != null) {
+                        //
+                        //   if a file: URL
+                        //
+                        if ("file".equals(locationURL.getProtocol())) {
+                            String path = locationURL.getPath();
+                            if (path != null) {
+                                //
+                                //  find the last file separator character
+                                //
+                                int lastSlash = path.lastIndexOf('/');
+                                int lastBack = path.lastIndexOf(File.separatorChar);
+                                if (lastBack > lastSlash) {
+                                    lastSlash = lastBack;
+                                }
+                                //
+                                //  if no separator or ends with separator (a directory)
+                                //     then output the URL, otherwise just the file name.
+                                //
+                                if (lastSlash <= 0 || lastSlash == path.length() - 1) {
+                                    buf.append(locationURL);
+                                } else {
+                                    buf.append(path.substring(lastSlash + 1));
                                 }
-                            } else {
-                                buf.append(locationURL);
                             }
+                        } else {
+                            buf.append(locationURL);
                         }
                     }
-                } catch(SecurityException ex) {
                 }
-                buf.append(':');
-                Package pkg = cls.getPackage();
-                if (pkg != null) {
-                    String implVersion = pkg.getImplementationVersion();
-                    if (implVersion != null) {
-                        buf.append(implVersion);
-                    }
+            } catch(SecurityException ex) {
+            }
+            buf.append(':');
+            Package pkg = cls.getPackage();
+            if (pkg != null) {
+                String implVersion = pkg.getImplementationVersion();
+                if (implVersion != null) {
+                    buf.append(implVersion);
                 }
-                buf.append(']');
-                classMap.put(className, buf.substring(detailStart));
             }
+            buf.append(']');
         } catch(Exception ex) {
+            return "";
         }
         return buf.toString();
     }
@@ -155,7 +229,11 @@ public final class EnhancedThrowableRenderer implements ThrowableRenderer {
      */
     private Class findClass(final String className) throws ClassNotFoundException {
      try {
-       return Thread.currentThread().getContextClassLoader().loadClass(className);
+       ClassLoader loader = Thread.currentThread().getContextClassLoader();
+       if (loader == null) {
+         return Class.forName(className);
+       }
+       return loader.loadClass(className);
      } catch (ClassNotFoundException e) {
        try {
          return Class.forName(className);
@@ -23,8 +23,11 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.Charset;
 
+import org.apache.log4j.helpers.EncodingWriter;
 import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.helpers.QuietWriter;
 import org.apache.log4j.spi.ErrorCode;
@@ -66,6 +69,12 @@ public class FileAppender extends WriterAppender {
    */
   protected int bufferSize = 8*1024;
 
+  /**
+     Do we write to a FileChannel?
+
+     @since 1.2.18 */
+  protected boolean channelIO = false;
+
 
   /**
      The default constructor does not do anything.
@@ -216,6 +225,15 @@ public class FileAppender extends WriterAppender {
     return this.bufferSize;
   }
 
+  /**
+     Get the value of the <b>ChannelIO</b> option.
+
+     @since 1.2.18 */
+  public
+  boolean getChannelIO() {
+    return this.channelIO;
+  }
+
 
 
   /**
@@ -260,6 +278,28 @@ public class FileAppender extends WriterAppender {
     this.bufferSize = bufferSize;
   }
 
+  /**
+     The <b>ChannelIO</b> option takes a boolean value. It is set to
+     <code>false</code> by default. If true, the output is encoded
+     with a single encoder into a buffer of <b>BufferSize</b> bytes
+     and written to the {@link java.nio.channels.FileChannel} of the
+     file, bypassing the writer returned by {@link #createWriter}. Each
+     flush is a single write to the file. With <b>ImmediateFlush</b>
+     set to false, writes only happen when the buffer is full.
+
+     <p>A thread interrupted while writing to a channel closes it, and
+     the appender then reports write failures until the file is
+     reopened.
+
+     <p>Note: Actual opening of the file is made when {@link
+     #activateOptions} is called, not when the options are set.
+
+     @since 1.2.18 */
+  public
+  void setChannelIO(boolean channelIO) {
+    this.channelIO = channelIO;
+  }
+
   /**
     <p>Sets and <i>opens</i> the file where the log output will
     go. The specified file must be writable.
@@ -286,6 +326,33 @@ public class FileAppender extends WriterAppender {
     }
 
     reset();
+    Writer fw = openFile(fileName, append, bufferedIO, bufferSize);
+    this.setQWForFiles(fw);
+    this.fileName = fileName;
+    this.fileAppend = append;
+    this.bufferedIO = bufferedIO;
+    this.bufferSize = bufferSize;
+    writeHeader();
+    LogLog.debug("setFile ended");
+  }
+
+
+  /**
+     Opens the file and returns the writer to which the output is
+     written. Called by {@link #setFile(String, boolean, boolean,
+     int)} once the previous file is closed.
+
+     @param fileName The path to the log file.
+     @param append   If true will append to fileName. Otherwise will
+        truncate fileName.
+     @param bufferedIO If true, the output is buffered.
+     @param bufferSize size of the buffer.
+     @return writer, may not be null.
+     @throws IOException if the file cannot be opened.
+     @since 1.2.18 */
+  protected
+  Writer openFile(String fileName, boolean append, boolean bufferedIO,
+		  int bufferSize) throws IOException {
     FileOutputStream ostream = null;
     try {
           //
@@ -298,31 +365,63 @@ public class FileAppender extends WriterAppender {
           //      attempt to create it and try to create file
           //      see bug 9150
           //
-          String parentName = new File(fileName).getParent();
-          if (parentName != null) {
-             File parentDir = new File(parentName);
-             if(!parentDir.exists() && parentDir.mkdirs()) {
-                ostream = new FileOutputStream(fileName, append);
-             } else {
-                throw ex;
-             }
+          if(createParentDirectory(fileName)) {
+             ostream = new FileOutputStream(fileName, append);
           } else {
              throw ex;
           }
     }
-    Writer fw = createWriter(ostream);
-    if(bufferedIO) {
+    OutputStreamWriter osw = createWriter(ostream);
+    Writer fw = osw;
+    Charset charset = null;
+    if(channelIO || Category.garbageFree) {
+      charset = toCharset(osw);
+      if(charset == null) {
+	LogLog.warn("Encoding ["+osw.getEncoding()+"] is not supported by "
+		    +"java.nio, writing through an OutputStreamWriter.");
+      }
+    }
+    if(channelIO && charset != null) {
+      // same charset as osw, encoded into a reusable buffer
+      fw = new EncodingWriter(ostream.getChannel(), charset, bufferSize);
+    } else if(Category.garbageFree && charset != null) {
+      // same charset as osw, but encodes without allocating and
+      // buffers like a BufferedWriter
+      fw = new EncodingWriter(ostream, charset, bufferSize);
+    } else if(bufferedIO) {
       fw = new BufferedWriter(fw, bufferSize);
     }
-    this.setQWForFiles(fw);
-    this.fileName = fileName;
-    this.fileAppend = append;
-    this.bufferedIO = bufferedIO;
-    this.bufferSize = bufferSize;
-    writeHeader();
-    LogLog.debug("setFile ended");
+    return fw;
   }
 
+  /**
+     Returns the charset of a writer, or null if the name of its
+     encoding is not supported by {@link Charset}.
+
+     @since 1.2.18 */
+  static
+  Charset toCharset(OutputStreamWriter osw) {
+    try {
+      return Charset.forName(osw.getEncoding());
+    } catch(IllegalArgumentException e) {
+      // IllegalCharsetNameException or UnsupportedCharsetException
+      return null;
+    }
+  }
+
+  /**
+     Creates the missing parent directory of a file.
+
+     @return true if the directory was created.  */
+  static
+  boolean createParentDirectory(String fileName) {
+    String parentName = new File(fileName).getParent();
+    if (parentName != null) {
+       File parentDir = new File(parentName);
+       return !parentDir.exists() && parentDir.mkdirs();
+    }
+    return false;
+  }
 
   /**
      Sets the quiet writer being used.
@@ -69,12 +69,28 @@ public class Hierarchy implements LoggerRepository, RendererSupport, ThrowableRe
   private Vector listeners;
 
   Hashtable ht;
+  /**
+     Loggers present in <code>ht</code>, readable without locking.
+     Only modified while holding the lock on <code>ht</code>. */
+  private final LoggerTable loggers = new LoggerTable();
   Logger root;
   RendererMap rendererMap;
 
   int thresholdInt;
   Level threshold;
 
+  /**
+     Level generation, changed by {@link #levelsChanged} whenever the
+     level of a logger or the threshold changes. An enabled level
+     cached by a category is valid only for the generation it was
+     computed in. */
+  volatile int levelGeneration = 0;
+
+  /**
+     Serializes changes of <code>levelGeneration</code>. No other
+     lock is taken while holding it. */
+  private final Object levelGenerationLock = new Object();
+
   boolean emittedNoAppenderWarning = false;
   boolean emittedNoResourceBundleWarning = false;
 
@@ -127,7 +143,10 @@ public class Hierarchy implements LoggerRepository, RendererSupport, ThrowableRe
   public
   void clear() {
     //System.out.println("\n\nAbout to clear internal hash table.");
-    ht.clear();
+    synchronized(ht) {
+      ht.clear();
+      loggers.clear();
+    }
   }
 
   public
@@ -151,6 +170,10 @@ public class Hierarchy implements LoggerRepository, RendererSupport, ThrowableRe
   */
   public
   Logger exists(String name) {
+    Logger logger = loggers.get(name);
+    if(logger != null) {
+      return logger;
+    }
     Object o = ht.get(new CategoryKey(name));
     if(o instanceof Logger) {
       return (Logger) o;
@@ -184,6 +207,7 @@ public class Hierarchy implements LoggerRepository, RendererSupport, ThrowableRe
     if(l != null) {
       thresholdInt = l.level;
       threshold = l;
+      levelsChanged();
     }
   }
 
@@ -263,12 +287,18 @@ public class Hierarchy implements LoggerRepository, RendererSupport, ThrowableRe
   public
   Logger getLogger(String name, LoggerFactory factory) {
     //System.out.println("getInstance("+name+") called.");
+    // Existing loggers are found without locking. Only the creation
+    // of a logger, which has to link it with its parent and
+    // children, needs the lock.
+    Logger logger = loggers.get(name);
+    if(logger != null) {
+      return logger;
+    }
+
     CategoryKey key = new CategoryKey(name);
     // Synchronize to prevent write conflicts. Read conflicts (in
     // getChainedLevel method) are possible only if variable
     // assignments are non-atomic.
-    Logger logger;
-
     synchronized(ht) {
       Object o = ht.get(key);
       if(o == null) {
@@ -276,6 +306,7 @@ public class Hierarchy implements LoggerRepository, RendererSupport, ThrowableRe
 	logger.setHierarchy(this);
 	ht.put(key, logger);
 	updateParents(logger);
+	loggers.put(name, logger);
 	return logger;
       } else if(o instanceof Logger) {
 	return (Logger) o;
@@ -286,6 +317,12 @@ public class Hierarchy implements LoggerRepository, RendererSupport, ThrowableRe
 	ht.put(key, logger);
 	updateChildren((ProvisionNode) o, logger);
 	updateParents(logger);
+	loggers.put(name, logger);
+	// A factory may hand out loggers with a level already set, in
+	// which case the children linked above now inherit it.
+	if(logger.level != null) {
+	  levelsChanged();
+	}
 	return logger;
       }
       else {
@@ -356,6 +393,35 @@ public class Hierarchy implements LoggerRepository, RendererSupport, ThrowableRe
     return thresholdInt > level;
   }
 
+  /**
+     Compute and cache the smallest level enabled for
+     <code>cat</code>, which is the greater of the threshold of this
+     hierarchy and the effective level of <code>cat</code>.
+
+     <p>No lock is taken. <code>generation</code> must be read before
+     the levels it is computed from, so that a level change racing
+     the computation makes the cached value stale instead of letting
+     it hide the change.  */
+  int updateEnabledLevel(Category cat, int generation) {
+    int enabled = Math.max(thresholdInt, cat.getEffectiveLevel().level);
+    cat.enabledLevel = ((long) generation << 32) | (enabled & 0xFFFFFFFFL);
+    return enabled;
+  }
+
+  /**
+     Discard the cached enabled level of every logger in this
+     hierarchy by moving to a new level generation. Called after the
+     level of a logger or the threshold of the hierarchy changed.  */
+  void levelsChanged() {
+    synchronized(levelGenerationLock) {
+      int generation = levelGeneration + 1;
+      if(generation == (int) (Category.UNKNOWN_LEVEL >>> 32)) {
+	generation++;
+      }
+      levelGeneration = generation;
+    }
+  }
+
   /**
      @deprecated Deprecated with no replacement.
   */
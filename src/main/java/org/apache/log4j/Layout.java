@@ -42,6 +42,37 @@ public abstract class Layout implements OptionHandler {
   public
   String format(LoggingEvent event);
 
+  /**
+     Appends the formatted event to <code>buf</code>.
+
+     <p>The base class appends the result of {@link
+     #format(LoggingEvent)}, so that appenders can use this method
+     with any layout. Layouts able to format without creating a String
+     should override it together with {@link #formatsInPlace}.
+
+     @param buf buffer to append to.
+     @param event event to format.
+     @since 1.2.18 */
+  public
+  void format(StringBuffer buf, LoggingEvent event) {
+    String s = format(event);
+    if(s != null) {
+      buf.append(s);
+    }
+  }
+
+  /**
+     Returns <code>true</code> if {@link #format(StringBuffer,
+     LoggingEvent)} appends the formatted event without creating an
+     intermediate String. Appenders then prefer it to {@link
+     #format(LoggingEvent)}. The base class returns <code>false</code>.
+
+     @since 1.2.18 */
+  public
+  boolean formatsInPlace() {
+    return false;
+  }
+
   /**
      Returns the content type output by this layout. The base class
      returns "text/plain". 
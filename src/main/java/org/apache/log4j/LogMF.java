@@ -37,6 +37,8 @@ import java.util.Locale;
  * If the pattern contains more complex conversion patterns,
  * formatting will be delegated to java.text.MessageFormatter
  * which can be substantially slower.
+ * Since 1.2.18 simple patterns are parsed once and cached, and
+ * numbers and dates are formatted without a shared lock.
  *
  * @see org.apache.log4j.LogSF
  * @since 1.2.16
@@ -51,34 +53,58 @@ public final class LogMF extends LogXF {
     }
 
     /**
-     * Number format.
+     * Number and date formats of the current thread.
      */
-    private static NumberFormat numberFormat = null;
-    /**
-     * Locale at time of last number format request.
-     */
-    private static Locale numberLocale = null;
+    private static final ThreadLocal formats = new ThreadLocal();
+
     /**
-     * Date format.
+     * Number and date formats used by a thread.
      */
-    private static DateFormat dateFormat = null;
+    private static final class Formats {
+        /**
+         * Number format.
+         */
+        NumberFormat numberFormat = null;
+        /**
+         * Locale at time of last number format request.
+         */
+        Locale numberLocale = null;
+        /**
+         * Date format.
+         */
+        DateFormat dateFormat = null;
+        /**
+         * Locale at time of last date format request.
+         */
+        Locale dateLocale = null;
+    }
+
     /**
-     * Locale at time of last date format request.
+     * Get the formats of the current thread.
+     * @return formats, not null.
      */
-    private static Locale dateLocale = null;
+    private static Formats getFormats() {
+        Formats f = (Formats) formats.get();
+        if (f == null) {
+            f = new Formats();
+            formats.set(f);
+        }
+        return f;
+    }
 
     /**
      * Format number.
      * @param n number to format, may not be null.
      * @return formatted value.
      */
-    private static synchronized String formatNumber(final Object n) {
+    private static String formatNumber(final Object n) {
+        Formats f = getFormats();
         Locale currentLocale = Locale.getDefault();
-        if (currentLocale != numberLocale || numberFormat == null) {
-            numberLocale = currentLocale;
-            numberFormat = NumberFormat.getInstance(currentLocale);
+        if (currentLocale != f.numberLocale || f.numberFormat == null) {
+            f.numberLocale = currentLocale;
+            f.numberFormat = NumberFormat.getInstance(currentLocale);
         }
-        return numberFormat.format(n);
+        return f.numberFormat.format(n);
     }
 
 
@@ -87,16 +113,17 @@ public final class LogMF extends LogXF {
      * @param d date, may not be null.
      * @return formatted value.
      */
-    private static synchronized String formatDate(final Object d) {
+    private static String formatDate(final Object d) {
+        Formats f = getFormats();
         Locale currentLocale = Locale.getDefault();
-        if (currentLocale != dateLocale || dateFormat == null) {
-            dateLocale = currentLocale;
-            dateFormat = DateFormat.getDateTimeInstance(
+        if (currentLocale != f.dateLocale || f.dateFormat == null) {
+            f.dateLocale = currentLocale;
+            f.dateFormat = DateFormat.getDateTimeInstance(
                                 DateFormat.SHORT,
                                 DateFormat.SHORT,
                                 currentLocale);
         }
-        return dateFormat.format(d);
+        return f.dateFormat.format(d);
     }
 
     /**
@@ -118,69 +145,36 @@ public final class LogMF extends LogXF {
     }
 
 
-    /**
-     * Determines if pattern contains only {n} format elements
-     * and not apostrophes.
-     *
-     * @param pattern pattern, may not be null.
-     * @return true if pattern only contains {n} format elements.
-     */
-    private static boolean isSimple(final String pattern) {
-        if (pattern.indexOf('\'') != -1) {
-            return false;
-        }
-        for(int pos = pattern.indexOf('{');
-            pos != -1;
-            pos = pattern.indexOf('{', pos + 1)) {
-            if (pos + 2 >= pattern.length() ||
-                    pattern.charAt(pos+2) != '}' ||
-                    pattern.charAt(pos+1) < '0' ||
-                    pattern.charAt(pos+1) > '9') {
-                return false;
-            }
-        }
-        return true;
-
-    }
-
     /**
      * Formats arguments using MessageFormat.
      * @param pattern pattern, may be malformed or null.
      * @param arguments arguments, may be null or mismatched.
      * @return Message string or null
      */
-    private static String format(final String pattern,
-                                 final Object[] arguments) {
+    static String format(final String pattern,
+                         final Object[] arguments) {
         if (pattern == null) {
             return null;
-        } else if(isSimple(pattern)) {
-            String formatted[] = new String[10];
-            int prev = 0;
-            String retval = "";
-            int pos = pattern.indexOf('{');
-            while(pos >= 0) {
-                if(pos + 2 < pattern.length() && 
-                      pattern.charAt(pos+2) == '}' &&
-                      pattern.charAt(pos+1) >= '0' &&
-                      pattern.charAt(pos+1) <= '9') {
-                    int index = pattern.charAt(pos+1) - '0';
-                    retval += pattern.substring(prev, pos);
-                    if (formatted[index] == null) {
-                         if (arguments == null || index >= arguments.length) {
-                            formatted[index] = pattern.substring(pos, pos+3);
-                         } else {
-                            formatted[index] = formatObject(arguments[index]);
-                         }
-                    }
-                    retval += formatted[index];
-                    prev = pos + 3;
-                    pos = pattern.indexOf('{', prev);
-                } else {
-                    pos = pattern.indexOf('{', pos + 1);
+        }
+        MessagePattern parsed = MessagePattern.getLogMFPattern(pattern);
+        if (parsed != null) {
+            String[] formatted = new String[parsed.getArgumentCount()];
+            StringBuffer buf = parsed.createBuffer();
+            int count = parsed.getSlotCount();
+            for (int i = 0; i < count; i++) {
+                buf.append(parsed.getLiteral(i));
+                int index = parsed.getArgumentIndex(i);
+                if (formatted[index] == null) {
+                     if (arguments == null || index >= arguments.length) {
+                        formatted[index] = parsed.getPlaceholder(i);
+                     } else {
+                        formatted[index] = formatObject(arguments[index]);
+                     }
                 }
+                buf.append(formatted[index]);
             }
-            retval += pattern.substring(prev);
-            return retval;
+            buf.append(parsed.getLiteral(count));
+            return buf.toString();
         }
         try {
             return MessageFormat.format(pattern, arguments);
@@ -190,49 +184,26 @@ public final class LogMF extends LogXF {
     }
 
     /**
-     * Formats a single argument using MessageFormat.
+     * Create the message of a request, see ParameterizedMessage.
      * @param pattern pattern, may be malformed or null.
      * @param arguments arguments, may be null or mismatched.
-     * @return Message string or null
+     * @return message or null
      */
-    private static String format(final String pattern,
-                                 final Object arg0) {
-        if (pattern == null) {
-            return null;
-        } else if(isSimple(pattern)) {
-            String formatted = null;
-            int prev = 0;
-            String retval = "";
-            int pos = pattern.indexOf('{');
-            while(pos >= 0) {
-                if(pos + 2 < pattern.length() &&
-                      pattern.charAt(pos+2) == '}' &&
-                      pattern.charAt(pos+1) >= '0' &&
-                      pattern.charAt(pos+1) <= '9') {
-                    int index = pattern.charAt(pos+1) - '0';
-                    retval += pattern.substring(prev, pos);
-                    if (index != 0) {
-                        retval += pattern.substring(pos, pos+3);
-                    } else {
-                        if (formatted == null) {
-                            formatted = formatObject(arg0);
-                        }
-                        retval += formatted;
-                    }
-                    prev = pos + 3;
-                    pos = pattern.indexOf('{', prev);
-                } else {
-                    pos = pattern.indexOf('{', pos + 1);
-                }
-            }
-            retval += pattern.substring(prev);
-            return retval;
-        }
-        try {
-            return MessageFormat.format(pattern, new Object[] { arg0 });
-        } catch (IllegalArgumentException ex) {
-            return pattern;
-        }
+    private static Object message(final String pattern,
+                                  final Object[] arguments) {
+        return ParameterizedMessage.create(
+                ParameterizedMessage.MESSAGE_FORMAT, pattern, arguments);
+    }
+
+    /**
+     * Create the message of a request with a single argument.
+     * @param pattern pattern, may be malformed or null.
+     * @param arg0 argument, may be null or mismatched.
+     * @return message or null
+     */
+    private static Object message(final String pattern,
+                                  final Object arg0) {
+        return message(pattern, new Object[] { arg0 });
     }
 
 
@@ -244,7 +215,7 @@ public final class LogMF extends LogXF {
      * @param arguments arguments, may be null or mismatched.
      * @return Message string or null
      */
-    private static String format(
+    private static Object message(
             final String resourceBundleName,
             final String key,
             final Object[] arguments) {
@@ -260,7 +231,7 @@ public final class LogMF extends LogXF {
         } else {
             pattern = key;
         }
-        return format(pattern, arguments);
+        return message(pattern, arguments);
     }
 
 
@@ -278,8 +249,9 @@ public final class LogMF extends LogXF {
      */
     private static void forcedLog(final Logger logger,
                                   final Level level,
-                                  final String msg) {
-        logger.callAppenders(new LoggingEvent(FQCN, logger, level, msg, null));
+                                  final Object msg) {
+        logger.callAppenders(new LoggingEvent(FQCN, logger, level,
+                ParameterizedMessage.forLogger(logger, msg), null));
     }
 
     /**
@@ -292,9 +264,10 @@ public final class LogMF extends LogXF {
      */
     private static void forcedLog(final Logger logger,
                                   final Level level,
-                                  final String msg,
+                                  final Object msg,
                                   final Throwable t) {
-        logger.callAppenders(new LoggingEvent(FQCN, logger, level, msg, t));
+        logger.callAppenders(new LoggingEvent(FQCN, logger, level,
+                ParameterizedMessage.forLogger(logger, msg), t));
     }
     /**
          * Log a parameterized message at trace level.
@@ -306,7 +279,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, arguments));
+            forcedLog(logger, TRACE, message(pattern, arguments));
         }
     }
 
@@ -319,7 +292,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, arguments));
+            forcedLog(logger, Level.DEBUG, message(pattern, arguments));
         }
     }
 
@@ -332,7 +305,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, arguments));
+            forcedLog(logger, Level.INFO, message(pattern, arguments));
         }
     }
 
@@ -345,7 +318,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, arguments));
+            forcedLog(logger, Level.WARN, message(pattern, arguments));
         }
     }
 
@@ -358,7 +331,7 @@ public final class LogMF extends LogXF {
     public static void error(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.ERROR)) {
-            forcedLog(logger, Level.ERROR, format(pattern, arguments));
+            forcedLog(logger, Level.ERROR, message(pattern, arguments));
         }
     }
 
@@ -371,7 +344,7 @@ public final class LogMF extends LogXF {
     public static void fatal(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.FATAL)) {
-            forcedLog(logger, Level.FATAL, format(pattern, arguments));
+            forcedLog(logger, Level.FATAL, message(pattern, arguments));
         }
     }
 
@@ -388,7 +361,7 @@ public final class LogMF extends LogXF {
                              final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, arguments), t);
+            forcedLog(logger, TRACE, message(pattern, arguments), t);
         }
     }
 
@@ -404,7 +377,7 @@ public final class LogMF extends LogXF {
                              final String pattern,
         final Object[] arguments) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, arguments), t);
+            forcedLog(logger, Level.DEBUG, message(pattern, arguments), t);
         }
     }
 
@@ -420,7 +393,7 @@ public final class LogMF extends LogXF {
                             final String pattern,
         final Object[] arguments) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, arguments), t);
+            forcedLog(logger, Level.INFO, message(pattern, arguments), t);
         }
     }
 
@@ -436,7 +409,7 @@ public final class LogMF extends LogXF {
                             final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, arguments), t);
+            forcedLog(logger, Level.WARN, message(pattern, arguments), t);
         }
     }
 
@@ -452,7 +425,7 @@ public final class LogMF extends LogXF {
                              final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.ERROR)) {
-            forcedLog(logger, Level.ERROR, format(pattern, arguments), t);
+            forcedLog(logger, Level.ERROR, message(pattern, arguments), t);
         }
     }
 
@@ -468,7 +441,7 @@ public final class LogMF extends LogXF {
                              final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.FATAL)) {
-            forcedLog(logger, Level.FATAL, format(pattern, arguments), t);
+            forcedLog(logger, Level.FATAL, message(pattern, arguments), t);
         }
     }
 
@@ -483,7 +456,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final boolean argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -496,7 +469,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final char argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -509,7 +482,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final byte argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -522,7 +495,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final short argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -535,7 +508,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final int argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -548,7 +521,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final long argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -561,7 +534,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final float argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -574,7 +547,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final double argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -587,7 +560,7 @@ public final class LogMF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final Object argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, argument));
+            forcedLog(logger, TRACE, message(pattern, argument));
         }
     }
 
@@ -602,7 +575,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1) {
         if (logger.isEnabledFor(TRACE)) {
             forcedLog(logger, TRACE,
-                    format(pattern, toArray(arg0, arg1)));
+                    message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -618,7 +591,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isEnabledFor(TRACE)) {
             forcedLog(logger, TRACE,
-                    format(pattern, toArray(arg0, arg1, arg2)));
+                    message(pattern, toArray(arg0, arg1, arg2)));
         }
     }
 
@@ -636,7 +609,7 @@ public final class LogMF extends LogXF {
         final Object arg3) {
         if (logger.isEnabledFor(TRACE)) {
             forcedLog(logger, TRACE,
-                    format(pattern, toArray(arg0, arg1, arg2, arg3)));
+                    message(pattern, toArray(arg0, arg1, arg2, arg3)));
         }
     }
 
@@ -649,7 +622,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final boolean argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -662,7 +635,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final char argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -675,7 +648,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final byte argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -688,7 +661,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final short argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -701,7 +674,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final int argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -714,7 +687,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final long argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -727,7 +700,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final float argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -740,7 +713,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final double argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -753,7 +726,7 @@ public final class LogMF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final Object argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, argument));
+            forcedLog(logger, Level.DEBUG, message(pattern, argument));
         }
     }
 
@@ -768,7 +741,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1) {
         if (logger.isDebugEnabled()) {
             forcedLog(logger, Level.DEBUG,
-                    format(pattern, toArray(arg0, arg1)));
+                    message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -784,7 +757,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isDebugEnabled()) {
             forcedLog(logger, Level.DEBUG,
-                    format(pattern, toArray(arg0, arg1, arg2)));
+                    message(pattern, toArray(arg0, arg1, arg2)));
         }
     }
 
@@ -802,7 +775,7 @@ public final class LogMF extends LogXF {
         final Object arg3) {
         if (logger.isDebugEnabled()) {
             forcedLog(logger, Level.DEBUG,
-                    format(pattern, toArray(arg0, arg1, arg2, arg3)));
+                    message(pattern, toArray(arg0, arg1, arg2, arg3)));
         }
     }
 
@@ -815,7 +788,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final boolean argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -828,7 +801,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final char argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -841,7 +814,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final byte argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -854,7 +827,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final short argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -867,7 +840,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final int argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -880,7 +853,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final long argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -893,7 +866,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final float argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -906,7 +879,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final double argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -919,7 +892,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final Object argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, argument));
+            forcedLog(logger, Level.INFO, message(pattern, argument));
         }
     }
 
@@ -933,7 +906,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final Object arg0, final Object arg1) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, toArray(arg0, arg1)));
+            forcedLog(logger, Level.INFO, message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -948,7 +921,7 @@ public final class LogMF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern,
+            forcedLog(logger, Level.INFO, message(pattern,
                     toArray(arg0, arg1, arg2)));
         }
     }
@@ -966,7 +939,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2,
         final Object arg3) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern,
+            forcedLog(logger, Level.INFO, message(pattern,
                     toArray(arg0, arg1, arg2, arg3)));
         }
     }
@@ -980,7 +953,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final boolean argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -993,7 +966,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final char argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -1006,7 +979,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final byte argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -1019,7 +992,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final short argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -1032,7 +1005,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final int argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -1045,7 +1018,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final long argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -1058,7 +1031,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final float argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -1071,7 +1044,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final double argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -1084,7 +1057,7 @@ public final class LogMF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final Object argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, argument));
+            forcedLog(logger, Level.WARN, message(pattern, argument));
         }
     }
 
@@ -1099,7 +1072,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1) {
         if (logger.isEnabledFor(Level.WARN)) {
             forcedLog(logger, Level.WARN,
-                    format(pattern, toArray(arg0, arg1)));
+                    message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -1115,7 +1088,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isEnabledFor(Level.WARN)) {
             forcedLog(logger, Level.WARN,
-                    format(pattern, toArray(arg0, arg1, arg2)));
+                    message(pattern, toArray(arg0, arg1, arg2)));
         }
     }
 
@@ -1132,7 +1105,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2,
         final Object arg3) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern,
+            forcedLog(logger, Level.WARN, message(pattern,
                     toArray(arg0, arg1, arg2, arg3)));
         }
     }
@@ -1150,7 +1123,7 @@ public final class LogMF extends LogXF {
                              final Object[] parameters) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, parameters));
+                    message(pattern, parameters));
         }
     }
 
@@ -1169,7 +1142,7 @@ public final class LogMF extends LogXF {
                              final Object[] parameters) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, parameters), t);
+                    message(pattern, parameters), t);
         }
     }
 
@@ -1186,7 +1159,7 @@ public final class LogMF extends LogXF {
                              final Object param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(param1)));
+                    message(pattern, toArray(param1)));
         }
     }
 
@@ -1203,7 +1176,7 @@ public final class LogMF extends LogXF {
                              final boolean param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1221,7 +1194,7 @@ public final class LogMF extends LogXF {
                              final byte param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1239,7 +1212,7 @@ public final class LogMF extends LogXF {
                              final char param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1256,7 +1229,7 @@ public final class LogMF extends LogXF {
                              final short param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1273,7 +1246,7 @@ public final class LogMF extends LogXF {
                              final int param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1291,7 +1264,7 @@ public final class LogMF extends LogXF {
                              final long param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1309,7 +1282,7 @@ public final class LogMF extends LogXF {
                              final float param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1327,7 +1300,7 @@ public final class LogMF extends LogXF {
                              final double param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1346,7 +1319,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(arg0, arg1)));
+                    message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -1365,7 +1338,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(arg0, arg1, arg2)));
+                    message(pattern, toArray(arg0, arg1, arg2)));
         }
     }
 
@@ -1385,7 +1358,7 @@ public final class LogMF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2,
         final Object arg3) {
         if (logger.isEnabledFor(level)) {
-            forcedLog(logger, level, format(pattern,
+            forcedLog(logger, level, message(pattern,
                     toArray(arg0, arg1, arg2, arg3)));
         }
     }
@@ -1406,7 +1379,7 @@ public final class LogMF extends LogXF {
                              final Object[] parameters) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, parameters));
+                    message(bundleName, key, parameters));
         }
     }
 
@@ -1427,7 +1400,7 @@ public final class LogMF extends LogXF {
                              final Object[] parameters) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, parameters), t);
+                    message(bundleName, key, parameters), t);
         }
     }
 
@@ -1446,7 +1419,7 @@ public final class LogMF extends LogXF {
                              final Object param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(param1)));
+                    message(bundleName, key, toArray(param1)));
         }
     }
 
@@ -1465,7 +1438,7 @@ public final class LogMF extends LogXF {
                              final boolean param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1484,7 +1457,7 @@ public final class LogMF extends LogXF {
                              final char param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1503,7 +1476,7 @@ public final class LogMF extends LogXF {
                              final byte param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1522,7 +1495,7 @@ public final class LogMF extends LogXF {
                              final short param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1541,7 +1514,7 @@ public final class LogMF extends LogXF {
                              final int param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1560,7 +1533,7 @@ public final class LogMF extends LogXF {
                              final long param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
     /**
@@ -1578,7 +1551,7 @@ public final class LogMF extends LogXF {
                              final float param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1598,7 +1571,7 @@ public final class LogMF extends LogXF {
                              final double param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1619,7 +1592,7 @@ public final class LogMF extends LogXF {
                              final Object param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(param0, param1)));
+                    message(bundleName, key, toArray(param0, param1)));
         }
     }
 
@@ -1643,7 +1616,7 @@ public final class LogMF extends LogXF {
                              final Object param2) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(param0, param1, param2)));
+                    message(bundleName, key, toArray(param0, param1, param2)));
         }
     }
 
@@ -1669,7 +1642,7 @@ public final class LogMF extends LogXF {
                              final Object param3) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key,
+                    message(bundleName, key,
                             toArray(param0, param1, param2, param3)));
         }
     }
@@ -27,6 +27,7 @@ import java.util.ResourceBundle;
  * <p>
  * Message formatting is only performed when the 
  * request exceeds the threshold level of the logger.
+ * Since 1.2.18 patterns are parsed once and cached.
  *
  * @since 1.2.16
  *
@@ -48,59 +49,49 @@ public final class LogSF extends LogXF {
      * @param arguments arguments.
      * @return Message string
      */
-    private static String format(final String pattern,
-                                 final Object[] arguments) {
+    static String format(final String pattern,
+                         final Object[] arguments) {
         if (pattern != null) {
-            String retval = "";
-            int count = 0;
-            int prev = 0;
-            int pos = pattern.indexOf("{");
-            while(pos >= 0) {
-                if (pos == 0 || pattern.charAt(pos-1) != '\\') {
-                    retval += pattern.substring(prev, pos);
-                    if (pos + 1 < pattern.length() && pattern.charAt(pos+1) == '}') {
-                        if(arguments != null && count < arguments.length) {
-                            retval += arguments[count++];
-                        } else {
-                            retval += "{}";
-                        }
-                        prev = pos + 2;
-                    } else {
-                        retval += "{";
-                        prev = pos + 1;
-                    }
+            MessagePattern parsed = MessagePattern.getLogSFPattern(pattern);
+            StringBuffer buf = parsed.createBuffer();
+            int count = parsed.getSlotCount();
+            for (int i = 0; i < count; i++) {
+                buf.append(parsed.getLiteral(i));
+                if(arguments != null && i < arguments.length) {
+                    buf.append(arguments[i]);
                 } else {
-                    retval += pattern.substring(prev, pos - 1) + "{";
-                    prev = pos + 1;
+                    buf.append(parsed.getPlaceholder(i));
                 }
-                pos = pattern.indexOf("{", prev);
             }
-            return retval + pattern.substring(prev);
+            return buf.append(parsed.getLiteral(count)).toString();
         }
         return null;
     }
 
     /**
-     * Formats arguments using MessageFormat.
-     * @param pattern pattern, may be malformed.
+     * Create the message of a request, see ParameterizedMessage.
+     * @param pattern pattern, may be malformed or null.
+     * @param arguments arguments, may be null or mismatched.
+     * @return message or null
+     */
+    private static Object message(final String pattern,
+                                  final Object[] arguments) {
+        return ParameterizedMessage.create(
+                ParameterizedMessage.SLF4J, pattern, arguments);
+    }
+
+    /**
+     * Create the message of a request with a single argument.
+     * @param pattern pattern, may be malformed or null.
      * @param arg0 argument, may be null or mismatched.
-     * @return Message string
+     * @return message or null
      */
-    private static String format(final String pattern, final Object arg0) {
-        if (pattern != null) {
-            //
-            //  if there is an escaped brace, delegate to multi-param formatter
-            if (pattern.indexOf("\\{") >= 0) {
-                return format(pattern, new Object[] { arg0 });
-            }
-            int pos = pattern.indexOf("{}");
-            if (pos >= 0) {
-                return pattern.substring(0, pos) + arg0 + pattern.substring(pos+2);
-            }
-        }
-        return pattern;
+    private static Object message(final String pattern,
+                                  final Object arg0) {
+        return message(pattern, new Object[] { arg0 });
     }
 
+
     /**
      * Formats arguments using MessageFormat using a pattern from
      * a resource bundle.
@@ -109,7 +100,7 @@ public final class LogSF extends LogXF {
      * @param arguments arguments, may be null or mismatched.
      * @return Message string or null
      */
-    private static String format(
+    private static Object message(
             final String resourceBundleName,
             final String key,
             final Object[] arguments) {
@@ -125,7 +116,7 @@ public final class LogSF extends LogXF {
         } else {
             pattern = key;
         }
-        return format(pattern, arguments);
+        return message(pattern, arguments);
     }
 
 
@@ -143,8 +134,9 @@ public final class LogSF extends LogXF {
      */
     private static void forcedLog(final Logger logger,
                                   final Level level,
-                                  final String msg) {
-        logger.callAppenders(new LoggingEvent(FQCN, logger, level, msg, null));
+                                  final Object msg) {
+        logger.callAppenders(new LoggingEvent(FQCN, logger, level,
+                ParameterizedMessage.forLogger(logger, msg), null));
     }
 
     /**
@@ -157,9 +149,10 @@ public final class LogSF extends LogXF {
      */
     private static void forcedLog(final Logger logger,
                                   final Level level,
-                                  final String msg,
+                                  final Object msg,
                                   final Throwable t) {
-        logger.callAppenders(new LoggingEvent(FQCN, logger, level, msg, t));
+        logger.callAppenders(new LoggingEvent(FQCN, logger, level,
+                ParameterizedMessage.forLogger(logger, msg), t));
     }
     /**
          * Log a parameterized message at trace level.
@@ -171,7 +164,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, arguments));
+            forcedLog(logger, TRACE, message(pattern, arguments));
         }
     }
 
@@ -184,7 +177,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, arguments));
+            forcedLog(logger, Level.DEBUG, message(pattern, arguments));
         }
     }
 
@@ -197,7 +190,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, arguments));
+            forcedLog(logger, Level.INFO, message(pattern, arguments));
         }
     }
 
@@ -210,7 +203,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, arguments));
+            forcedLog(logger, Level.WARN, message(pattern, arguments));
         }
     }
 
@@ -223,7 +216,7 @@ public final class LogSF extends LogXF {
     public static void error(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.ERROR)) {
-            forcedLog(logger, Level.ERROR, format(pattern, arguments));
+            forcedLog(logger, Level.ERROR, message(pattern, arguments));
         }
     }
 
@@ -236,7 +229,7 @@ public final class LogSF extends LogXF {
     public static void fatal(final Logger logger, final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.FATAL)) {
-            forcedLog(logger, Level.FATAL, format(pattern, arguments));
+            forcedLog(logger, Level.FATAL, message(pattern, arguments));
         }
     }
 
@@ -253,7 +246,7 @@ public final class LogSF extends LogXF {
                              final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, arguments), t);
+            forcedLog(logger, TRACE, message(pattern, arguments), t);
         }
     }
 
@@ -269,7 +262,7 @@ public final class LogSF extends LogXF {
                              final String pattern,
         final Object[] arguments) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, arguments), t);
+            forcedLog(logger, Level.DEBUG, message(pattern, arguments), t);
         }
     }
 
@@ -285,7 +278,7 @@ public final class LogSF extends LogXF {
                             final String pattern,
         final Object[] arguments) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, arguments), t);
+            forcedLog(logger, Level.INFO, message(pattern, arguments), t);
         }
     }
 
@@ -301,7 +294,7 @@ public final class LogSF extends LogXF {
                             final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, arguments), t);
+            forcedLog(logger, Level.WARN, message(pattern, arguments), t);
         }
     }
 
@@ -317,7 +310,7 @@ public final class LogSF extends LogXF {
                              final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.ERROR)) {
-            forcedLog(logger, Level.ERROR, format(pattern, arguments), t);
+            forcedLog(logger, Level.ERROR, message(pattern, arguments), t);
         }
     }
 
@@ -333,7 +326,7 @@ public final class LogSF extends LogXF {
                              final String pattern,
         final Object[] arguments) {
         if (logger.isEnabledFor(Level.FATAL)) {
-            forcedLog(logger, Level.FATAL, format(pattern, arguments), t);
+            forcedLog(logger, Level.FATAL, message(pattern, arguments), t);
         }
     }
 
@@ -348,7 +341,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final boolean argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -361,7 +354,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final char argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -374,7 +367,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final byte argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -387,7 +380,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final short argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -400,7 +393,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final int argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -413,7 +406,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final long argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -426,7 +419,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final float argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -439,7 +432,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final double argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, valueOf(argument)));
+            forcedLog(logger, TRACE, message(pattern, valueOf(argument)));
         }
     }
 
@@ -452,7 +445,7 @@ public final class LogSF extends LogXF {
     public static void trace(final Logger logger, final String pattern,
         final Object argument) {
         if (logger.isEnabledFor(TRACE)) {
-            forcedLog(logger, TRACE, format(pattern, argument));
+            forcedLog(logger, TRACE, message(pattern, argument));
         }
     }
 
@@ -467,7 +460,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1) {
         if (logger.isEnabledFor(TRACE)) {
             forcedLog(logger, TRACE,
-                    format(pattern, toArray(arg0, arg1)));
+                    message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -483,7 +476,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isEnabledFor(TRACE)) {
             forcedLog(logger, TRACE,
-                    format(pattern, toArray(arg0, arg1, arg2)));
+                    message(pattern, toArray(arg0, arg1, arg2)));
         }
     }
 
@@ -501,7 +494,7 @@ public final class LogSF extends LogXF {
         final Object arg3) {
         if (logger.isEnabledFor(TRACE)) {
             forcedLog(logger, TRACE,
-                    format(pattern, toArray(arg0, arg1, arg2, arg3)));
+                    message(pattern, toArray(arg0, arg1, arg2, arg3)));
         }
     }
 
@@ -514,7 +507,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final boolean argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -527,7 +520,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final char argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -540,7 +533,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final byte argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -553,7 +546,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final short argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -566,7 +559,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final int argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -579,7 +572,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final long argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -592,7 +585,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final float argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -605,7 +598,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final double argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.DEBUG, message(pattern, valueOf(argument)));
         }
     }
 
@@ -618,7 +611,7 @@ public final class LogSF extends LogXF {
     public static void debug(final Logger logger, final String pattern,
         final Object argument) {
         if (logger.isDebugEnabled()) {
-            forcedLog(logger, Level.DEBUG, format(pattern, argument));
+            forcedLog(logger, Level.DEBUG, message(pattern, argument));
         }
     }
 
@@ -633,7 +626,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1) {
         if (logger.isDebugEnabled()) {
             forcedLog(logger, Level.DEBUG,
-                    format(pattern, toArray(arg0, arg1)));
+                    message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -649,7 +642,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isDebugEnabled()) {
             forcedLog(logger, Level.DEBUG,
-                    format(pattern, toArray(arg0, arg1, arg2)));
+                    message(pattern, toArray(arg0, arg1, arg2)));
         }
     }
 
@@ -667,7 +660,7 @@ public final class LogSF extends LogXF {
         final Object arg3) {
         if (logger.isDebugEnabled()) {
             forcedLog(logger, Level.DEBUG,
-                    format(pattern, toArray(arg0, arg1, arg2, arg3)));
+                    message(pattern, toArray(arg0, arg1, arg2, arg3)));
         }
     }
 
@@ -680,7 +673,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final boolean argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -693,7 +686,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final char argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -706,7 +699,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final byte argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -719,7 +712,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final short argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -732,7 +725,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final int argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -745,7 +738,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final long argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -758,7 +751,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final float argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -771,7 +764,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final double argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.INFO, message(pattern, valueOf(argument)));
         }
     }
 
@@ -784,7 +777,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final Object argument) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, argument));
+            forcedLog(logger, Level.INFO, message(pattern, argument));
         }
     }
 
@@ -798,7 +791,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final Object arg0, final Object arg1) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern, toArray(arg0, arg1)));
+            forcedLog(logger, Level.INFO, message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -813,7 +806,7 @@ public final class LogSF extends LogXF {
     public static void info(final Logger logger, final String pattern,
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern,
+            forcedLog(logger, Level.INFO, message(pattern,
                     toArray(arg0, arg1, arg2)));
         }
     }
@@ -831,7 +824,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2,
         final Object arg3) {
         if (logger.isInfoEnabled()) {
-            forcedLog(logger, Level.INFO, format(pattern,
+            forcedLog(logger, Level.INFO, message(pattern,
                     toArray(arg0, arg1, arg2, arg3)));
         }
     }
@@ -845,7 +838,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final boolean argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -858,7 +851,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final char argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -871,7 +864,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final byte argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -884,7 +877,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final short argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -897,7 +890,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final int argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -910,7 +903,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final long argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -923,7 +916,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final float argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -936,7 +929,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final double argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, valueOf(argument)));
+            forcedLog(logger, Level.WARN, message(pattern, valueOf(argument)));
         }
     }
 
@@ -949,7 +942,7 @@ public final class LogSF extends LogXF {
     public static void warn(final Logger logger, final String pattern,
         final Object argument) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern, argument));
+            forcedLog(logger, Level.WARN, message(pattern, argument));
         }
     }
 
@@ -964,7 +957,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1) {
         if (logger.isEnabledFor(Level.WARN)) {
             forcedLog(logger, Level.WARN,
-                    format(pattern, toArray(arg0, arg1)));
+                    message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -980,7 +973,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isEnabledFor(Level.WARN)) {
             forcedLog(logger, Level.WARN,
-                    format(pattern, toArray(arg0, arg1, arg2)));
+                    message(pattern, toArray(arg0, arg1, arg2)));
         }
     }
 
@@ -997,7 +990,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2,
         final Object arg3) {
         if (logger.isEnabledFor(Level.WARN)) {
-            forcedLog(logger, Level.WARN, format(pattern,
+            forcedLog(logger, Level.WARN, message(pattern,
                     toArray(arg0, arg1, arg2, arg3)));
         }
     }
@@ -1015,7 +1008,7 @@ public final class LogSF extends LogXF {
                              final Object[] parameters) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, parameters));
+                    message(pattern, parameters));
         }
     }
 
@@ -1034,7 +1027,7 @@ public final class LogSF extends LogXF {
                              final Object[] parameters) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, parameters), t);
+                    message(pattern, parameters), t);
         }
     }
 
@@ -1051,7 +1044,7 @@ public final class LogSF extends LogXF {
                              final Object param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(param1)));
+                    message(pattern, toArray(param1)));
         }
     }
 
@@ -1068,7 +1061,7 @@ public final class LogSF extends LogXF {
                              final boolean param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1086,7 +1079,7 @@ public final class LogSF extends LogXF {
                              final byte param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1104,7 +1097,7 @@ public final class LogSF extends LogXF {
                              final char param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1121,7 +1114,7 @@ public final class LogSF extends LogXF {
                              final short param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1138,7 +1131,7 @@ public final class LogSF extends LogXF {
                              final int param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1156,7 +1149,7 @@ public final class LogSF extends LogXF {
                              final long param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1174,7 +1167,7 @@ public final class LogSF extends LogXF {
                              final float param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1192,7 +1185,7 @@ public final class LogSF extends LogXF {
                              final double param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(valueOf(param1))));
+                    message(pattern, toArray(valueOf(param1))));
         }
     }
 
@@ -1211,7 +1204,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(arg0, arg1)));
+                    message(pattern, toArray(arg0, arg1)));
         }
     }
 
@@ -1230,7 +1223,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(pattern, toArray(arg0, arg1, arg2)));
+                    message(pattern, toArray(arg0, arg1, arg2)));
         }
     }
 
@@ -1250,7 +1243,7 @@ public final class LogSF extends LogXF {
         final Object arg0, final Object arg1, final Object arg2,
         final Object arg3) {
         if (logger.isEnabledFor(level)) {
-            forcedLog(logger, level, format(pattern,
+            forcedLog(logger, level, message(pattern,
                     toArray(arg0, arg1, arg2, arg3)));
         }
     }
@@ -1271,7 +1264,7 @@ public final class LogSF extends LogXF {
                              final Object[] parameters) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, parameters));
+                    message(bundleName, key, parameters));
         }
     }
 
@@ -1292,7 +1285,7 @@ public final class LogSF extends LogXF {
                              final Object[] parameters) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, parameters), t);
+                    message(bundleName, key, parameters), t);
         }
     }
 
@@ -1311,7 +1304,7 @@ public final class LogSF extends LogXF {
                              final Object param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(param1)));
+                    message(bundleName, key, toArray(param1)));
         }
     }
 
@@ -1330,7 +1323,7 @@ public final class LogSF extends LogXF {
                              final boolean param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1349,7 +1342,7 @@ public final class LogSF extends LogXF {
                              final char param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1368,7 +1361,7 @@ public final class LogSF extends LogXF {
                              final byte param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1387,7 +1380,7 @@ public final class LogSF extends LogXF {
                              final short param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1406,7 +1399,7 @@ public final class LogSF extends LogXF {
                              final int param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1425,7 +1418,7 @@ public final class LogSF extends LogXF {
                              final long param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
     /**
@@ -1443,7 +1436,7 @@ public final class LogSF extends LogXF {
                              final float param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1463,7 +1456,7 @@ public final class LogSF extends LogXF {
                              final double param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(valueOf(param1))));
+                    message(bundleName, key, toArray(valueOf(param1))));
         }
     }
 
@@ -1484,7 +1477,7 @@ public final class LogSF extends LogXF {
                              final Object param1) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(param0, param1)));
+                    message(bundleName, key, toArray(param0, param1)));
         }
     }
 
@@ -1508,7 +1501,7 @@ public final class LogSF extends LogXF {
                              final Object param2) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key, toArray(param0, param1, param2)));
+                    message(bundleName, key, toArray(param0, param1, param2)));
         }
     }
 
@@ -1534,7 +1527,7 @@ public final class LogSF extends LogXF {
                              final Object param3) {
         if (logger.isEnabledFor(level)) {
             forcedLog(logger, level,
-                    format(bundleName, key,
+                    message(bundleName, key,
                             toArray(param0, param1, param2, param3)));
         }
     }
@@ -163,11 +163,7 @@ public class Logger extends Category {
      * @since 1.2.12
      */
     public void trace(Object message) {
-      if (repository.isDisabled(Level.TRACE_INT)) {
-        return;
-      }
-
-      if (Level.TRACE.isGreaterOrEqual(this.getEffectiveLevel())) {
+      if (isLevelEnabled(Level.TRACE_INT)) {
         forcedLog(FQCN, Level.TRACE, message, null);
       }
     }
@@ -185,11 +181,7 @@ public class Logger extends Category {
      * @since 1.2.12
      */
     public void trace(Object message, Throwable t) {
-      if (repository.isDisabled(Level.TRACE_INT)) {
-        return;
-      }
-
-      if (Level.TRACE.isGreaterOrEqual(this.getEffectiveLevel())) {
+      if (isLevelEnabled(Level.TRACE_INT)) {
         forcedLog(FQCN, Level.TRACE, message, t);
       }
     }
@@ -202,11 +194,7 @@ public class Logger extends Category {
      *         TRACE, <code>false</code> otherwise.
      */
     public boolean isTraceEnabled() {
-        if (repository.isDisabled(Level.TRACE_INT)) {
-            return false;
-          }
-
-          return Level.TRACE.isGreaterOrEqual(this.getEffectiveLevel());
+        return isLevelEnabled(Level.TRACE_INT);
     }
 
 }
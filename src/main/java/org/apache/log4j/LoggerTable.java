@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j;
+
+/**
+   Index of the loggers of a {@link Hierarchy} by name which can be
+   read without locking.
+
+   <p>Entries are immutable and are only ever prepended to their
+   bucket, so a reader always sees a consistent chain. A reader may
+   miss a logger which is being added concurrently, in which case the
+   hierarchy falls back to its locked lookup. Writers must be
+   serialized by the caller.
+
+   @since 1.2.18
+*/
+final class LoggerTable {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** Number of entries per bucket above which the table doubles. */
+  private static final int LOAD_FACTOR = 2;
+
+  private static final class Entry {
+    final String name;
+    final int hash;
+    final Logger logger;
+    final Entry next;
+
+    Entry(String name, int hash, Logger logger, Entry next) {
+      this.name = name;
+      this.hash = hash;
+      this.logger = logger;
+      this.next = next;
+    }
+  }
+
+  /**
+     Written after every change, including changes to the content of
+     the array, so that readers see the entries added so far.  */
+  private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+
+  private int count;
+
+  LoggerTable() {
+  }
+
+  private static int hash(String name) {
+    int h = name.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  /**
+     Return the logger named <code>name</code> or <code>null</code> if
+     it is not in the table. Does not lock.  */
+  Logger get(String name) {
+    int h = hash(name);
+    Entry[] tab = table;
+    for(Entry e = tab[h & (tab.length - 1)]; e != null; e = e.next) {
+      if(e.hash == h && name.equals(e.name)) {
+	return e.logger;
+      }
+    }
+    return null;
+  }
+
+  /**
+     Add <code>logger</code> to the table under <code>name</code>. The
+     caller must ensure that no other logger of the same name is
+     present and that calls to this method and to {@link #clear} are
+     serialized.  */
+  void put(String name, Logger logger) {
+    Entry[] tab = table;
+    if(count >= tab.length * LOAD_FACTOR) {
+      tab = resize(tab);
+    }
+    int h = hash(name);
+    int i = h & (tab.length - 1);
+    tab[i] = new Entry(name, h, logger, tab[i]);
+    count++;
+    table = tab;
+  }
+
+  /**
+     Remove all entries. Same restrictions as {@link #put}.  */
+  void clear() {
+    count = 0;
+    table = new Entry[INITIAL_CAPACITY];
+  }
+
+  private static Entry[] resize(Entry[] old) {
+    Entry[] tab = new Entry[old.length * 2];
+    int mask = tab.length - 1;
+    for(int j = 0; j < old.length; j++) {
+      for(Entry e = old[j]; e != null; e = e.next) {
+	int i = e.hash & mask;
+	tab[i] = new Entry(e.name, e.hash, e.logger, tab[i]);
+      }
+    }
+    return tab;
+  }
+}
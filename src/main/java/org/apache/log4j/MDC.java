@@ -20,6 +20,8 @@ package org.apache.log4j;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.Map;
 import org.apache.log4j.helpers.Loader;
 import org.apache.log4j.helpers.ThreadLocalMap;
 
@@ -34,6 +36,11 @@ import org.apache.log4j.helpers.ThreadLocalMap;
    <p><b><em>The MDC is managed on a per thread basis</em></b>. A
    child thread automatically inherits a <em>copy</em> of the mapped
    diagnostic context of its parent.
+
+   <p>Each thread holds its context as an immutable table which
+   {@link #put} and {@link #remove} replace by an updated copy. Child
+   threads and {@link org.apache.log4j.spi.LoggingEvent#getMDCCopy}
+   can therefore share the current table instead of copying it.
   
    <p>The MDC class requires JDK 1.2 or above. Under JDK 1.1 the MDC
    will always return empty values but otherwise will not affect or
@@ -117,8 +124,31 @@ public class MDC {
   /**
    * Get the current thread's MDC as a hashtable. This method is
    * intended to be used internally.  
+   *
+   * <p>Since 1.2.18 the returned hashtable is a copy of the context:
+   * its <code>put</code>, <code>remove</code> and <code>clear</code>
+   * methods also update the MDC, other changes are not reflected.
+   * Use {@link #getSnapshot} to read the context without copying it.
    * */
   public static Hashtable getContext() {
+    if (mdc != null) {
+        Hashtable ht = mdc.getContext0();
+        if (ht != null) {
+            return new Context(ht);
+        }
+    }
+    return null;
+  }
+
+  /**
+   * Get the current thread's MDC as a hashtable which is shared, not
+   * copied, and must therefore not be modified. Later changes to the
+   * MDC do not affect it.
+   *
+   * @return immutable context, or null if the MDC is empty.
+   * @since 1.2.18
+   * */
+  public static Hashtable getSnapshot() {
     if (mdc != null) {
         return mdc.getContext0();
     } else {
@@ -138,16 +168,19 @@ public class MDC {
 
 
   private
-  void put0(String key, Object o) {
+  void put0(Object key, Object o) {
     if(java1 || tlm == null) {
       return;
     } else {
+      // the current table may be shared, it is replaced by a copy
       Hashtable ht = (Hashtable) ((ThreadLocalMap)tlm).get();
       if(ht == null) {
         ht = new Hashtable(HT_SIZE);
-        ((ThreadLocalMap)tlm).set(ht);
-      }    
+      } else {
+        ht = (Hashtable) ht.clone();
+      }
       ht.put(key, o);
+      ((ThreadLocalMap)tlm).set(ht);
     }
   }
   
@@ -166,14 +199,17 @@ public class MDC {
   }
 
   private
-  void remove0(String key) {
+  void remove0(Object key) {
     if(!java1 && tlm != null) {
       Hashtable ht = (Hashtable) ((ThreadLocalMap)tlm).get();
-      if(ht != null) {
-        ht.remove(key);
-        // clean up if this was the last key
-        if (ht.isEmpty()) {
+      if(ht != null && key != null && ht.containsKey(key)) {
+        if (ht.size() == 1) {
+          // clean up if this was the last key
           clear0();
+        } else {
+          ht = (Hashtable) ht.clone();
+          ht.remove(key);
+          ((ThreadLocalMap)tlm).set(ht);
         }
       } 
     }
@@ -192,10 +228,8 @@ public class MDC {
   private
   void clear0() {
     if(!java1 && tlm != null) {
-      Hashtable ht = (Hashtable) ((ThreadLocalMap)tlm).get();
-      if(ht != null) {
-        ht.clear();
-      }
+      // the current table may be shared, it is dropped rather than cleared
+      ((ThreadLocalMap)tlm).set(null);
       if(removeMethod != null) {
           // java 1.3/1.4 does not have remove - will suffer from a memory leak
           try {
@@ -209,4 +243,43 @@ public class MDC {
     }
   }
 
+
+  /**
+   * Copy of the context returned by {@link MDC#getContext}, which
+   * applies its changes to the MDC as well.
+   */
+  private static final class Context extends Hashtable {
+    private static final long serialVersionUID = -2539281498427306512L;
+
+    Context(final Hashtable ht) {
+      super(Math.max(2 * ht.size(), 11));
+      // not putAll, which would call put for each entry
+      Iterator iter = ht.entrySet().iterator();
+      while (iter.hasNext()) {
+        Map.Entry entry = (Map.Entry) iter.next();
+        super.put(entry.getKey(), entry.getValue());
+      }
+    }
+
+    public synchronized Object put(final Object key, final Object value) {
+      Object old = super.put(key, value);
+      mdc.put0(key, value);
+      return old;
+    }
+
+    public synchronized Object remove(final Object key) {
+      Object old = super.remove(key);
+      mdc.remove0(key);
+      return old;
+    }
+
+    public synchronized void clear() {
+      super.clear();
+      mdc.clear0();
+    }
+
+    private Object writeReplace() {
+      return new Hashtable(this);
+    }
+  }
 }
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.apache.log4j.helpers.EncodingWriter;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.helpers.MappedChannel;
+import org.apache.log4j.helpers.OptionConverter;
+
+/**
+   MappedFileAppender appends log events to a memory-mapped file.
+
+   <p>The output is encoded into a buffer of <b>BufferSize</b> bytes
+   and copied into a region of <b>RegionSize</b> bytes of the file
+   mapped in memory. The next region is mapped when the current one is
+   full. Flushing only copies bytes, the output is visible to readers
+   of the file at once and written to the disk by the operating
+   system. The regions written are also forced to the disk every
+   <b>ForceInterval</b> milliseconds.
+
+   <p>Mapping a region extends the file to the end of the region. The
+   file is truncated to the size of the output when the appender is
+   closed or rolled over. A file which was not closed ends with zero
+   bytes, which are removed when it is opened again in append mode.
+   On platforms which do not allow a mapped file to be
+   truncated or renamed, such as Windows, the file keeps its mapped
+   size and rolling over may fail. If the encoding is not supported by
+   <code>java.nio</code>, the file is written as by {@link
+   FileAppender} instead.
+
+   <p>Files are rolled over when they reach <b>MaxFileSize</b> bytes,
+   as by {@link RollingFileAppender}.
+
+   @since 1.2.18 */
+public class MappedFileAppender extends RollingFileAppender {
+
+  /** Forces the mapped regions of all appenders to the disk. */
+  private static Timer forceTimer;
+
+  /** Size of each mapped region. */
+  private int regionSize = 32*1024*1024;
+
+  /** Milliseconds between forces, 0 to never force. */
+  private long forceInterval = 1000;
+
+  /** Task forcing the current file, null if none. */
+  private TimerTask forceTask;
+
+  /**
+     The default constructor does not do anything.  */
+  public
+  MappedFileAppender() {
+    channelIO = true;
+  }
+
+  /**
+    Instantiate a MappedFileAppender and open the file designated by
+    <code>filename</code>. The opened filename will become the output
+    destination for this appender.
+
+    <p>If the <code>append</code> parameter is true, the file will be
+    appended to. Otherwise, the file designated by
+    <code>filename</code> will be truncated before being opened.  */
+  public
+  MappedFileAppender(Layout layout, String filename, boolean append)
+                                                         throws IOException {
+    channelIO = true;
+    this.layout = layout;
+    setFile(filename, append, false, bufferSize);
+  }
+
+  /**
+     The <b>RegionSize</b> option takes a size in bytes, with an
+     optional "KB", "MB" or "GB" suffix as <b>MaxFileSize</b>. It is
+     the size of each region of the file mapped in memory, 32MB by
+     default.
+
+     <p>Note: Actual opening of the file is made when {@link
+     #activateOptions} is called, not when the options are set.  */
+  public
+  void setRegionSize(String value) {
+    long size = OptionConverter.toFileSize(value, regionSize);
+    regionSize = (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  /**
+     Returns the value of the <b>RegionSize</b> option in bytes. The
+     value is returned as a string so that the JavaBeans {@link
+     java.beans.Introspector Introspector} pairs this method with
+     {@link #setRegionSize}, which configurators call.  */
+  public
+  String getRegionSize() {
+    return String.valueOf(regionSize);
+  }
+
+  /**
+     The <b>ForceInterval</b> option takes the number of milliseconds
+     between two forces of the mapped file to the disk, 1000 by
+     default. Zero leaves writing to the disk to the operating system.
+
+     <p>Note: Actual opening of the file is made when {@link
+     #activateOptions} is called, not when the options are set.  */
+  public
+  void setForceInterval(long forceInterval) {
+    this.forceInterval = forceInterval;
+  }
+
+  /**
+     Returns the value of the <b>ForceInterval</b> option.  */
+  public
+  long getForceInterval() {
+    return forceInterval;
+  }
+
+  /**
+     Maps the file in memory and returns a writer encoding into it.  */
+  protected
+  Writer openFile(String fileName, boolean append, boolean bufferedIO,
+		  int bufferSize) throws IOException {
+    // same charset as createWriter
+    Charset charset = toCharset(createWriter(new ByteArrayOutputStream()));
+    if(charset == null) {
+      // writes the file as FileAppender does
+      return super.openFile(fileName, append, bufferedIO, bufferSize);
+    }
+    RandomAccessFile file;
+    try {
+      file = new RandomAccessFile(fileName, "rw");
+    } catch(FileNotFoundException ex) {
+      if(createParentDirectory(fileName)) {
+	file = new RandomAccessFile(fileName, "rw");
+      } else {
+	throw ex;
+      }
+    }
+    // the encoding of a line feed without the byte order mark
+    int unitSize = charset.encode("\n\n").remaining()
+      - charset.encode("\n").remaining();
+    MappedChannel channel;
+    try {
+      channel = new MappedChannel(file, append, unitSize, regionSize,
+				 forceInterval > 0);
+    } catch(IOException ex) {
+      file.close();
+      throw ex;
+    }
+    if(forceInterval > 0) {
+      forceTask = new ForceTask(channel);
+      getForceTimer().schedule(forceTask, forceInterval, forceInterval);
+    }
+    return new EncodingWriter(channel, charset, bufferSize);
+  }
+
+  /**
+     Stops forcing the file, then truncates and closes it.  */
+  protected
+  void closeFile() {
+    if(forceTask != null) {
+      forceTask.cancel();
+      forceTask = null;
+    }
+    super.closeFile();
+  }
+
+  private static synchronized Timer getForceTimer() {
+    if(forceTimer == null) {
+      forceTimer = new Timer(true);
+    }
+    return forceTimer;
+  }
+
+  /**
+     Forces a mapped file to the disk.  */
+  private static final class ForceTask extends TimerTask {
+
+    private final MappedChannel channel;
+
+    ForceTask(MappedChannel channel) {
+      this.channel = channel;
+    }
+
+    public void run() {
+      try {
+	channel.force();
+      } catch(IOException e) {
+	LogLog.warn("Could not force mapped file.", e);
+      } catch(RuntimeException e) {
+	// an exception escaping run would cancel the shared timer
+	LogLog.warn("Could not force mapped file.", e);
+      }
+    }
+  }
+}
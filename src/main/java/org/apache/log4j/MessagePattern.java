@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.log4j;
+
+import java.util.ArrayList;
+
+/**
+ * Message pattern of {@link LogMF} or {@link LogSF} split into
+ * literal text and argument slots.
+ *
+ * <p>Parsed patterns are immutable and cached by pattern string in
+ * tables of fixed size, read and written without locking. A pattern
+ * replaces the one cached in the slot given by its hash.
+ *
+ * @since 1.2.18
+ */
+final class MessagePattern {
+    /**
+     * Number of slots of each cache, a power of two.
+     */
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * Marks LogMF patterns which are not simple in the cache.
+     */
+    private static final MessagePattern NOT_SIMPLE =
+        new MessagePattern(new String[] { "" }, new int[0], new String[0]);
+
+    /**
+     * Parsed LogMF patterns.
+     */
+    private static final CachedPattern[] logMFPatterns =
+        new CachedPattern[CACHE_SIZE];
+
+    /**
+     * Parsed LogSF patterns.
+     */
+    private static final CachedPattern[] logSFPatterns =
+        new CachedPattern[CACHE_SIZE];
+
+    /**
+     * Literal text before each slot and after the last slot.
+     */
+    private final String[] literals;
+    /**
+     * Index of the argument of each slot.
+     */
+    private final int[] slots;
+    /**
+     * Text of each slot used when its argument is missing.
+     */
+    private final String[] placeholders;
+    /**
+     * Total length of the literal text.
+     */
+    private final int literalLength;
+    /**
+     * Largest argument index plus one.
+     */
+    private final int argumentCount;
+
+    /**
+     * Create new instance.
+     * @param literals literal text, one more than slots.
+     * @param slots argument indexes.
+     * @param placeholders text of slots without argument.
+     */
+    private MessagePattern(final String[] literals,
+                           final int[] slots,
+                           final String[] placeholders) {
+        this.literals = literals;
+        this.slots = slots;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (int i = 0; i < literals.length; i++) {
+            length += literals[i].length();
+        }
+        literalLength = length;
+        int count = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] >= count) {
+                count = slots[i] + 1;
+            }
+        }
+        argumentCount = count;
+    }
+
+    /**
+     * Get number of slots.
+     * @return number of slots.
+     */
+    int getSlotCount() {
+        return slots.length;
+    }
+
+    /**
+     * Get literal text preceding a slot.
+     * @param i slot, or slot count for the text after the last slot.
+     * @return literal text, may be empty.
+     */
+    String getLiteral(final int i) {
+        return literals[i];
+    }
+
+    /**
+     * Get argument index of a slot.
+     * @param i slot.
+     * @return argument index.
+     */
+    int getArgumentIndex(final int i) {
+        return slots[i];
+    }
+
+    /**
+     * Get the text of a slot without argument.
+     * @param i slot.
+     * @return text of slot in the pattern.
+     */
+    String getPlaceholder(final int i) {
+        return placeholders[i];
+    }
+
+    /**
+     * Get largest argument index plus one.
+     * @return number of arguments used by the pattern.
+     */
+    int getArgumentCount() {
+        return argumentCount;
+    }
+
+    /**
+     * Create a buffer large enough for the literal text and some arguments.
+     * @return new buffer.
+     */
+    StringBuffer createBuffer() {
+        return new StringBuffer(literalLength + 16 * slots.length);
+    }
+
+    /**
+     * Get a parsed LogMF pattern.
+     * @param pattern pattern, may not be null.
+     * @return parsed pattern, null if the pattern does not only contain
+     *     "{n}" format elements and must be passed to MessageFormat.
+     */
+    static MessagePattern getLogMFPattern(final String pattern) {
+        int slot = getSlot(pattern);
+        CachedPattern cached = logMFPatterns[slot];
+        MessagePattern parsed;
+        if (cached != null && cached.pattern.equals(pattern)) {
+            parsed = cached.parsed;
+        } else {
+            parsed = parseLogMF(pattern);
+            logMFPatterns[slot] = new CachedPattern(pattern, parsed);
+        }
+        if (parsed == NOT_SIMPLE) {
+            return null;
+        }
+        return parsed;
+    }
+
+    /**
+     * Get a parsed LogSF pattern.
+     * @param pattern pattern, may not be null.
+     * @return parsed pattern.
+     */
+    static MessagePattern getLogSFPattern(final String pattern) {
+        int slot = getSlot(pattern);
+        CachedPattern cached = logSFPatterns[slot];
+        if (cached != null && cached.pattern.equals(pattern)) {
+            return cached.parsed;
+        }
+        MessagePattern parsed = parseLogSF(pattern);
+        logSFPatterns[slot] = new CachedPattern(pattern, parsed);
+        return parsed;
+    }
+
+    /**
+     * Get the cache slot of a pattern.
+     * @param pattern pattern, may not be null.
+     * @return slot.
+     */
+    private static int getSlot(final String pattern) {
+        int hash = pattern.hashCode();
+        return (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    }
+
+    /**
+     * Parse a LogMF pattern.
+     * @param pattern pattern, may not be null.
+     * @return parsed pattern or NOT_SIMPLE.
+     */
+    private static MessagePattern parseLogMF(final String pattern) {
+        if (pattern.indexOf('\'') != -1) {
+            return NOT_SIMPLE;
+        }
+        ArrayList literals = new ArrayList();
+        ArrayList placeholders = new ArrayList();
+        int prev = 0;
+        for(int pos = pattern.indexOf('{');
+            pos != -1;
+            pos = pattern.indexOf('{', prev)) {
+            if (pos + 2 >= pattern.length() ||
+                    pattern.charAt(pos+2) != '}' ||
+                    pattern.charAt(pos+1) < '0' ||
+                    pattern.charAt(pos+1) > '9') {
+                return NOT_SIMPLE;
+            }
+            literals.add(pattern.substring(prev, pos));
+            placeholders.add(pattern.substring(pos, pos + 3));
+            prev = pos + 3;
+        }
+        literals.add(pattern.substring(prev));
+        int[] slots = new int[placeholders.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = ((String) placeholders.get(i)).charAt(1) - '0';
+        }
+        return create(literals, slots, placeholders);
+    }
+
+    /**
+     * Parse a LogSF pattern.
+     * @param pattern pattern, may not be null.
+     * @return parsed pattern.
+     */
+    private static MessagePattern parseLogSF(final String pattern) {
+        ArrayList literals = new ArrayList();
+        ArrayList placeholders = new ArrayList();
+        StringBuffer literal = new StringBuffer();
+        int prev = 0;
+        int pos = pattern.indexOf('{');
+        while(pos >= 0) {
+            if (pos == 0 || pattern.charAt(pos-1) != '\\') {
+                literal.append(pattern.substring(prev, pos));
+                if (pos + 1 < pattern.length() && pattern.charAt(pos+1) == '}') {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    placeholders.add("{}");
+                    prev = pos + 2;
+                } else {
+                    literal.append('{');
+                    prev = pos + 1;
+                }
+            } else {
+                literal.append(pattern.substring(prev, pos - 1)).append('{');
+                prev = pos + 1;
+            }
+            pos = pattern.indexOf('{', prev);
+        }
+        literal.append(pattern.substring(prev));
+        literals.add(literal.toString());
+        int[] slots = new int[placeholders.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = i;
+        }
+        return create(literals, slots, placeholders);
+    }
+
+    /**
+     * Create new instance from lists.
+     * @param literals list of literal text.
+     * @param slots argument indexes.
+     * @param placeholders list of slot text.
+     * @return new instance.
+     */
+    private static MessagePattern create(final ArrayList literals,
+                                         final int[] slots,
+                                         final ArrayList placeholders) {
+        String[] literalArray = new String[literals.size()];
+        literals.toArray(literalArray);
+        String[] placeholderArray = new String[placeholders.size()];
+        placeholders.toArray(placeholderArray);
+        return new MessagePattern(literalArray, slots, placeholderArray);
+    }
+
+    /**
+     * Pattern and its parsed form.
+     */
+    private static final class CachedPattern {
+        /**
+         * Pattern.
+         */
+        private final String pattern;
+
+        /**
+         * Parsed pattern or NOT_SIMPLE.
+         */
+        private final MessagePattern parsed;
+
+        /**
+         * Create new instance.
+         * @param pattern pattern.
+         * @param parsed parsed pattern.
+         */
+        public CachedPattern(final String pattern,
+                             final MessagePattern parsed) {
+            this.pattern = pattern;
+            this.parsed = parsed;
+        }
+    }
+}
@@ -20,12 +20,9 @@
 
 package org.apache.log4j;
 
-import java.util.Hashtable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.Stack;
-import java.util.Enumeration;
-import java.util.Vector;
-
-import org.apache.log4j.helpers.LogLog;
 
 /**
    The NDC class implements <i>nested diagnostic contexts</i> as
@@ -80,13 +77,10 @@ import org.apache.log4j.helpers.LogLog;
    the same category) can still be distinguished because each client
    request will have a different NDC tag.
 
-   <p>Heavy duty systems should call the {@link #remove} method when
-   leaving the run method of a thread. This ensures that the memory
-   used by the thread can be freed by the Java garbage
-   collector. There is a mechanism to lazily remove references to dead
-   threads. In practice, this means that you can be a little sloppy
-   and sometimes forget to call {@link #remove} before exiting a
-   thread.
+   <p>Since 1.2.18 the diagnostic context of each thread is held in a
+   thread local variable, so threads do not contend with each other
+   and the context of a thread is reclaimed together with the thread.
+   Threads returning to a pool should still call {@link #remove}.
    
    <p>A thread may inherit the nested diagnostic context of another
    (possibly parent) thread using the {@link #inherit inherit}
@@ -101,42 +95,66 @@ import org.apache.log4j.helpers.LogLog;
  
 public class NDC {
 
-  // The synchronized keyword is not used in this class. This may seem
-  // dangerous, especially since the class will be used by
-  // multiple-threads. In particular, all threads share the same
-  // hashtable (the "ht" variable). This is OK since java hashtables
-  // are thread safe. Same goes for Stacks.
+  // Each thread holds its stack in a thread local variable. A stack
+  // passed to inherit is shared rather than copied, and marked as such
+  // so that the thread copies it before its next modification.
 
-  // More importantly, when inheriting diagnostic contexts the child
-  // thread is handed a clone of the parent's NDC.  It follows that
-  // each thread has its own NDC (i.e. stack).
+  /** Context of each thread, null until the thread pushes a message. */
+  private static final ThreadLocal contexts = new ThreadLocal();
 
-  static Hashtable ht = new Hashtable();
+  /** ThreadLocal.remove, null before Java 1.5. */
+  private static final Method removeMethod;
 
-  static int pushCounter = 0; // the number of times push has been called
-                              // after the latest call to lazyRemove
+  static {
+    Method method = null;
+    try {
+      method = ThreadLocal.class.getMethod("remove", (Class[]) null);
+    } catch (NoSuchMethodException e) {
+      // don't do anything - java prior 1.5
+    }
+    removeMethod = method;
+  }
 
-  // The number of times we allow push to be called before we call lazyRemove
-  // 5 is a relatively small number. As such, lazyRemove is not called too
-  // frequently. We thus avoid the cost of creating an Enumeration too often.
-  // The higher this number, the longer is the avarage period for which all
-  // logging calls in all threads are blocked.
-  static final int REAP_THRESHOLD = 5;
-  
   // No instances allowed.
   private NDC() {}
   
   /**
-   *   Get NDC stack for current thread.
+   *   Get NDC stack for current thread, which must not be modified.
    *   @return NDC stack for current thread.
    */
   private static Stack getCurrentStack() {
-      if (ht != null) {
-          return (Stack) ht.get(Thread.currentThread());
+      Context context = (Context) contexts.get();
+      if (context != null) {
+          return context.stack;
       }
       return null;
   }
 
+  /**
+   *   Get NDC stack for current thread, copying it if it is shared.
+   *   @param create if true, an empty stack is created if needed.
+   *   @return NDC stack for current thread, null if there is none and
+   *   create is false.
+   */
+  private static Stack getWritableStack(final boolean create) {
+      Context context = (Context) contexts.get();
+      if (context == null || context.stack == null) {
+          if (!create) {
+              return null;
+          }
+          if (context == null) {
+              context = new Context();
+              contexts.set(context);
+          }
+          context.stack = new Stack();
+          context.shared = false;
+      } else if (context.shared) {
+          context.stack = (Stack) context.stack.clone();
+          context.shared = false;
+      }
+      return context.stack;
+  }
+
 
   /**
      Clear any nested diagnostic information if any. This method is
@@ -150,9 +168,12 @@ public class NDC {
   public
   static
   void clear() {
-    Stack stack = getCurrentStack();    
-    if(stack != null) 
-      stack.setSize(0);    
+    Context context = (Context) contexts.get();
+    if(context != null && context.stack != null) {
+      // a shared stack is left untouched
+      context.stack = null;
+      context.shared = false;
+    }
   }
 
   
@@ -205,8 +226,16 @@ public class NDC {
   public
   static
   void inherit(Stack stack) {
-    if(stack != null)
-      ht.put(Thread.currentThread(), stack);
+    if(stack != null) {
+      Context context = (Context) contexts.get();
+      if(context == null) {
+	context = new Context();
+	contexts.set(context);
+      }
+      // the stack is copied before being modified by this thread
+      context.stack = stack;
+      context.shared = true;
+    }
   }
 
 
@@ -240,51 +269,6 @@ public class NDC {
       return stack.size();      
   }
 
-  private
-  static
-  void lazyRemove() {
-    if (ht == null) return;
-     
-    // The synchronization on ht is necessary to prevent JDK 1.2.x from
-    // throwing ConcurrentModificationExceptions at us. This sucks BIG-TIME.
-    // One solution is to write our own hashtable implementation.
-    Vector v;
-    
-    synchronized(ht) {
-      // Avoid calling clean-up too often.
-      if(++pushCounter <= REAP_THRESHOLD) {
-	return; // We release the lock ASAP.
-      } else {
-	pushCounter = 0; // OK let's do some work.
-      }
-
-      int misses = 0;
-      v = new Vector(); 
-      Enumeration enumeration = ht.keys();
-      // We give up after 4 straigt missses. That is 4 consecutive
-      // inspected threads in 'ht' that turn out to be alive.
-      // The higher the proportion on dead threads in ht, the higher the
-      // chances of removal.
-      while(enumeration.hasMoreElements() && (misses <= 4)) {
-	Thread t = (Thread) enumeration.nextElement();
-	if(t.isAlive()) {
-	  misses++;
-	} else {
-	  misses = 0;
-	  v.addElement(t);
-	}
-      }
-    } // synchronized
-
-    int size = v.size();
-    for(int i = 0; i < size; i++) {
-      Thread t = (Thread) v.elementAt(i);
-      LogLog.debug("Lazy NDC removal for thread [" + t.getName() + "] ("+ 
-		   ht.size() + ").");
-      ht.remove(t);
-    }
-  }
-
   /**
      Clients should call this method before leaving a diagnostic
      context.
@@ -298,7 +282,7 @@ public class NDC {
   public
   static
   String pop() {
-    Stack stack = getCurrentStack();
+    Stack stack = getWritableStack(false);
     if(stack != null && !stack.isEmpty()) 
       return ((DiagnosticContext) stack.pop()).message;
     else
@@ -335,15 +319,8 @@ public class NDC {
   public
   static
   void push(String message) {
-    Stack stack = getCurrentStack();
-      
-    if(stack == null) {
-      DiagnosticContext dc = new DiagnosticContext(message, null);      
-      stack = new Stack();
-      Thread key = Thread.currentThread();
-      ht.put(key, stack);
-      stack.push(dc);
-    } else if (stack.isEmpty()) {
+    Stack stack = getWritableStack(true);
+    if (stack.isEmpty()) {
       DiagnosticContext dc = new DiagnosticContext(message, null);            
       stack.push(dc);
     } else {
@@ -355,30 +332,24 @@ public class NDC {
   /**
      Remove the diagnostic context for this thread.
 
-     <p>Each thread that created a diagnostic context by calling
-     {@link #push} should call this method before exiting. Otherwise,
-     the memory used by the <b>thread</b> cannot be reclaimed by the
-     VM.
-
-     <p>As this is such an important problem in heavy duty systems and
-     because it is difficult to always guarantee that the remove
-     method is called before exiting a thread, this method has been
-     augmented to lazily remove references to dead threads. In
-     practice, this means that you can be a little sloppy and
-     occasionally forget to call {@link #remove} before exiting a
-     thread. However, you must call <code>remove</code> sometime. If
-     you never call it, then your application is sure to run out of
-     memory.
-     
+     <p>The diagnostic context of a thread is reclaimed when the
+     thread terminates. Threads which are reused, for instance by a
+     thread pool, should call this method when they are done with a
+     diagnostic context. Under Java 1.4 the thread keeps a reference
+     to an empty context.
   */
   static
   public
   void remove() {
-    if (ht != null) {
-        ht.remove(Thread.currentThread());
-    
-        // Lazily remove dead-thread references in ht.
-        lazyRemove();
+    contexts.set(null);
+    if (removeMethod != null) {
+      try {
+        removeMethod.invoke(contexts, (Object[]) null);
+      } catch (IllegalAccessException e) {
+        // should not happen
+      } catch (InvocationTargetException e) {
+        // should not happen
+      }
     }
   }
 
@@ -414,10 +385,21 @@ public class NDC {
   void setMaxDepth(int maxDepth) {
     Stack stack = getCurrentStack();    
     if(stack != null && maxDepth < stack.size()) 
-      stack.setSize(maxDepth);
+      getWritableStack(false).setSize(maxDepth);
   }
   
   // =====================================================================
+
+  /**
+   * Diagnostic context of a thread.
+   */
+  private static final class Context {
+    /** Stack of DiagnosticContext, may be null. */
+    Stack stack;
+    /** Is stack shared with another thread? */
+    boolean shared;
+  }
+
    private static class DiagnosticContext {
 
     String fullMessage;
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.log4j;
+
+import org.apache.log4j.helpers.LogLog;
+
+/**
+ * Message of a logging request made through {@link LogMF} or
+ * {@link LogSF}, holding the pattern and the arguments until the
+ * message is rendered.
+ *
+ * <p>LogMF and LogSF only log such messages to loggers whose events
+ * reach an open {@link AsyncAppender} with the <b>DeferredRendering</b>
+ * option set, through the appenders of the logger or of its ancestors
+ * as far as additivity allows. Otherwise they format the message
+ * eagerly and log the resulting String, so that the message of their
+ * events stays a String.
+ *
+ * <p>The message is formatted by {@link #toString}, which is what the
+ * default {@link org.apache.log4j.or.ObjectRenderer} of the
+ * {@link org.apache.log4j.or.RendererMap} calls when
+ * {@link org.apache.log4j.spi.LoggingEvent#getRenderedMessage} is
+ * first invoked. Requests rejected by the thresholds and the filters
+ * of all appenders are never formatted.
+ *
+ * <p>The arguments are held by reference, the message reflects their
+ * state at the time it is rendered.
+ *
+ * @since 1.2.18
+ */
+public final class ParameterizedMessage {
+    /**
+     * Pattern uses the syntax of java.text.MessageFormat, see LogMF.
+     */
+    static final int MESSAGE_FORMAT = 0;
+    /**
+     * Pattern uses the SLF4J syntax, see LogSF.
+     */
+    static final int SLF4J = 1;
+
+    /**
+     * Syntax of the pattern.
+     */
+    private final int syntax;
+    /**
+     * Pattern, not null.
+     */
+    private final String pattern;
+    /**
+     * Arguments, may be null.
+     */
+    private final Object[] arguments;
+    /**
+     * Formatted message, null until rendered.
+     */
+    private String formatted;
+
+    /**
+     * Create new instance.
+     * @param syntax MESSAGE_FORMAT or SLF4J.
+     * @param pattern pattern, may not be null.
+     * @param arguments arguments, may be null.
+     */
+    ParameterizedMessage(final int syntax,
+                         final String pattern,
+                         final Object[] arguments) {
+        this.syntax = syntax;
+        this.pattern = pattern;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Create the message of a request.
+     * @param syntax MESSAGE_FORMAT or SLF4J.
+     * @param pattern pattern, may be null.
+     * @param arguments arguments, may be null.
+     * @return message, null if pattern is null.
+     */
+    static ParameterizedMessage create(final int syntax,
+                                       final String pattern,
+                                       final Object[] arguments) {
+        if (pattern == null) {
+            return null;
+        }
+        return new ParameterizedMessage(syntax, pattern, arguments);
+    }
+
+    /**
+     * Get the message to log to a logger.
+     * @param logger logger, may not be null.
+     * @param msg message, may be null.
+     * @return the formatted String if msg is a ParameterizedMessage
+     * and the events of logger do not reach an AsyncAppender which
+     * defers rendering, otherwise msg.
+     */
+    static Object forLogger(final Category logger, final Object msg) {
+        if (msg instanceof ParameterizedMessage
+            && !logger.defersRendering()) {
+            return msg.toString();
+        }
+        return msg;
+    }
+
+    /**
+     * Format a message. If an argument fails to format, the pattern
+     * is returned.
+     * @param syntax MESSAGE_FORMAT or SLF4J.
+     * @param pattern pattern, may not be null.
+     * @param arguments arguments, may be null.
+     * @return formatted message.
+     */
+    private static String format(final int syntax,
+                                 final String pattern,
+                                 final Object[] arguments) {
+        try {
+            if (syntax == SLF4J) {
+                return LogSF.format(pattern, arguments);
+            }
+            return LogMF.format(pattern, arguments);
+        } catch (RuntimeException ex) {
+            // the message may be rendered by an appender
+            LogLog.warn("Unable to format message [" + pattern + "].", ex);
+            return pattern;
+        }
+    }
+
+    /**
+     * Get the pattern.
+     * @return pattern, not null.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Get the arguments.
+     * @return arguments, may be null, must not be modified.
+     */
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    /**
+     * Format the message, the result is computed once. If an argument
+     * fails to format, the pattern is returned.
+     * @return formatted message.
+     */
+    public String toString() {
+        String s = formatted;
+        if (s == null) {
+            s = format(syntax, pattern, arguments);
+            formatted = s;
+        }
+        return s;
+    }
+}
@@ -421,6 +421,17 @@ public class PatternLayout extends Layout {
 
   private PatternConverter head;
 
+  /** True unless a subclass overrides {@link #format(LoggingEvent)},
+      in which case {@link #format(StringBuffer, LoggingEvent)} must
+      call it to produce the same output. */
+  private final boolean formatInherited = isFormatInherited(getClass());
+
+  private boolean shareOutput = false;
+
+  /** Identifies the output of this layout among the layouts
+      formatting the same event, null unless the output is shared. */
+  private String outputKey;
+
   /**
      Constructs a PatternLayout using the DEFAULT_LAYOUT_PATTERN.
 
@@ -448,6 +459,7 @@ public class PatternLayout extends Layout {
   void setConversionPattern(String conversionPattern) {
     pattern = conversionPattern;
     head = createPatternParser(conversionPattern).parse();
+    outputKey = createOutputKey();
   }
 
   /**
@@ -458,6 +470,37 @@ public class PatternLayout extends Layout {
     return pattern;
   }
 
+  /**
+     The <b>ShareOutput</b> option takes a boolean value. When true,
+     the output of this layout is kept with each event it formats and
+     reused by the other PatternLayouts with the same conversion
+     pattern and sharing enabled, so an event written by several
+     appenders is formatted once. Subclasses of PatternLayout never
+     share their output. The default is false.
+
+     @since 1.2.18 */
+  public
+  void setShareOutput(boolean shareOutput) {
+    this.shareOutput = shareOutput;
+    outputKey = createOutputKey();
+  }
+
+  /**
+     Returns the current value of the <b>ShareOutput</b> option.
+
+     @since 1.2.18 */
+  public
+  boolean getShareOutput() {
+    return shareOutput;
+  }
+
+  private String createOutputKey() {
+    if(!shareOutput || getClass() != PatternLayout.class) {
+      return null;
+    }
+    return PatternLayout.class.getName() + ':' + pattern;
+  }
+
   /**
      Does not do anything as options become effective
   */
@@ -493,6 +536,12 @@ public class PatternLayout extends Layout {
      Produces a formatted string as specified by the conversion pattern.
   */
   public String format(LoggingEvent event) {
+    if(outputKey != null) {
+      String shared = event.getFormattedOutput(outputKey);
+      if(shared != null) {
+	return shared;
+      }
+    }
     // Reset working stringbuffer
     if(sbuf.capacity() > MAX_CAPACITY) {
       sbuf = new StringBuffer(BUF_SIZE);
@@ -500,12 +549,75 @@ public class PatternLayout extends Layout {
       sbuf.setLength(0);
     }
 
-    PatternConverter c = head;
+    appendConverters(sbuf, event);
+    String output = sbuf.toString();
+    if(outputKey != null) {
+      event.setFormattedOutput(outputKey, output);
+    }
+    return output;
+  }
+
+  /**
+     Appends the event formatted as specified by the conversion
+     pattern to <code>sbuf</code>, without creating a String.
+
+     <p>If a subclass overrides {@link #format(LoggingEvent)} and not
+     this method, the result of {@link #format(LoggingEvent)} is
+     appended.
+
+     @param sbuf buffer to append to.
+     @param event event to format.
+     @since 1.2.18 */
+  public void format(StringBuffer sbuf, LoggingEvent event) {
+    if(outputKey != null) {
+      appendShared(sbuf, event);
+    } else if(formatInherited) {
+      appendConverters(sbuf, event);
+    } else {
+      super.format(sbuf, event);
+    }
+  }
+
+  /**
+     Returns true unless a subclass overrides {@link
+     #format(LoggingEvent)}.
+
+     @since 1.2.18 */
+  public boolean formatsInPlace() {
+    return formatInherited;
+  }
+
+  private void appendConverters(StringBuffer sbuf, LoggingEvent event) {
+    // holding the lock lets the compiler elide the locks taken by
+    // each append to the buffer
+    synchronized(sbuf) {
+      PatternConverter c = head;
+
+      while(c != null) {
+	c.format(sbuf, event);
+	c = c.next;
+      }
+    }
+  }
+
+  private void appendShared(StringBuffer sbuf, LoggingEvent event) {
+    String shared = event.getFormattedOutput(outputKey);
+    if(shared != null) {
+      sbuf.append(shared);
+    } else {
+      int start = sbuf.length();
+      appendConverters(sbuf, event);
+      event.setFormattedOutput(outputKey, sbuf.substring(start));
+    }
+  }
 
-    while(c != null) {
-      c.format(sbuf, event);
-      c = c.next;
+  private static boolean isFormatInherited(Class clazz) {
+    try {
+      return clazz.getMethod("format", new Class[] { LoggingEvent.class })
+	.getDeclaringClass() == PatternLayout.class;
+    } catch(Exception e) {
+      // NoSuchMethodException cannot happen, SecurityException can
+      return false;
     }
-    return sbuf.toString();
   }
 }
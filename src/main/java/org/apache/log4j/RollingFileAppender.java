@@ -27,6 +27,10 @@ import java.io.InterruptedIOException;
 import org.apache.log4j.helpers.OptionConverter;
 import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.helpers.CountingQuietWriter;
+import org.apache.log4j.helpers.EncodingWriter;
+import org.apache.log4j.helpers.FileCompressor;
+import org.apache.log4j.helpers.QuietWriter;
+import org.apache.log4j.spi.ErrorCode;
 import org.apache.log4j.spi.LoggingEvent;
 
 /**
@@ -56,6 +60,26 @@ public class RollingFileAppender extends FileAppender {
 
   private long nextRollover = 0;
 
+  /**
+     Writer counting the bytes of the file when <b>ChannelIO</b> is
+     set, in which case qw is not a CountingQuietWriter.  */
+  private EncodingWriter byteCounter;
+
+  /**
+     Format backup files are compressed to, null if they are not
+     compressed.  */
+  private String compression;
+
+  /**
+     Are backup files numbered in increasing order instead of being
+     renamed on each roll over?  */
+  private boolean increasingIndex = false;
+
+  /**
+     Index of the newest backup file when <b>IncreasingIndex</b> is
+     set, -1 until the backup files are scanned.  */
+  private int lastIndex = -1;
+
   /**
      The default constructor simply calls its {@link
      FileAppender#FileAppender parents constructor}.  */
@@ -109,6 +133,93 @@ public class RollingFileAppender extends FileAppender {
     return maxFileSize;
   }
 
+  /**
+     The <b>Compression</b> option takes "gz" or "zip" to compress
+     backup files with gzip or into a zip archive, for example
+     <code>File.1</code> to <code>File.1.gz</code>. Files are compressed
+     by a background thread, see {@link FileCompressor}, and remain
+     uncompressed until their compression completes. Backup files left
+     uncompressed, for example because the application exited, are
+     compressed when the appender is activated.
+
+     <p>Backup files are not compressed by default.
+
+     @since 1.2.18 */
+  public
+  void setCompression(String value) {
+    compression = FileCompressor.toFormat(value);
+  }
+
+  /**
+     Returns the value of the <b>Compression</b> option.
+
+     @since 1.2.18 */
+  public
+  String getCompression() {
+    return compression;
+  }
+
+  /**
+     If the <b>IncreasingIndex</b> option is set to <code>true</code>,
+     <code>File</code> is renamed on roll over to the backup file
+     following the newest one, for example <code>File.8</code> after
+     <code>File.7</code>, and other backup files are left in place.
+     Each roll over then renames a single file whatever the
+     <b>MaxBackupIndex</b>. The oldest backup file, <code>File.1</code>
+     after the 8th roll over with <b>MaxBackupIndex</b> set to 7, is
+     deleted by a background thread. Backup indexes continue from the
+     highest index found in the directory of <code>File</code>.
+
+     <p>The option is <code>false</code> by default, the newest backup
+     file being <code>File.1</code>.
+
+     @since 1.2.18 */
+  public
+  void setIncreasingIndex(boolean value) {
+    increasingIndex = value;
+  }
+
+  /**
+     Returns the value of the <b>IncreasingIndex</b> option.
+
+     @since 1.2.18 */
+  public
+  boolean getIncreasingIndex() {
+    return increasingIndex;
+  }
+
+  /**
+     Opens the file and queues the backup files left uncompressed for
+     compression when <b>Compression</b> is set.
+
+     @since 1.2.18 */
+  public
+  void activateOptions() {
+    super.activateOptions();
+    lastIndex = -1;
+    if(increasingIndex && maxBackupIndex > 0 && fileName != null) {
+      scanBackups();
+    } else if(compression != null && fileName != null) {
+      int skipped = 0;
+      for(int i = 1; i <= maxBackupIndex; i++) {
+	if(!FileCompressor.resume(new File(fileName + '.' + i), compression)) {
+	  skipped++;
+	}
+      }
+      warnSkipped(skipped);
+    }
+  }
+
+  /**
+     Reports the backup files left uncompressed by activateOptions.  */
+  private
+  void warnSkipped(int skipped) {
+    if(skipped > 0) {
+      LogLog.warn("Too many pending compressions, leaving " + skipped
+		  + " backup files of [" + fileName + "] uncompressed.");
+    }
+  }
+
   /**
      Implements the usual roll over behaviour.
 
@@ -122,6 +233,14 @@ public class RollingFileAppender extends FileAppender {
      <p>If <code>MaxBackupIndex</code> is equal to zero, then the
      <code>File</code> is truncated with no backup files created.
 
+     <p>If <code>IncreasingIndex</code> is set, <code>File</code> is
+     renamed to the backup file following the newest one instead, and
+     the oldest backup file is deleted in the background if there are
+     more than <code>MaxBackupIndex</code>.
+
+     <p>If <code>Compression</code> is set, compressed backup files are
+     renamed along and the new backup file is queued for compression.
+
    */
   public // synchronization not necessary since doAppend is alreasy synched
   void rollOver() {
@@ -129,7 +248,7 @@ public class RollingFileAppender extends FileAppender {
     File file;
 
     if (qw != null) {
-        long size = ((CountingQuietWriter) qw).getCount();
+        long size = getFileSize();
         LogLog.debug("rolling over count=" + size);
         //   if operation fails, do not roll again until
         //      maxFileSize more bytes are written
@@ -140,30 +259,52 @@ public class RollingFileAppender extends FileAppender {
     boolean renameSucceeded = true;
     // If maxBackups <= 0, then there is no file renaming to be done.
     if(maxBackupIndex > 0) {
-      // Delete the oldest file, to keep Windows happy.
-      file = new File(fileName + '.' + maxBackupIndex);
-      if (file.exists())
-       renameSucceeded = file.delete();
-
-      // Map {(maxBackupIndex - 1), ..., 2, 1} to {maxBackupIndex, ..., 3, 2}
-      for (int i = maxBackupIndex - 1; i >= 1 && renameSucceeded; i--) {
-	file = new File(fileName + "." + i);
-	if (file.exists()) {
+      if (increasingIndex) {
+        if (lastIndex < 0) {
+          scanBackups();
+        }
+        target = new File(fileName + '.' + (lastIndex + 1));
+      } else {
+	// Delete the oldest file, to keep Windows happy.
+	file = new File(fileName + '.' + maxBackupIndex);
+	if (compression != null)
+	 renameSucceeded = FileCompressor.delete(file, compression);
+	else if (file.exists())
+	 renameSucceeded = file.delete();
+
+	// Map {(maxBackupIndex - 1), ..., 2, 1} to {maxBackupIndex, ..., 3, 2}
+	for (int i = maxBackupIndex - 1; i >= 1 && renameSucceeded; i--) {
+	  file = new File(fileName + "." + i);
 	  target = new File(fileName + '.' + (i + 1));
-	  LogLog.debug("Renaming file " + file + " to " + target);
-	  renameSucceeded = file.renameTo(target);
+	  if (compression != null) {
+	    // the file may be compressed meanwhile
+	    renameSucceeded = FileCompressor.rename(file, target, compression);
+	  } else if (file.exists()) {
+	    LogLog.debug("Renaming file " + file + " to " + target);
+	    renameSucceeded = file.renameTo(target);
+	  }
 	}
+
+	// Rename fileName to fileName.1
+	target = new File(fileName + "." + 1);
       }
 
     if(renameSucceeded) {
-      // Rename fileName to fileName.1
-      target = new File(fileName + "." + 1);
-
       this.closeFile(); // keep windows happy.
 
       file = new File(fileName);
       LogLog.debug("Renaming file " + file + " to " + target);
       renameSucceeded = file.renameTo(target);
+      if (renameSucceeded && increasingIndex) {
+          lastIndex++;
+          if (lastIndex > maxBackupIndex) {
+              FileCompressor.deleteLater(
+                new File(fileName + '.' + (lastIndex - maxBackupIndex)), compression);
+          }
+      }
+      if (renameSucceeded && compression != null) {
+          FileCompressor.submit(target, compression);
+      }
       //
       //   if file rename failed, reopen file with append = true
       //
@@ -207,7 +348,11 @@ public class RollingFileAppender extends FileAppender {
     super.setFile(fileName, append, this.bufferedIO, this.bufferSize);
     if(append) {
       File f = new File(fileName);
-      ((CountingQuietWriter) qw).setCount(f.length());
+      if(byteCounter != null) {
+        byteCounter.setByteCount(f.length());
+      } else {
+        ((CountingQuietWriter) qw).setCount(f.length());
+      }
     }
   }
 
@@ -260,9 +405,99 @@ public class RollingFileAppender extends FileAppender {
     maxFileSize = OptionConverter.toFileSize(value, maxFileSize + 1);
   }
 
+  /**
+     Finds the index of the newest backup file, queues the deletion of
+     the backup files beyond <b>MaxBackupIndex</b> and the compression
+     of the backup files left uncompressed.  */
+  private
+  void scanBackups() {
+    lastIndex = 0;
+    File file = new File(fileName);
+    File dir = file.getAbsoluteFile().getParentFile();
+    String[] names = (dir == null) ? null : dir.list();
+    if(names == null) {
+      return;
+    }
+    String prefix = file.getName() + '.';
+    int[] indexes = new int[names.length];
+    for(int i = 0; i < names.length; i++) {
+      indexes[i] = parseIndex(names[i], prefix);
+      lastIndex = Math.max(lastIndex, indexes[i]);
+    }
+    int skipped = 0;
+    for(int i = 0; i < names.length; i++) {
+      if(indexes[i] > 0) {
+	// named as by rollOver for the compressor to match them
+	File backup = new File(fileName + '.' + indexes[i]);
+	if(indexes[i] <= lastIndex - maxBackupIndex) {
+	  FileCompressor.deleteLater(backup, compression);
+	} else if(compression != null
+		  && (names[i].equals(prefix + indexes[i])
+		      || names[i].equals(prefix + indexes[i] + ".tmp"))) {
+	  if(!FileCompressor.resume(backup, compression)) {
+	    skipped++;
+	  }
+	}
+      }
+    }
+    warnSkipped(skipped);
+  }
+
+  /**
+     Returns the index of a backup file, or 0 if the name is not the
+     name of a backup file.  */
+  private
+  int parseIndex(String name, String prefix) {
+    if(!name.startsWith(prefix)) {
+      return 0;
+    }
+    String index = name.substring(prefix.length());
+    if(index.endsWith(".tmp")) {
+      // renamed or written while compressed
+      index = index.substring(0, index.length() - 4);
+    }
+    if(compression != null && index.endsWith('.' + compression)) {
+      index = index.substring(0, index.length() - compression.length() - 1);
+    }
+    if(index.length() == 0 || index.length() > 9 || index.charAt(0) == '0') {
+      return 0;
+    }
+    for(int i = 0; i < index.length(); i++) {
+      if(index.charAt(i) < '0' || index.charAt(i) > '9') {
+	return 0;
+      }
+    }
+    return Integer.parseInt(index);
+  }
+
   protected
   void setQWForFiles(Writer writer) {
-     this.qw = new CountingQuietWriter(writer, errorHandler);
+     if(channelIO && writer instanceof EncodingWriter) {
+       byteCounter = (EncodingWriter) writer;
+       this.qw = new QuietWriter(writer, errorHandler);
+     } else {
+       byteCounter = null;
+       this.qw = new CountingQuietWriter(writer, errorHandler);
+     }
+  }
+
+  /**
+     Returns the number of bytes written to the file, or the number of
+     characters unless <b>ChannelIO</b> is set.  */
+  private
+  long getFileSize() {
+    if(byteCounter != null) {
+      try {
+        return byteCounter.getByteCount();
+      } catch(IOException e) {
+        if (e instanceof InterruptedIOException) {
+          Thread.currentThread().interrupt();
+        }
+        errorHandler.error("Write failure.", e, ErrorCode.WRITE_FAILURE);
+        return 0;
+      }
+    }
+    return ((CountingQuietWriter) qw).getCount();
   }
 
   /**
@@ -275,7 +510,13 @@ public class RollingFileAppender extends FileAppender {
   void subAppend(LoggingEvent event) {
     super.subAppend(event);
     if(fileName != null && qw != null) {
-        long size = ((CountingQuietWriter) qw).getCount();
+        // the exact byte count encodes the pending characters, it is
+        // only needed once the file may have reached its maximum size
+        if (byteCounter != null
+            && byteCounter.getMaxByteCount() < Math.max(maxFileSize, nextRollover)) {
+            return;
+        }
+        long size = getFileSize();
         if (size >= maxFileSize && size >= nextRollover) {
             rollOver();
         }
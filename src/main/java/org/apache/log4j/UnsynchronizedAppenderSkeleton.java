@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j;
+
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * Abstract superclass of appenders which do not need their
+ * <code>doAppend</code> calls to be serialized.
+ *
+ * <p>{@link AppenderSkeleton#doAppend(LoggingEvent)} holds the lock
+ * of the appender while filtering and appending the event. This
+ * class performs the same closed, threshold and filter checks
+ * without taking any lock: the closed flag and the threshold are
+ * volatile and the filters are read from an immutable copy of the
+ * chain starting at {@link #headFilter}, which is made again whenever
+ * a filter is added or the chain cleared. Changes made to the chain
+ * otherwise, through {@link org.apache.log4j.spi.Filter#setNext} for
+ * example, are only seen after the next {@link #addFilter} or
+ * {@link #clearFilters}.
+ *
+ * <p>Subclasses are responsible for the concurrency of their
+ * {@link #append(LoggingEvent)} method, which may be called by
+ * several threads at once, including after {@link #close} has
+ * started.
+ *
+ * @since 1.2.18
+ */
+public abstract class UnsynchronizedAppenderSkeleton extends AppenderSkeleton {
+
+    /**
+     * Create new instance.
+     */
+    protected UnsynchronizedAppenderSkeleton() {
+        super();
+    }
+
+    /**
+     * Create new instance.
+     *
+     * @param isActive true if appender is ready for use upon construction.
+     *                 Not used in log4j 1.2.x.
+     */
+    protected UnsynchronizedAppenderSkeleton(final boolean isActive) {
+        super(isActive);
+    }
+
+    /**
+     * Performs threshold checks and invokes filters before delegating
+     * to {@link #append(LoggingEvent)}, without synchronization.
+     *
+     * @param event event, may not be null.
+     */
+    public void doAppend(final LoggingEvent event) {
+        if (closed) {
+            LogLog.error("Attempted to append to closed appender named ["
+                    + name + "].");
+            return;
+        }
+
+        if (isAcceptedUnlocked(event)) {
+            append(event);
+        }
+    }
+
+    /**
+     * Batch counterpart of {@link #doAppend(LoggingEvent)}, without
+     * synchronization.
+     *
+     * @param events events, may not be null.
+     * @param count number of events to append from the start of events.
+     */
+    public void doAppend(final LoggingEvent[] events, final int count) {
+        if (closed) {
+            LogLog.error("Attempted to append to closed appender named ["
+                    + name + "].");
+            return;
+        }
+
+        LoggingEvent[] accepted = accept(events, count, true);
+        int n = (accepted == events) ? count : accepted.length;
+        if (n > 0) {
+            append(accepted, n);
+        }
+    }
+}
@@ -22,9 +22,13 @@ import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.HashSet;
+import java.util.Timer;
+import java.util.TimerTask;
 
 import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.helpers.QuietWriter;
+import org.apache.log4j.spi.BatchAppender;
 import org.apache.log4j.spi.ErrorHandler;
 import org.apache.log4j.spi.LoggingEvent;
 
@@ -37,7 +41,8 @@ import org.apache.log4j.spi.LoggingEvent;
 
    @author Ceki G&uuml;lc&uuml;
    @since 1.1 */
-public class WriterAppender extends AppenderSkeleton {
+public class WriterAppender extends AppenderSkeleton
+  implements BatchAppender {
 
 
   /**
@@ -69,6 +74,61 @@ public class WriterAppender extends AppenderSkeleton {
   */
   protected QuietWriter qw;
 
+  /**
+     Set while a batch of events is being written so that the writer
+     is flushed once at the end of the batch. */
+  private boolean inBatch = false;
+
+  /**
+     Largest formatBuffer kept between events. */
+  private static final int MAX_FORMAT_CAPACITY = 8*1024;
+
+  /**
+     Reusable buffer the layout formats into when it supports {@link
+     Layout#formatsInPlace}. */
+  private StringBuffer formatBuffer;
+
+  /**
+     Are repeated throwables written as a reference to the first
+     occurrence? */
+  private boolean traceReferences = false;
+
+  /**
+     Largest number of trace numbers remembered by writtenTraces. */
+  private static final int MAX_WRITTEN_TRACES = 1024;
+
+  /**
+     Numbers of the traces written in full to the current writer,
+     see {@link #setTraceReferences}. */
+  private HashSet writtenTraces;
+
+  /**
+     Milliseconds an event may stay unflushed, 0 if events are
+     flushed according to <code>immediateFlush</code>. */
+  private long flushInterval = 0;
+
+  /**
+     Number of unflushed characters triggering a flush. */
+  private int flushSize = 8*1024;
+
+  /**
+     Events at or above this level are flushed at once, null if none
+     is. */
+  private Priority flushLevel;
+
+  /**
+     Number of characters written since the last flush. */
+  private int unflushed;
+
+  /**
+     Task flushing the writer at the end of the flush interval, null
+     if none is scheduled. */
+  private TimerTask flushTask;
+
+  /**
+     Runs the flush tasks of all appenders. */
+  private static Timer flushTimer;
+
 
   /**
      This default constructor does nothing.  */
@@ -124,6 +184,118 @@ public class WriterAppender extends AppenderSkeleton {
     return immediateFlush;
   }
 
+  /**
+     The <b>FlushInterval</b> option takes the longest time in
+     milliseconds an event may be buffered before it is flushed. When
+     it is greater than zero the appender commits events in groups: the
+     writer is flushed when <b>FlushSize</b> characters are pending,
+     when an event at or above <b>FlushLevel</b> is written or by a
+     background thread once the first pending event is
+     <b>FlushInterval</b> milliseconds old, whichever comes first.
+     <b>ImmediateFlush</b> is then ignored.
+
+     <p>The option is 0 by default, which flushes according to
+     <b>ImmediateFlush</b>. Note that the flush interval only bounds
+     the delay if the writer buffers the output, as the writers of
+     {@link FileAppender} do.
+
+     @since 1.2.18
+   */
+  public
+  void setFlushInterval(long value) {
+    flushInterval = value;
+  }
+
+  /**
+     Returns value of the <b>FlushInterval</b> option.
+
+     @since 1.2.18
+   */
+  public
+  long getFlushInterval() {
+    return flushInterval;
+  }
+
+  /**
+     The <b>FlushSize</b> option takes the number of pending
+     characters which triggers a flush when <b>FlushInterval</b> is
+     set, 8192 by default.
+
+     @since 1.2.18
+   */
+  public
+  void setFlushSize(int value) {
+    flushSize = value;
+  }
+
+  /**
+     Returns value of the <b>FlushSize</b> option.
+
+     @since 1.2.18
+   */
+  public
+  int getFlushSize() {
+    return flushSize;
+  }
+
+  /**
+     The <b>FlushLevel</b> option takes a level, such as ERROR, at or
+     above which events are flushed as soon as they are written when
+     <b>FlushInterval</b> is set. No level is set by default.
+
+     @since 1.2.18
+   */
+  public
+  void setFlushLevel(Priority value) {
+    flushLevel = value;
+  }
+
+  /**
+     Returns value of the <b>FlushLevel</b> option.
+
+     @since 1.2.18
+   */
+  public
+  Priority getFlushLevel() {
+    return flushLevel;
+  }
+
+  /**
+     If the <b>TraceReferences</b> option is set to <code>true</code>,
+     the stack trace of a throwable is written in full the first time
+     only, with its trace number appended to its first line:
+     <pre>
+     java.lang.Exception: message [trace #1]
+     </pre>
+     Throwables with the same string representation, stack trace and
+     causes written later to the same writer are reduced to their first
+     line and a reference to that number:
+     <pre>
+     java.lang.Exception: message [same as trace #1]
+     </pre>
+
+     <p>The option is <code>false</code> by default. It only applies
+     to layouts which ignore throwables and to throwables rendered by
+     the default or the enhanced throwable renderer, see {@link
+     org.apache.log4j.spi.ThrowableInformation#getTraceId}.
+
+     @since 1.2.18
+   */
+  public
+  void setTraceReferences(boolean value) {
+    traceReferences = value;
+  }
+
+  /**
+     Returns value of the <b>TraceReferences</b> option.
+
+     @since 1.2.18
+   */
+  public
+  boolean getTraceReferences() {
+    return traceReferences;
+  }
+
   /**
      Does nothing.
   */
@@ -162,6 +334,40 @@ public class WriterAppender extends AppenderSkeleton {
     subAppend(event);
    }
 
+  /**
+     This method is called by the {@link AppenderSkeleton#doAppend(LoggingEvent[], int)}
+     method.
+
+     <p>Writes the events through {@link #subAppend} in order and
+     flushes the writer once at the end of the batch if any of the
+     events required it, instead of after each event.
+
+     @since 1.2.18
+  */
+  protected
+  void append(LoggingEvent[] events, int count) {
+    if(!checkEntryConditions()) {
+      return;
+    }
+    boolean flush = false;
+    inBatch = true;
+    try {
+      for(int i = 0; i < count; i++) {
+	subAppend(events[i]);
+	flush = flush || shouldFlush(events[i]);
+      }
+    } finally {
+      inBatch = false;
+    }
+    if(this.qw != null) {
+      if(flush) {
+	flush();
+      } else {
+	scheduleFlush();
+      }
+    }
+  }
+
   /**
      This method determines if there is a sense in attempting to append.
 
@@ -189,6 +395,38 @@ public class WriterAppender extends AppenderSkeleton {
   }
 
 
+  /**
+     Write a rendered throwable in full or as a reference to its
+     trace number if already written to the current writer. Returns
+     the number of characters written. */
+  private
+  int writeTrace(String[] s, int id) {
+    if(writtenTraces == null) {
+      writtenTraces = new HashSet();
+    } else if(writtenTraces.size() >= MAX_WRITTEN_TRACES) {
+      writtenTraces.clear();
+    }
+
+    if(writtenTraces.add(new Integer(id))) {
+      String first = s[0] + " [trace #" + id + "]";
+      this.qw.write(first);
+      this.qw.write(Layout.LINE_SEP);
+      int length = first.length() + Layout.LINE_SEP.length();
+      int len = s.length;
+      for(int i = 1; i < len; i++) {
+	this.qw.write(s[i]);
+	this.qw.write(Layout.LINE_SEP);
+	length += s[i].length() + Layout.LINE_SEP.length();
+      }
+      return length;
+    } else {
+      String first = s[0] + " [same as trace #" + id + "]";
+      this.qw.write(first);
+      this.qw.write(Layout.LINE_SEP);
+      return first.length() + Layout.LINE_SEP.length();
+    }
+  }
+
   /**
      Close this appender instance. The underlying stream or writer is
      also closed.
@@ -307,26 +545,88 @@ public class WriterAppender extends AppenderSkeleton {
      @since 0.9.0 */
   protected
   void subAppend(LoggingEvent event) {
-    this.qw.write(this.layout.format(event));
+    if(layout.formatsInPlace()) {
+      unflushed += writeFormatted(event);
+    } else {
+      String s = this.layout.format(event);
+      this.qw.write(s);
+      if(s != null) {
+	unflushed += s.length();
+      }
+    }
 
     if(layout.ignoresThrowable()) {
       String[] s = event.getThrowableStrRep();
       if (s != null) {
-	int len = s.length;
-	for(int i = 0; i < len; i++) {
-	  this.qw.write(s[i]);
-	  this.qw.write(Layout.LINE_SEP);
+	int id = 0;
+	if(traceReferences && s.length > 0) {
+	  id = event.getThrowableInformation().getTraceId();
+	}
+	if(id == 0) {
+	  int len = s.length;
+	  for(int i = 0; i < len; i++) {
+	    this.qw.write(s[i]);
+	    this.qw.write(Layout.LINE_SEP);
+	    unflushed += s[i].length() + Layout.LINE_SEP.length();
+	  }
+	} else {
+	  unflushed += writeTrace(s, id);
 	}
       }
     }
 
-    if(shouldFlush(event)) {
-      this.qw.flush();
+    if(!inBatch) {
+      if(shouldFlush(event)) {
+	flush();
+      } else {
+	scheduleFlush();
+      }
+    }
+  }
+
+  /**
+     Flushes the writer and forgets the pending characters.  */
+  private
+  void flush() {
+    this.qw.flush();
+    unflushed = 0;
+  }
+
+  /**
+     Schedules the flush of pending characters at the end of the
+     flush interval unless already scheduled.  */
+  private
+  void scheduleFlush() {
+    if(flushInterval > 0 && flushTask == null && unflushed > 0) {
+      flushTask = new FlushTask();
+      getFlushTimer().schedule(flushTask, flushInterval);
+    }
+  }
+
+  private static synchronized Timer getFlushTimer() {
+    if(flushTimer == null) {
+      flushTimer = new Timer(true);
     }
+    return flushTimer;
   }
 
 
 
+  /**
+     Formats the event into a reusable buffer and writes it without
+     creating a String. Returns the number of characters written.  */
+  private
+  int writeFormatted(LoggingEvent event) {
+    if(formatBuffer == null || formatBuffer.capacity() > MAX_FORMAT_CAPACITY) {
+      formatBuffer = new StringBuffer(256);
+    } else {
+      formatBuffer.setLength(0);
+    }
+    this.layout.format(formatBuffer, event);
+    this.qw.write(formatBuffer);
+    return formatBuffer.length();
+  }
+
   /**
      The WriterAppender requires a layout. Hence, this method returns
      <code>true</code>.
@@ -345,6 +645,12 @@ public class WriterAppender extends AppenderSkeleton {
   void reset() {
     closeWriter();
     this.qw = null;
+    this.writtenTraces = null;
+    this.unflushed = 0;
+    if(this.flushTask != null) {
+      this.flushTask.cancel();
+      this.flushTask = null;
+    }
     //this.tp = null;
   }
 
@@ -378,10 +684,34 @@ public class WriterAppender extends AppenderSkeleton {
   /**
    * Determines whether the writer should be flushed after
    * this event is written.
+   *
+   * <p>Returns the value of <b>ImmediateFlush</b>, or when
+   * <b>FlushInterval</b> is set, whether <b>FlushSize</b> characters
+   * are pending or the event is at or above <b>FlushLevel</b>.
    * 
    * @since 1.2.16
    */
   protected boolean shouldFlush(final LoggingEvent event) {
+     if (flushInterval > 0) {
+        return unflushed >= flushSize
+          || (flushLevel != null && event.getLevel().isGreaterOrEqual(flushLevel));
+     }
      return immediateFlush;
   }
+
+  /**
+     Flushes the writer of the appender at the end of the flush
+     interval.  */
+  private final class FlushTask extends TimerTask {
+    public void run() {
+      synchronized(WriterAppender.this) {
+	if(flushTask == this) {
+	  flushTask = null;
+	  if(qw != null && unflushed > 0) {
+	    flush();
+	  }
+	}
+      }
+    }
+  }
 }
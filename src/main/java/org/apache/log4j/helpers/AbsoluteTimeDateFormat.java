@@ -67,13 +67,20 @@ public class AbsoluteTimeDateFormat extends DateFormat {
     setCalendar(Calendar.getInstance(timeZone));
   }
 
-  private static long   previousTime;
-  private static char[] previousTimeWithoutMillis = new char[9]; // "HH:mm:ss."
+  /**
+     Most recently formatted second, shared by all threads.
+
+     @since 1.2.18 */
+  private transient volatile FormattedSecond second;
 
   /**
      Appends to <code>sbuf</code> the time in the format
      "HH:mm:ss,SSS" for example, "15:49:37,459"
 
+     <p>The part preceding the milliseconds is formatted at most once
+     per second and shared by all threads, which never wait for
+     each other.
+
      @param date the date to format
      @param sbuf the string buffer to write to
      @param fieldPosition remains untouched
@@ -83,56 +90,78 @@ public class AbsoluteTimeDateFormat extends DateFormat {
 		      FieldPosition fieldPosition) {
 
     long now = date.getTime();
-    int millis = (int)(now % 1000);
-
-    if ((now - millis) != previousTime || previousTimeWithoutMillis[0] == 0) {
-      // We reach this point at most once per second
-      // across all threads instead of each time format()
-      // is called. This saves considerable CPU time.
-
-      calendar.setTime(date);
-
-      int start = sbuf.length();
-      
-      int hour = calendar.get(Calendar.HOUR_OF_DAY);
-      if(hour < 10) {
-	sbuf.append('0');
-      }
-      sbuf.append(hour);
-      sbuf.append(':');
-      
-      int mins = calendar.get(Calendar.MINUTE);
-      if(mins < 10) {
-	sbuf.append('0');
-      }
-      sbuf.append(mins);
-      sbuf.append(':');
-      
-      int secs = calendar.get(Calendar.SECOND);
-      if(secs < 10) {
-	sbuf.append('0');
-      }
-      sbuf.append(secs);
-      sbuf.append(',');      
-
-      // store the time string for next time to avoid recomputation
-      sbuf.getChars(start, sbuf.length(), previousTimeWithoutMillis, 0);
-      
-      previousTime = now - millis;
+    FormattedSecond current = second;
+
+    if (current == null || !current.contains(now)) {
+      // We reach this point about once per second instead of each
+      // time format() is called. This saves considerable CPU time.
+      // Threads reaching it concurrently format the same second.
+      long start = FormattedSecond.startOfSecond(now);
+      Calendar cal = (Calendar) calendar.clone();
+      cal.setTime(new Date(start));
+
+      StringBuffer buf = new StringBuffer(32);
+      formatSecond(cal, buf);
+      int millisStart = buf.length();
+      buf.append("000");
+
+      current = new FormattedSecond(start, start + 1000, buf.toString(),
+				    millisStart);
+      second = current;
     }
-    else {
-      sbuf.append(previousTimeWithoutMillis);
+    current.format(now, sbuf);
+    return sbuf;
+  }
+
+  /**
+     Appends the part of the date preceding the milliseconds, "HH:mm:ss,"
+     for this class. Subclasses prepend the date.
+
+     @param cal calendar set to the start of the second, owned by the
+     caller.
+     @param sbuf the string buffer to write to.
+     @since 1.2.18 */
+  void formatSecond(Calendar cal, StringBuffer sbuf) {
+    int hour = cal.get(Calendar.HOUR_OF_DAY);
+    if(hour < 10) {
+      sbuf.append('0');
     }
-    
+    sbuf.append(hour);
+    sbuf.append(':');
 
-    
-    if(millis < 100) 
+    int mins = cal.get(Calendar.MINUTE);
+    if(mins < 10) {
       sbuf.append('0');
-    if(millis < 10) 
+    }
+    sbuf.append(mins);
+    sbuf.append(':');
+
+    int secs = cal.get(Calendar.SECOND);
+    if(secs < 10) {
       sbuf.append('0');
-    
-    sbuf.append(millis);
-    return sbuf;
+    }
+    sbuf.append(secs);
+    sbuf.append(',');
+  }
+
+  /**
+     Discards the formatted second when the calendar changes.
+
+     @since 1.2.18 */
+  public
+  void setCalendar(Calendar newCalendar) {
+    super.setCalendar(newCalendar);
+    second = null;
+  }
+
+  /**
+     Discards the formatted second when the time zone changes.
+
+     @since 1.2.18 */
+  public
+  void setTimeZone(TimeZone zone) {
+    super.setTimeZone(zone);
+    second = null;
   }
 
   /**
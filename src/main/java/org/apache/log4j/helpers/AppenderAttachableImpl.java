@@ -18,6 +18,7 @@
 package org.apache.log4j.helpers;
 
 import org.apache.log4j.spi.AppenderAttachable;
+import org.apache.log4j.spi.BatchAppender;
 import org.apache.log4j.spi.LoggingEvent;
 
 import org.apache.log4j.Appender;
@@ -69,6 +70,33 @@ public class AppenderAttachableImpl implements AppenderAttachable {
     return size;
   }
 
+  /**
+     Pass the first <code>count</code> events to all attached
+     appenders. Appenders implementing {@link BatchAppender} receive
+     them in a single call, the others one event at a time.
+
+     @since 1.2.18 */
+  public
+  int appendLoopOnAppenders(LoggingEvent[] events, int count) {
+    int size = 0;
+    Appender appender;
+
+    if(appenderList != null && count > 0) {
+      size = appenderList.size();
+      for(int i = 0; i < size; i++) {
+	appender = (Appender) appenderList.elementAt(i);
+	if(appender instanceof BatchAppender) {
+	  ((BatchAppender) appender).doAppend(events, count);
+	} else {
+	  for(int j = 0; j < count; j++) {
+	    appender.doAppend(events[j]);
+	  }
+	}
+      }
+    }
+    return size;
+  }
+
 
   /**
      Get all attached appenders as an Enumeration. If there are no
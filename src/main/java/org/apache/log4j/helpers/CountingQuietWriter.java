@@ -50,6 +50,41 @@ public class CountingQuietWriter extends QuietWriter {
     }
   }
 
+  /**
+     Writes a portion of an array of characters and adds its length
+     to the count.
+
+     @since 1.2.18 */
+  public
+  void write(char[] cbuf, int off, int len) {
+    try {
+      out.write(cbuf, off, len);
+      count += len;
+    }
+    catch(IOException e) {
+      errorHandler.error("Write failure.", e, ErrorCode.WRITE_FAILURE);
+    }
+  }
+
+  /**
+     Writes the content of a buffer and adds its length to the count.
+
+     @since 1.2.18 */
+  public
+  void write(StringBuffer sbuf) {
+    if(writeStringOverridden) {
+      write(sbuf.toString());
+      return;
+    }
+    try {
+      writeBuffer(sbuf);
+      count += sbuf.length();
+    }
+    catch(IOException e) {
+      errorHandler.error("Write failure.", e, ErrorCode.WRITE_FAILURE);
+    }
+  }
+
   public
   long getCount() {
     return count;
@@ -20,7 +20,6 @@ package org.apache.log4j.helpers;
 import java.util.Calendar;
 import java.util.TimeZone;
 import java.util.Date;
-import java.text.FieldPosition;
 import java.text.ParsePosition;
 import java.text.DateFormatSymbols;
 
@@ -49,30 +48,27 @@ public class DateTimeDateFormat extends AbsoluteTimeDateFormat {
   }
 
   /**
-     Appends to <code>sbuf</code> the date in the format "dd MMM yyyy
-     HH:mm:ss,SSS" for example, "06 Nov 1994 08:49:37,459".
+     Appends the part of the date preceding the milliseconds in the
+     format "dd MMM yyyy HH:mm:ss,". Dates are formatted in the format
+     "dd MMM yyyy HH:mm:ss,SSS" for example, "06 Nov 1994 08:49:37,459".
 
+     @param cal calendar set to the start of the second.
      @param sbuf the string buffer to write to
-  */
-  public
-  StringBuffer format(Date date, StringBuffer sbuf,
-		      FieldPosition fieldPosition) {
-
-    calendar.setTime(date);
-
-    int day = calendar.get(Calendar.DAY_OF_MONTH);
+     @since 1.2.18 */
+  void formatSecond(Calendar cal, StringBuffer sbuf) {
+    int day = cal.get(Calendar.DAY_OF_MONTH);
     if(day < 10)
       sbuf.append('0');
     sbuf.append(day);
     sbuf.append(' ');
-    sbuf.append(shortMonths[calendar.get(Calendar.MONTH)]);
+    sbuf.append(shortMonths[cal.get(Calendar.MONTH)]);
     sbuf.append(' ');
 
-    int year =  calendar.get(Calendar.YEAR);
+    int year =  cal.get(Calendar.YEAR);
     sbuf.append(year);
     sbuf.append(' ');
 
-    return super.format(date, sbuf, fieldPosition);
+    super.formatSecond(cal, sbuf);
   }
 
   /**
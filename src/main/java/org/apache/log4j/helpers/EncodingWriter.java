@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.helpers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+   A {@link Writer} which encodes characters with a single {@link
+   CharsetEncoder} into a reusable byte buffer, and writes that buffer
+   to an {@link OutputStream} or a {@link WritableByteChannel} when it
+   is full or flushed. Characters are only encoded when the
+   character buffer is full, when the writer is flushed and when the
+   byte count is requested, so a string written does not cost a call
+   to the encoder.
+
+   <p>Unlike {@link java.io.OutputStreamWriter}, writing strings or
+   character arrays does not allocate any object once the writer has
+   been created. Malformed and unmappable characters are replaced, as
+   they are by <code>OutputStreamWriter</code>.
+
+   <p>The writer counts the bytes it encodes, see {@link
+   #getByteCount}.
+
+   @since 1.2.18 */
+public class EncodingWriter extends Writer {
+
+  /** Stream written to, null when writing to a channel. */
+  private final OutputStream out;
+
+  /** Channel written to, null when writing to a stream. */
+  private final WritableByteChannel channel;
+
+  private final CharsetEncoder encoder;
+
+  /** Characters waiting to be encoded, which happens when the
+      buffer is full, when the writer is flushed and when the byte
+      count is requested. */
+  private final char[] chars;
+  private final CharBuffer charBuffer;
+
+  /** Encoded bytes waiting to be written to out or channel. */
+  private final ByteBuffer byteBuffer;
+
+  /** Number of bytes written to out or channel, plus the initial
+      count set by {@link #setByteCount}. */
+  private long written;
+
+  /**
+     Creates a writer.
+
+     @param out stream to write to, may not be null.
+     @param charset charset to encode with, may not be null.
+     @param bufferSize size of the character and byte buffers.  */
+  public EncodingWriter(OutputStream out, Charset charset, int bufferSize) {
+    this(out, null, charset, bufferSize);
+  }
+
+  /**
+     Creates a writer writing to a channel.
+
+     @param channel channel to write to, may not be null.
+     @param charset charset to encode with, may not be null.
+     @param bufferSize size of the character and byte buffers.
+     @since 1.2.18 */
+  public EncodingWriter(WritableByteChannel channel, Charset charset,
+			int bufferSize) {
+    this(null, channel, charset, bufferSize);
+  }
+
+  private EncodingWriter(OutputStream out, WritableByteChannel channel,
+			 Charset charset, int bufferSize) {
+    this.out = out;
+    this.channel = channel;
+    this.encoder = charset.newEncoder();
+    encoder.onMalformedInput(CodingErrorAction.REPLACE);
+    encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+    int size = Math.max(bufferSize, 64);
+    chars = new char[size];
+    charBuffer = CharBuffer.wrap(chars);
+    // a heap buffer, encoders are much faster when both buffers are
+    // backed by arrays and channels copy heap buffers to a cached
+    // direct buffer in a single operation
+    byteBuffer = ByteBuffer.allocate(
+      Math.max(size, (int) Math.ceil(encoder.maxBytesPerChar()) * 2));
+  }
+
+  /**
+     Returns the number of bytes encoded, including those not yet
+     written, plus the count set by {@link #setByteCount}. The
+     characters written so far are encoded first, except for the high
+     half of a surrogate pair.
+
+     @return number of bytes.
+     @throws IOException if the encoded bytes could not be written.
+     @since 1.2.18 */
+  public long getByteCount() throws IOException {
+    synchronized(lock) {
+      encode();
+      return written + byteBuffer.position();
+    }
+  }
+
+  /**
+     Returns an upper bound of {@link #getByteCount}, counting the
+     characters not encoded yet at the maximum number of bytes per
+     character of the charset. Nothing is encoded.
+
+     @return maximum number of bytes.
+     @since 1.2.18 */
+  public long getMaxByteCount() {
+    synchronized(lock) {
+      return written + byteBuffer.position()
+	+ (long) Math.ceil(charBuffer.position() * encoder.maxBytesPerChar());
+    }
+  }
+
+  /**
+     Sets the number of bytes encoded, for instance to the length of
+     the file appended to.
+
+     @param count number of bytes.
+     @throws IOException if the encoded bytes could not be written.
+     @since 1.2.18 */
+  public void setByteCount(long count) throws IOException {
+    synchronized(lock) {
+      encode();
+      written = count - byteBuffer.position();
+    }
+  }
+
+  public void write(int c) throws IOException {
+    synchronized(lock) {
+      charBuffer.put((char) c);
+      if(!charBuffer.hasRemaining()) {
+	encode();
+      }
+    }
+  }
+
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    synchronized(lock) {
+      while(len > 0) {
+	int n = Math.min(charBuffer.remaining(), len);
+	charBuffer.put(cbuf, off, n);
+	off += n;
+	len -= n;
+	if(!charBuffer.hasRemaining()) {
+	  encode();
+	}
+      }
+    }
+  }
+
+  public void write(String str, int off, int len) throws IOException {
+    synchronized(lock) {
+      while(len > 0) {
+	int pos = charBuffer.position();
+	int n = Math.min(chars.length - pos, len);
+	str.getChars(off, off + n, chars, pos);
+	charBuffer.position(pos + n);
+	off += n;
+	len -= n;
+	if(!charBuffer.hasRemaining()) {
+	  encode();
+	}
+      }
+    }
+  }
+
+  /**
+     Encodes a portion of a buffer, copying its characters directly
+     to the character buffer of this writer.
+
+     @param sbuf buffer to write.
+     @param off offset of the first character.
+     @param len number of characters.
+     @since 1.2.18 */
+  public void write(StringBuffer sbuf, int off, int len) throws IOException {
+    synchronized(lock) {
+      while(len > 0) {
+	int pos = charBuffer.position();
+	int n = Math.min(chars.length - pos, len);
+	sbuf.getChars(off, off + n, chars, pos);
+	charBuffer.position(pos + n);
+	off += n;
+	len -= n;
+	if(!charBuffer.hasRemaining()) {
+	  encode();
+	}
+      }
+    }
+  }
+
+  /**
+     Writes the encoded bytes to the stream or channel and flushes the
+     stream.  */
+  public void flush() throws IOException {
+    synchronized(lock) {
+      encode();
+      drain();
+      if(out != null) {
+	out.flush();
+      }
+    }
+  }
+
+  /**
+     Flushes and closes the stream or channel.  */
+  public void close() throws IOException {
+    synchronized(lock) {
+      try {
+	flush();
+      } finally {
+	if(out != null) {
+	  out.close();
+	} else {
+	  channel.close();
+	}
+      }
+    }
+  }
+
+  /**
+     Encodes the characters in the character buffer, writing the byte
+     buffer to the stream each time it fills up.  */
+  private void encode() throws IOException {
+    charBuffer.flip();
+    try {
+      CoderResult result = encoder.encode(charBuffer, byteBuffer, false);
+      while(result.isOverflow()) {
+	drain();
+	result = encoder.encode(charBuffer, byteBuffer, false);
+      }
+    } finally {
+      // keeps an incomplete surrogate pair for the next call, and
+      // the characters not encoded when a write fails
+      charBuffer.compact();
+    }
+  }
+
+  private void drain() throws IOException {
+    int n = byteBuffer.position();
+    if(n == 0) {
+      return;
+    }
+    if(out != null) {
+      out.write(byteBuffer.array(), byteBuffer.arrayOffset(), n);
+      byteBuffer.clear();
+      written += n;
+    } else {
+      byteBuffer.flip();
+      try {
+	while(byteBuffer.hasRemaining()) {
+	  channel.write(byteBuffer);
+	}
+      } finally {
+	// bytes which could not be written are dropped, the buffer
+	// must be ready for encoding again
+	written += byteBuffer.position();
+	byteBuffer.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,463 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.helpers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+   Compresses and deletes rolled log files on a background thread.
+
+   <p>Files are compressed one at a time by a single daemon thread, in
+   the order they are submitted. A file is first renamed with a ".tmp"
+   suffix, for example <code>foo.log.1.tmp</code>, so that it is not
+   open under its own name while it is compressed and can be renamed
+   or deleted meanwhile, also on Windows. It is compressed into a
+   temporary file named after the compressed file with a ".tmp"
+   suffix, which is renamed to the name of the file followed by the
+   format, for example <code>foo.log.1.gz</code>. The uncompressed
+   file is deleted once the compressed file is in place. If the file
+   cannot be renamed first, it is compressed in place and renaming it
+   fails until its compression completes. A file whose compression
+   did not complete, for example because the JVM exited, is left
+   uncompressed, possibly with the ".tmp" suffix, and is restored and
+   compressed by {@link #resume}.
+
+   <p>At most 32 jobs are pending, further files are left
+   uncompressed, or deleted at once by {@link #deleteLater}. Appenders
+   moving or deleting rolled files must do so through {@link #rename}
+   and {@link #delete} so that pending jobs follow the files.
+
+   @since 1.2.18 */
+public final class FileCompressor {
+
+  /** Format of files compressed with gzip. */
+  public static final String GZ = "gz";
+
+  /** Format of files compressed into a zip archive. */
+  public static final String ZIP = "zip";
+
+  private static final int MAX_PENDING = 32;
+
+  private static final Object lock = new Object();
+
+  /** Jobs waiting for the worker. */
+  private static final LinkedList pending = new LinkedList();
+
+  /** Job compressed by the worker, null if none. */
+  private static Job current;
+
+  private static Thread worker;
+
+  private FileCompressor() {
+  }
+
+  /**
+     Returns the format named by an option value, or null if the value
+     is null, empty or "none". Unknown formats are reported and
+     return null.  */
+  public
+  static
+  String toFormat(String value) {
+    if(value == null) {
+      return null;
+    }
+    String v = value.trim();
+    if(v.length() == 0 || v.equalsIgnoreCase("none")) {
+      return null;
+    }
+    if(v.equalsIgnoreCase(GZ) || v.equalsIgnoreCase("gzip")) {
+      return GZ;
+    }
+    if(v.equalsIgnoreCase(ZIP)) {
+      return ZIP;
+    }
+    LogLog.warn("["+value+"] should be gz, zip or none.");
+    return null;
+  }
+
+  /**
+     Returns the compressed counterpart of a file.  */
+  public
+  static
+  File getCompressedFile(File file, String format) {
+    return new File(file.getPath() + '.' + format);
+  }
+
+  /**
+     Queues a file for compression. Returns false if too many
+     compressions are pending, in which case the file is left
+     uncompressed.  */
+  public
+  static
+  boolean submit(File file, String format) {
+    synchronized(lock) {
+      if(!offer(file, format)) {
+	LogLog.warn("Too many pending compressions, leaving ["+file
+		    +"] uncompressed.");
+	return false;
+      }
+      return true;
+    }
+  }
+
+  /**
+     Queues a file left uncompressed by a previous run for
+     compression, restoring it first if its compression was
+     interrupted. Does nothing if neither the file nor its renamed
+     copy exists. Returns false, without warning, if too many
+     compressions are pending, in which case the file is left
+     uncompressed.  */
+  public
+  static
+  boolean resume(File file, String format) {
+    synchronized(lock) {
+      if(current != null && file.equals(current.file)) {
+	return true;
+      }
+      if(!file.exists()) {
+	File snapshot = getSnapshot(file);
+	if(!snapshot.exists()) {
+	  return true;
+	}
+	if(!snapshot.renameTo(file)) {
+	  LogLog.warn("Could not rename ["+snapshot+"] to ["+file+"].");
+	  return true;
+	}
+      }
+      return offer(file, format);
+    }
+  }
+
+  /**
+     Queues a compression unless it is already queued or too many
+     compressions are pending.  */
+  private
+  static
+  boolean offer(File file, String format) {
+    if(current != null && file.equals(current.file)) {
+      return true;
+    }
+    for(Iterator i = pending.iterator(); i.hasNext(); ) {
+      Job job = (Job) i.next();
+      if(!job.delete && file.equals(job.file)) {
+	return true;
+      }
+    }
+    if(pending.size() >= MAX_PENDING) {
+      return false;
+    }
+    enqueue(new Job(file, format, false));
+    return true;
+  }
+
+  /**
+     Returns the name a file is renamed to while it is compressed.  */
+  private
+  static
+  File getSnapshot(File file) {
+    return new File(file.getPath() + ".tmp");
+  }
+
+  /**
+     Queues the deletion of a file and of its compressed counterpart,
+     see {@link #delete}. The files are deleted at once if too many
+     jobs are pending.
+
+     @param format format of the compressed file, null if none.  */
+  public
+  static
+  void deleteLater(File file, String format) {
+    synchronized(lock) {
+      if(pending.size() >= MAX_PENDING) {
+	delete(file, format);
+      } else {
+	enqueue(new Job(file, format, true));
+      }
+    }
+  }
+
+  private
+  static
+  void enqueue(Job job) {
+    pending.addLast(job);
+    if(worker == null) {
+      worker = new Thread(new Worker(), "log4j compressor");
+      worker.setDaemon(true);
+      worker.setPriority(Thread.MIN_PRIORITY);
+      worker.start();
+    }
+    lock.notifyAll();
+  }
+
+  /**
+     Renames a file and its compressed counterpart if they exist.
+     Pending compressions of the file follow it. Returns false if a
+     rename failed.  */
+  public
+  static
+  boolean rename(File from, File to, String format) {
+    synchronized(lock) {
+      boolean renamed = true;
+      if(from.exists()) {
+	cancel(to);
+	renamed = from.renameTo(to);
+	if(renamed) {
+	  retarget(from, to);
+	}
+      } else if(current != null && current.snapshot != null
+		&& from.equals(current.file)) {
+	// the file is being compressed under another name
+	cancel(to);
+	retarget(from, to);
+      }
+      File compressed = getCompressedFile(from, format);
+      if(renamed && compressed.exists()) {
+	renamed = compressed.renameTo(getCompressedFile(to, format));
+      }
+      return renamed;
+    }
+  }
+
+  /**
+     Deletes a file and its compressed counterpart if they exist,
+     cancelling the pending jobs of the file. Returns false if a
+     deletion failed.
+
+     @param format format of the compressed file, null if none.  */
+  public
+  static
+  boolean delete(File file, String format) {
+    synchronized(lock) {
+      cancel(file);
+      boolean deleted = true;
+      if(file.exists()) {
+	deleted = file.delete();
+      }
+      if(format != null) {
+	File compressed = getCompressedFile(file, format);
+	if(deleted && compressed.exists()) {
+	  deleted = compressed.delete();
+	}
+      }
+      return deleted;
+    }
+  }
+
+  private
+  static
+  void cancel(File file) {
+    if(current != null && file.equals(current.file)) {
+      current.file = null;
+    }
+    for(Iterator i = pending.iterator(); i.hasNext(); ) {
+      if(file.equals(((Job) i.next()).file)) {
+	i.remove();
+      }
+    }
+  }
+
+  private
+  static
+  void retarget(File from, File to) {
+    if(current != null && from.equals(current.file)) {
+      current.file = to;
+    }
+    for(Iterator i = pending.iterator(); i.hasNext(); ) {
+      Job job = (Job) i.next();
+      if(from.equals(job.file)) {
+	job.file = to;
+      }
+    }
+  }
+
+  /**
+     Deletes the file of the current job.  */
+  private
+  static
+  void delete(Job job) {
+    synchronized(lock) {
+      File file = job.file;
+      if(file != null && !delete(file, job.format)) {
+	LogLog.warn("Could not delete ["+file+"].");
+      }
+    }
+  }
+
+  /**
+     Compresses the file of the current job.  */
+  private
+  static
+  void compress(Job job) {
+    File file;
+    InputStream in;
+    synchronized(lock) {
+      file = job.file;
+      if(file == null) {
+	return;
+      }
+      File snapshot = getSnapshot(file);
+      if(!snapshot.exists() && file.renameTo(snapshot)) {
+	job.snapshot = snapshot;
+      }
+      try {
+	in = new FileInputStream((job.snapshot != null) ? job.snapshot : file);
+      } catch(FileNotFoundException e) {
+	LogLog.debug("Not compressing missing file ["+file+"].");
+	restore(job);
+	return;
+      }
+    }
+    // the job may follow the file to a new name while it is compressed
+    File tmp = new File(getCompressedFile(file, job.format).getPath() + ".tmp");
+    try {
+      try {
+	OutputStream out = new FileOutputStream(tmp);
+	try {
+	  if(ZIP.equals(job.format)) {
+	    ZipOutputStream zip = new ZipOutputStream(out);
+	    zip.putNextEntry(new ZipEntry(file.getName()));
+	    out = zip;
+	  } else {
+	    out = new GZIPOutputStream(out, 8192);
+	  }
+	  byte[] buf = new byte[8192];
+	  for(int n = in.read(buf); n >= 0; n = in.read(buf)) {
+	    out.write(buf, 0, n);
+	  }
+	} finally {
+	  out.close();
+	}
+      } finally {
+	in.close();
+      }
+    } catch(IOException e) {
+      LogLog.warn("Could not compress ["+file+"].", e);
+      tmp.delete();
+      synchronized(lock) {
+	restore(job);
+      }
+      return;
+    }
+
+    synchronized(lock) {
+      file = job.file;
+      File source = (job.snapshot != null) ? job.snapshot : file;
+      if(file == null || !source.exists()) {
+	// deleted meanwhile
+	tmp.delete();
+	restore(job);
+	return;
+      }
+      File target = getCompressedFile(file, job.format);
+      // keep Windows happy
+      if(target.exists()) {
+	target.delete();
+      }
+      if(!tmp.renameTo(target)) {
+	LogLog.warn("Could not rename ["+tmp+"] to ["+target+"].");
+	tmp.delete();
+	restore(job);
+      } else if(!source.delete()) {
+	LogLog.warn("Could not delete ["+source+"] after compressing it.");
+      } else {
+	LogLog.debug("Compressed ["+file+"] to ["+target+"].");
+      }
+    }
+  }
+
+  /**
+     Renames the renamed copy of a file whose compression failed back
+     to the current name of the file, or deletes it if the file was
+     deleted meanwhile. Called with the lock held.  */
+  private
+  static
+  void restore(Job job) {
+    File snapshot = job.snapshot;
+    if(snapshot == null) {
+      return;
+    }
+    job.snapshot = null;
+    if(job.file == null) {
+      snapshot.delete();
+    } else if(!snapshot.renameTo(job.file)) {
+      LogLog.warn("Could not rename ["+snapshot+"] to ["+job.file+"].");
+    }
+  }
+
+  /**
+     File to compress or delete.  */
+  private static final class Job {
+    /** File, null if cancelled, guarded by lock. */
+    File file;
+    /** Name the file is compressed under, null if none, guarded by
+        lock. */
+    File snapshot;
+    final String format;
+    final boolean delete;
+
+    Job(File file, String format, boolean delete) {
+      this.file = file;
+      this.format = format;
+      this.delete = delete;
+    }
+  }
+
+  private static final class Worker implements Runnable {
+    public void run() {
+      while(true) {
+	Job job;
+	synchronized(lock) {
+	  while(pending.isEmpty()) {
+	    try {
+	      lock.wait();
+	    } catch(InterruptedException e) {
+	      worker = null;
+	      return;
+	    }
+	  }
+	  job = (Job) pending.removeFirst();
+	  current = job;
+	}
+	try {
+	  if(job.delete) {
+	    delete(job);
+	  } else {
+	    compress(job);
+	  }
+	} catch(RuntimeException e) {
+	  LogLog.warn("Could not process ["+job.file+"].", e);
+	} finally {
+	  synchronized(lock) {
+	    current = null;
+	  }
+	}
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.helpers;
+
+/**
+   An immutable date formatted for a range of time, usually one
+   second, into which the milliseconds of any time in the range are
+   spliced when it is appended to a buffer.
+
+   <p>Date formats keep the most recent instance in a volatile field.
+   A thread formatting a time outside of its range formats a new
+   instance and replaces it, no lock is taken and threads formatting
+   within the range never wait.
+
+   @since 1.2.18 */
+public final class FormattedSecond {
+
+  private static final char[] DIGITS = "0123456789".toCharArray();
+
+  /** Start of the range, milliseconds are relative to it. */
+  private final long start;
+
+  /** End of the range, exclusive. */
+  private final long end;
+
+  /** Formatted date. */
+  private final char[] chars;
+
+  /** Position of the three millisecond digits in chars, or -1. */
+  private final int millisStart;
+
+  /**
+     Creates an instance.
+
+     @param start start of the range.
+     @param end end of the range, exclusive, at most start + 1000 when
+     there is a millisecond field.
+     @param formatted formatted date.
+     @param millisStart position of the three millisecond digits in
+     formatted, or -1 if formatted is used as is. */
+  public FormattedSecond(long start, long end, String formatted,
+			 int millisStart) {
+    this.start = start;
+    this.end = end;
+    this.chars = formatted.toCharArray();
+    this.millisStart = millisStart;
+  }
+
+  /**
+     Returns the start of the second containing a time, rounding
+     toward negative infinity.
+
+     @param time milliseconds since 1 Jan 1970 GMT.
+     @return start of the second.  */
+  public static long startOfSecond(long time) {
+    long second = (time / 1000) * 1000;
+    if(second > time) {
+      second -= 1000;
+    }
+    return second;
+  }
+
+  /**
+     Determines if a time can be formatted with this instance.
+
+     @param time milliseconds since 1 Jan 1970 GMT.
+     @return true if time is in the range.  */
+  public boolean contains(long time) {
+    return time >= start && time < end;
+  }
+
+  /**
+     Appends the formatted date with the milliseconds of a time
+     within the range.
+
+     @param time time in the range.
+     @param buf buffer to append to.  */
+  public void format(long time, StringBuffer buf) {
+    if(millisStart < 0) {
+      buf.append(chars);
+      return;
+    }
+    int millis = (int) (time - start);
+    buf.append(chars, 0, millisStart);
+    buf.append(DIGITS[millis / 100]);
+    buf.append(DIGITS[(millis / 10) % 10]);
+    buf.append(DIGITS[millis % 10]);
+    int tail = millisStart + 3;
+    if(tail < chars.length) {
+      buf.append(chars, tail, chars.length - tail);
+    }
+  }
+}
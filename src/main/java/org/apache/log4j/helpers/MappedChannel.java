@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.helpers;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+   A {@link WritableByteChannel} which copies the bytes written to it
+   into a memory-mapped region of a file. Writes do not call the
+   operating system, except to map the next region of the file when
+   the current one is full.
+
+   <p>Mapping a region extends the file to the end of the region. The
+   file is truncated to the bytes actually written when the channel is
+   closed. A file which was not closed, for instance because the
+   process was killed, ends with zero bytes, which are removed when
+   the file is opened again for appending.
+
+   <p>Bytes written are visible to other readers of the file at once,
+   {@link #force} writes them to the storage device. Forcing does not
+   hold the lock taken by writes.
+
+   @since 1.2.18 */
+public final class MappedChannel implements WritableByteChannel {
+
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+
+  /** Size of each mapped region. */
+  private final int regionSize;
+
+  /** Current region, null before the first write. */
+  private MappedByteBuffer region;
+
+  /** Position of the current region in the file, or the initial
+      length of the file before the first write. */
+  private long regionStart;
+
+  /** Full regions not forced yet, null if regions are not forced. */
+  private final List unforced;
+
+  private boolean open = true;
+
+  /**
+     Creates a channel writing to the end of a file, or to its start
+     if the file is truncated. When appending, the zero bytes ending
+     a file which was not closed are truncated first, keeping whole
+     code units of its encoding.
+
+     @param file file opened for reading and writing, closed by this
+     channel.
+     @param append true to keep the content of the file.
+     @param unitSize size in bytes of the code units of the encoding
+     of the file, 1 for single byte encodings and UTF-8.
+     @param regionSize size of each mapped region.
+     @param forced true if {@link #force} will be called, in which case
+     full regions are kept until they are forced.
+     @throws IOException if the file cannot be read or truncated.  */
+  public MappedChannel(RandomAccessFile file, boolean append, int unitSize,
+		       int regionSize, boolean forced) throws IOException {
+    this.file = file;
+    this.channel = file.getChannel();
+    this.regionSize = Math.max(regionSize, 4096);
+    this.unforced = forced ? new ArrayList() : null;
+    if(append) {
+      regionStart = getContentLength(Math.max(unitSize, 1));
+      if(regionStart < channel.size()) {
+	channel.truncate(regionStart);
+      }
+    } else {
+      channel.truncate(0);
+      regionStart = 0;
+    }
+  }
+
+  /**
+     Returns the position of the next byte written in the file.
+
+     @return position.  */
+  public synchronized long position() {
+    if(region == null) {
+      return regionStart;
+    }
+    return regionStart + region.position();
+  }
+
+  /**
+     Copies bytes to the mapped file, mapping new regions as needed.
+
+     @param src bytes to write.
+     @return number of bytes written.
+     @throws IOException if the channel is closed or a region cannot be
+     mapped.  */
+  public synchronized int write(ByteBuffer src) throws IOException {
+    if(!open) {
+      throw new ClosedChannelException();
+    }
+    int written = src.remaining();
+    while(src.hasRemaining()) {
+      if(region == null || !region.hasRemaining()) {
+	remap();
+      }
+      int n = region.remaining();
+      if(src.remaining() <= n) {
+	region.put(src);
+      } else {
+	int limit = src.limit();
+	src.limit(src.position() + n);
+	region.put(src);
+	src.limit(limit);
+      }
+    }
+    return written;
+  }
+
+  /**
+     Writes the bytes of the current region, and of the regions filled
+     since the previous call, to the storage device. Writes proceed
+     meanwhile.
+
+     @throws IOException if the bytes cannot be written.  */
+  public void force() throws IOException {
+    MappedByteBuffer current;
+    Object[] full = null;
+    synchronized(this) {
+      if(!open) {
+	return;
+      }
+      current = region;
+      if(unforced != null && !unforced.isEmpty()) {
+	full = unforced.toArray();
+	unforced.clear();
+      }
+    }
+    if(full != null) {
+      for(int i = 0; i < full.length; i++) {
+	((MappedByteBuffer) full[i]).force();
+      }
+    }
+    if(current != null) {
+      current.force();
+    }
+  }
+
+  public synchronized boolean isOpen() {
+    return open;
+  }
+
+  /**
+     Truncates the file to the bytes written and closes it.
+
+     @throws IOException if the file cannot be truncated or closed.  */
+  public synchronized void close() throws IOException {
+    if(!open) {
+      return;
+    }
+    open = false;
+    try {
+      if(unforced != null) {
+	unforced.clear();
+      }
+      if(region != null) {
+	long length = regionStart + region.position();
+	region = null;
+	channel.truncate(length);
+      }
+    } finally {
+      file.close();
+    }
+  }
+
+  /**
+     Returns the length of the file without its trailing zero bytes,
+     rounded up to a whole number of code units.  */
+  private long getContentLength(int unitSize) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocate(8192);
+    long end = channel.size();
+    while(end > 0) {
+      long start = Math.max(end - buf.capacity(), 0);
+      buf.clear();
+      buf.limit((int) (end - start));
+      while(buf.hasRemaining()
+	    && channel.read(buf, start + buf.position()) >= 0) {
+      }
+      for(int i = buf.position() - 1; i >= 0; i--) {
+	if(buf.get(i) != 0) {
+	  long length = start + i + 1;
+	  long partial = length % unitSize;
+	  return (partial == 0) ? length : length + unitSize - partial;
+	}
+      }
+      end = start;
+    }
+    return 0;
+  }
+
+  private void remap() throws IOException {
+    if(region != null) {
+      regionStart += region.position();
+      if(unforced != null) {
+	// forced by the next call to force, without the lock
+	unforced.add(region);
+      }
+      region = null;
+    }
+    region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart,
+			 regionSize);
+  }
+}
@@ -62,8 +62,15 @@ public abstract class PatternConverter {
    */
   public
   void format(StringBuffer sbuf, LoggingEvent e) {
-    String s = convert(e);
+    formatString(sbuf, convert(e));
+  }
+
+  /**
+     Appends a converted value with the padding and truncation of
+     this converter.
 
+     @since 1.2.18 */
+  void formatString(StringBuffer sbuf, String s) {
     if(s == null) {
       if(0 < min)
 	spacePad(sbuf, min);
@@ -92,20 +99,21 @@ public abstract class PatternConverter {
 			    "                ", // 16 spaces
 			    "                                " }; // 32 spaces
 
+  /** 32 spaces, appended in a single call. */
+  private static final char[] SPACE_CHARS = SPACES[5].toCharArray();
+
   /**
      Fast space padding method.
   */
   public
   void spacePad(StringBuffer sbuf, int length) {
     while(length >= 32) {
-      sbuf.append(SPACES[5]);
+      sbuf.append(SPACE_CHARS);
       length -= 32;
     }
-    
-    for(int i = 4; i >= 0; i--) {	
-      if((length & (1<<i)) != 0) {
-	sbuf.append(SPACES[i]);
-      }
+
+    if(length > 0) {
+      sbuf.append(SPACE_CHARS, 0, length);
     }
   }
 }
@@ -17,9 +17,12 @@
 package org.apache.log4j.helpers;
 
 import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
+import org.apache.log4j.pattern.NameAbbreviator;
 import org.apache.log4j.spi.LoggingEvent;
 import org.apache.log4j.spi.LocationInfo;
 import java.text.DateFormat;
+import java.text.FieldPosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Map;
@@ -82,7 +85,12 @@ public class PatternParser {
 
   private
   void  addToList(PatternConverter pc) {
-    if(head == null) {
+    if(tail instanceof LiteralPatternConverter
+       && pc instanceof LiteralPatternConverter) {
+      // adjacent literals are appended as one
+      ((LiteralPatternConverter) tail).literal +=
+	((LiteralPatternConverter) pc).literal;
+    } else if(head == null) {
       head = tail = pc;
     } else {
       tail.next = pc;
@@ -380,18 +388,61 @@ public class PatternParser {
   // ---------------------------------------------------------------------
 
   private static class BasicPatternConverter extends PatternConverter {
+    /** Levels whose padded or truncated names are computed once. */
+    private static final Level[] LEVELS = {
+      Level.INFO, Level.DEBUG, Level.WARN, Level.ERROR, Level.TRACE,
+      Level.FATAL, Level.ALL, Level.OFF };
+
     int type;
 
+    /** Formatted names of LEVELS when padded or truncated, else null. */
+    private String[] levels;
+
     BasicPatternConverter(FormattingInfo formattingInfo, int type) {
       super(formattingInfo);
       this.type = type;
+      if(type == LEVEL_CONVERTER && (min > 0 || max != 0x7FFFFFFF)) {
+	levels = new String[LEVELS.length];
+	StringBuffer buf = new StringBuffer();
+	for(int i = 0; i < LEVELS.length; i++) {
+	  buf.setLength(0);
+	  formatString(buf, LEVELS[i].toString());
+	  levels[i] = buf.toString();
+	}
+      }
+    }
+
+    public
+    void format(StringBuffer sbuf, LoggingEvent event) {
+      if(min <= 0 && max == 0x7FFFFFFF) {
+	// no padding or truncation, the value can be appended directly
+	if(type == RELATIVE_TIME_CONVERTER) {
+	  sbuf.append(event.getTimeStamp() - LoggingEvent.getStartTime());
+	} else {
+	  String s = convert(event);
+	  if(s != null) {
+	    sbuf.append(s);
+	  }
+	}
+      } else if(levels != null) {
+	Level level = event.getLevel();
+	for(int i = 0; i < LEVELS.length; i++) {
+	  if(level == LEVELS[i]) {
+	    sbuf.append(levels[i]);
+	    return;
+	  }
+	}
+	formatString(sbuf, level.toString());
+      } else {
+	super.format(sbuf, event);
+      }
     }
 
     public
     String convert(LoggingEvent event) {
       switch(type) {
       case RELATIVE_TIME_CONVERTER:
-	return (Long.toString(event.timeStamp - LoggingEvent.getStartTime()));
+	return (Long.toString(event.getTimeStamp() - LoggingEvent.getStartTime()));
       case THREAD_CONVERTER:
 	return event.getThreadName();
       case LEVEL_CONVERTER:
@@ -428,6 +479,7 @@ public class PatternParser {
   private static class DatePatternConverter extends PatternConverter {
     private DateFormat df;
     private Date date;
+    private FieldPosition pos = new FieldPosition(0);
 
     DatePatternConverter(FormattingInfo formattingInfo, DateFormat df) {
       super(formattingInfo);
@@ -435,9 +487,27 @@ public class PatternParser {
       this.df = df;
     }
 
+    public
+    void format(StringBuffer sbuf, LoggingEvent event) {
+      if(min > 0 || max != 0x7FFFFFFF) {
+	super.format(sbuf, event);
+	return;
+      }
+      // no padding or truncation, the date can be formatted in place
+      int start = sbuf.length();
+      date.setTime(event.getTimeStamp());
+      try {
+	df.format(date, sbuf, pos);
+      }
+      catch (Exception ex) {
+	sbuf.setLength(start);
+	LogLog.error("Error occured while converting date.", ex);
+      }
+    }
+
     public
     String convert(LoggingEvent event) {
-      date.setTime(event.timeStamp);
+      date.setTime(event.getTimeStamp());
       String converted = null;
       try {
         converted = df.format(date);
@@ -515,9 +585,18 @@ public class PatternParser {
   private static abstract class NamedPatternConverter extends PatternConverter {
     int precision;
 
+    // Keeps the last elements of the name and caches the result for
+    // recently used names, null if the name is not abbreviated.
+    private final NameAbbreviator abbreviator;
+
     NamedPatternConverter(FormattingInfo formattingInfo, int precision) {
       super(formattingInfo);
       this.precision =  precision;
+      if(precision > 0) {
+	abbreviator = NameAbbreviator.getAbbreviator(Integer.toString(precision));
+      } else {
+	abbreviator = null;
+      }
     }
 
     abstract
@@ -526,22 +605,10 @@ public class PatternParser {
     public
     String convert(LoggingEvent event) {
       String n = getFullyQualifiedName(event);
-      if(precision <= 0)
+      if(abbreviator == null)
 	return n;
-      else {
-	int len = n.length();
-
-	// We substract 1 from 'len' when assigning to 'end' to avoid out of
-	// bounds exception in return r.substring(end+1, len). This can happen if
-	// precision is 1 and the category name ends with a dot.
-	int end = len -1 ;
-	for(int i = precision; i > 0; i--) {
-	  end = n.lastIndexOf('.', end-1);
-	  if(end == -1)
-	    return n;
-	}
-	return n.substring(end+1, len);
-      }
+      else
+	return abbreviator.abbreviate(n);
     }
   }
 
@@ -17,6 +17,7 @@
 
 package org.apache.log4j.helpers;
 
+import java.io.IOException;
 import java.io.Writer;
 import java.io.FilterWriter;
 import org.apache.log4j.spi.ErrorHandler;
@@ -35,6 +36,16 @@ public class QuietWriter extends FilterWriter {
 
   protected ErrorHandler errorHandler;
 
+  /** Chunk size used to copy a StringBuffer to the writer. */
+  private static final int CHUNK_SIZE = 1024;
+
+  /** Reusable chunk, created on first use. */
+  private char[] chunk;
+
+  /** True if a subclass overrides {@link #write(String)} and not
+      {@link #write(StringBuffer)}, which then calls the former. */
+  final boolean writeStringOverridden = isWriteStringOverridden(getClass());
+
   public
   QuietWriter(Writer writer, ErrorHandler errorHandler) {
     super(writer);
@@ -53,6 +64,81 @@ public class QuietWriter extends FilterWriter {
     }
   }
 
+  /**
+     Writes a portion of an array of characters, reporting failures
+     to the error handler.
+
+     @since 1.2.18 */
+  public
+  void write(char[] cbuf, int off, int len) {
+    if (cbuf != null) {
+      try {
+        out.write(cbuf, off, len);
+      } catch(Exception e) {
+        errorHandler.error("Failed to write ["+new String(cbuf, off, len)+"].",
+                           e, ErrorCode.WRITE_FAILURE);
+      }
+    }
+  }
+
+  /**
+     Writes the content of a buffer, reporting failures to the error
+     handler. The characters are copied directly to an {@link
+     EncodingWriter}, and in chunks to any other writer, without
+     creating a String.
+
+     @since 1.2.18 */
+  public
+  void write(StringBuffer sbuf) {
+    if (writeStringOverridden) {
+      write(sbuf == null ? null : sbuf.toString());
+    } else if (sbuf != null) {
+      try {
+        writeBuffer(sbuf);
+      } catch(Exception e) {
+        errorHandler.error("Failed to write ["+sbuf+"].", e,
+                           ErrorCode.WRITE_FAILURE);
+      }
+    }
+  }
+
+  /**
+     Writes the content of a buffer to the underlying writer.
+
+     @since 1.2.18 */
+  protected
+  void writeBuffer(StringBuffer sbuf) throws IOException {
+    int len = sbuf.length();
+    if(out instanceof EncodingWriter) {
+      ((EncodingWriter) out).write(sbuf, 0, len);
+      return;
+    }
+    if(chunk == null) {
+      chunk = new char[CHUNK_SIZE];
+    }
+    for(int off = 0; off < len; off += CHUNK_SIZE) {
+      int n = Math.min(CHUNK_SIZE, len - off);
+      sbuf.getChars(off, off + n, chunk, 0);
+      out.write(chunk, 0, n);
+    }
+  }
+
+  private
+  static
+  boolean isWriteStringOverridden(Class clazz) {
+    try {
+      Class stringClass = clazz.getMethod("write",
+        new Class[] { String.class }).getDeclaringClass();
+      Class bufferClass = clazz.getMethod("write",
+        new Class[] { StringBuffer.class }).getDeclaringClass();
+      return stringClass != bufferClass
+	&& bufferClass.isAssignableFrom(stringClass);
+    } catch(Exception e) {
+      // NoSuchMethodException cannot happen, SecurityException can
+      return true;
+    }
+  }
+
   public
   void flush() {
     try {
@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.helpers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.spi.LoggingEvent;
+
+
+/**
+ * Pre-allocated, bounded ring of logging events written by any number of
+ * threads and read by a single consumer thread.
+ * <p>
+ * Producers claim a slot by advancing a sequence counter with a
+ * compare-and-set, store their event and then publish the slot by
+ * recording its sequence number. None of this takes a monitor. The
+ * consumer drains published slots in order and releases them by
+ * advancing its own sequence counter.
+ * </p>
+ * <p>
+ * How the consumer waits for events is decided by the wait strategy:
+ * {@link #BLOCK} waits on a monitor which producers only touch when the
+ * consumer is actually waiting, {@link #PARK} parks the consumer thread,
+ * {@link #YIELD} and {@link #SPIN} poll with and without yielding the
+ * processor.
+ * </p>
+ * <p>
+ * This class relies on <code>java.util.concurrent</code> and therefore
+ * requires a JRE 1.5 or later.
+ * </p>
+ *
+ * @since 1.2.18
+ */
+public final class RingBuffer {
+  /**
+   * Consumer waits on a monitor until signalled by a producer.
+   */
+  public static final int BLOCK = 0;
+
+  /**
+   * Consumer parks its thread until unparked by a producer.
+   */
+  public static final int PARK = 1;
+
+  /**
+   * Consumer polls, yielding the processor between attempts.
+   */
+  public static final int YIELD = 2;
+
+  /**
+   * Consumer polls without ever giving up the processor.
+   */
+  public static final int SPIN = 3;
+
+  /**
+   * Longest time the consumer parks before checking again, in
+   * nanoseconds. Only a safety net, producers unpark the consumer.
+   */
+  private static final long PARK_NANOS = 10000000L;
+
+  /**
+   * Event slots.
+   */
+  private final LoggingEvent[] entries;
+
+  /**
+   * Sequence number last published in each slot, -1 if none.
+   */
+  private final AtomicLongArray published;
+
+  /**
+   * Mask giving the slot of a sequence number.
+   */
+  private final int mask;
+
+  /**
+   * Wait strategy, one of BLOCK, PARK, YIELD or SPIN.
+   */
+  private final int waitStrategy;
+
+  /**
+   * Next sequence number to be claimed by a producer.
+   */
+  private final AtomicLong claimed = new AtomicLong(0);
+
+  /**
+   * Next sequence number to be read by the consumer.
+   */
+  private volatile long consumed = 0;
+
+  /**
+   * Set while the consumer waits for events.
+   */
+  private volatile boolean consumerWaiting = false;
+
+  /**
+   * Thread of the consumer, set when it first waits.
+   */
+  private volatile Thread consumer;
+
+  /**
+   * Set once the ring has been halted.
+   */
+  private volatile boolean halted = false;
+
+  /**
+   * Monitor used by the BLOCK strategy.
+   */
+  private final Object lock = new Object();
+
+  /**
+   * Create new instance.
+   *
+   * @param size minimum number of slots, rounded up to a power of two.
+   * @param waitStrategy one of BLOCK, PARK, YIELD or SPIN.
+   */
+  public RingBuffer(final int size, final int waitStrategy) {
+    if (size < 1) {
+      throw new IllegalArgumentException(
+        "The size argument (" + size + ") is not a positive integer.");
+    }
+    if (waitStrategy < BLOCK || waitStrategy > SPIN) {
+      throw new IllegalArgumentException(
+        "Unknown wait strategy (" + waitStrategy + ").");
+    }
+
+    int capacity = 1;
+    while (capacity < size) {
+      capacity <<= 1;
+    }
+
+    entries = new LoggingEvent[capacity];
+    published = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      published.set(i, -1);
+    }
+    mask = capacity - 1;
+    this.waitStrategy = waitStrategy;
+  }
+
+  /**
+   * Convert the name of a wait strategy, case insensitive, to its value.
+   *
+   * @param value name, may be null.
+   * @param defaultValue value returned if name is not recognized.
+   * @return wait strategy.
+   */
+  public static int toWaitStrategy(final String value, final int defaultValue) {
+    if (value == null) {
+      return defaultValue;
+    }
+    String s = value.trim();
+    if ("block".equalsIgnoreCase(s)) {
+      return BLOCK;
+    }
+    if ("park".equalsIgnoreCase(s)) {
+      return PARK;
+    }
+    if ("yield".equalsIgnoreCase(s)) {
+      return YIELD;
+    }
+    if ("spin".equalsIgnoreCase(s)) {
+      return SPIN;
+    }
+    return defaultValue;
+  }
+
+  /**
+   * Get number of slots.
+   *
+   * @return capacity.
+   */
+  public int getCapacity() {
+    return entries.length;
+  }
+
+  /**
+   * Add an event if a slot is free. Never blocks.
+   *
+   * @param event event, may not be null.
+   * @return true if the event was added, false if the ring is full.
+   */
+  public boolean offer(final LoggingEvent event) {
+    long seq;
+    do {
+      seq = claimed.get();
+      if (seq - consumed >= entries.length) {
+        return false;
+      }
+    } while (!claimed.compareAndSet(seq, seq + 1));
+
+    int index = (int) seq & mask;
+    entries[index] = event;
+    published.set(index, seq);
+
+    if (consumerWaiting) {
+      wakeConsumer();
+    }
+    return true;
+  }
+
+  /**
+   * Wait a short while for slots to be released. Used by producers
+   * which found the ring full.
+   */
+  public void waitForSpace() {
+    if (waitStrategy == SPIN) {
+      return;
+    }
+    if (waitStrategy == YIELD) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(1000L);
+    }
+  }
+
+  /**
+   * Move published events to <code>dest</code> in order and release
+   * their slots. Must only be called by the consumer thread.
+   *
+   * @param dest destination, may not be null.
+   * @return number of events moved.
+   */
+  public int drainTo(final LoggingEvent[] dest) {
+    long next = consumed;
+    int count = 0;
+    while (count < dest.length) {
+      int index = (int) next & mask;
+      if (published.get(index) != next) {
+        break;
+      }
+      dest[count++] = entries[index];
+      entries[index] = null;
+      next++;
+    }
+    if (count > 0) {
+      consumed = next;
+    }
+    return count;
+  }
+
+  /**
+   * Determine whether the next event to be read has been published.
+   *
+   * @return true if an event is available.
+   */
+  public boolean isEmpty() {
+    long next = consumed;
+    return published.get((int) next & mask) != next;
+  }
+
+  /**
+   * Wait according to the wait strategy until an event may be available
+   * or the ring is halted. Must only be called by the consumer thread,
+   * callers should check for events again on return.
+   *
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  public void waitForEvents() throws InterruptedException {
+    switch (waitStrategy) {
+    case BLOCK:
+      synchronized (lock) {
+        consumerWaiting = true;
+        try {
+          while (isEmpty() && !halted) {
+            lock.wait();
+          }
+        } finally {
+          consumerWaiting = false;
+        }
+      }
+      break;
+
+    case PARK:
+      consumer = Thread.currentThread();
+      consumerWaiting = true;
+      if (isEmpty() && !halted) {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+      consumerWaiting = false;
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      break;
+
+    case YIELD:
+      Thread.yield();
+      break;
+
+    default:
+      break;
+    }
+  }
+
+  /**
+   * Halt the ring and wake the consumer so that it can drain the
+   * remaining events and stop.
+   */
+  public void halt() {
+    halted = true;
+    wakeConsumer();
+  }
+
+  /**
+   * Determine whether the ring has been halted.
+   *
+   * @return true if halted.
+   */
+  public boolean isHalted() {
+    return halted;
+  }
+
+  /**
+   * Wake the consumer if it is blocked or parked.
+   */
+  private void wakeConsumer() {
+    if (waitStrategy == BLOCK) {
+      synchronized (lock) {
+        lock.notifyAll();
+      }
+    } else if (waitStrategy == PARK) {
+      Thread t = consumer;
+      if (t != null) {
+        LockSupport.unpark(t);
+      }
+    }
+  }
+}
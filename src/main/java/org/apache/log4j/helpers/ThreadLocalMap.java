@@ -17,12 +17,11 @@
 
 package org.apache.log4j.helpers;
 
-import java.util.Hashtable;
-
 /**
    <code>ThreadLocalMap</code> extends {@link InheritableThreadLocal}
-   to bequeath a copy of the hashtable of the MDC of the parent
-   thread.
+   to bequeath the hashtable of the MDC of the parent thread. Since
+   1.2.18 the hashtable is shared rather than copied, as the MDC
+   replaces it instead of modifying it.
 
    @author Ceki G&uuml;lc&uuml;
    @since 1.2
@@ -32,11 +31,8 @@ final public class ThreadLocalMap extends InheritableThreadLocal {
   public
   final
   Object childValue(Object parentValue) {
-    Hashtable ht = (Hashtable) parentValue;
-    if(ht != null) {
-      return ht.clone();
-    } else {
-      return null;
-    }
+    // the MDC never modifies a table once it has been set, so the
+    // child can share it with its parent
+    return parentValue;
   }
 }
@@ -24,8 +24,10 @@ import java.util.ArrayList;
 import java.util.Iterator;
 
 import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.BatchAppender;
 import org.apache.log4j.spi.ErrorCode;
 import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.ReusableLoggingEvent;
 
 
 /**
@@ -76,7 +78,7 @@ import org.apache.log4j.spi.LoggingEvent;
 
 */
 public class JDBCAppender extends org.apache.log4j.AppenderSkeleton
-    implements org.apache.log4j.Appender {
+    implements org.apache.log4j.Appender, BatchAppender {
 
   /**
    * URL of the DB for default connection handling
@@ -171,6 +173,32 @@ public class JDBCAppender extends org.apache.log4j.AppenderSkeleton
    * Adds the event to the buffer.  When full the buffer is flushed.
    */
   public void append(LoggingEvent event) {
+    addToBuffer(event);
+
+    if (buffer.size() >= bufferSize)
+      flushBuffer();
+  }
+
+  /**
+   * Adds the events to the buffer and flushes it once if it became
+   * full, rather than after each event.
+   *
+   * @since 1.2.18
+   */
+  protected void append(LoggingEvent[] events, int count) {
+    for (int i = 0; i < count; i++) {
+      addToBuffer(events[i]);
+    }
+
+    if (buffer.size() >= bufferSize)
+      flushBuffer();
+  }
+
+  /**
+   * Snapshot the thread dependent values of the event and add it
+   * to the buffer.
+   */
+  private void addToBuffer(LoggingEvent event) {
     event.getNDC();
     event.getThreadName();
     // Get a copy of this thread's MDC.
@@ -180,10 +208,10 @@ public class JDBCAppender extends org.apache.log4j.AppenderSkeleton
     }
     event.getRenderedMessage();
     event.getThrowableStrRep();
+    if(event instanceof ReusableLoggingEvent) {
+      event = ((ReusableLoggingEvent) event).copy();
+    }
     buffer.add(event);
-
-    if (buffer.size() >= bufferSize)
-      flushBuffer();
   }
 
   /**
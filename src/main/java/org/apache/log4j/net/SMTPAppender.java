@@ -25,6 +25,7 @@ import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.helpers.OptionConverter;
 import org.apache.log4j.spi.ErrorCode;
 import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.ReusableLoggingEvent;
 import org.apache.log4j.spi.OptionHandler;
 import org.apache.log4j.spi.TriggeringEventEvaluator;
 import org.apache.log4j.xml.UnrecognizedElementHandler;
@@ -251,6 +252,9 @@ public class SMTPAppender extends AppenderSkeleton
     }
     event.getRenderedMessage();
     event.getThrowableStrRep();
+    if(event instanceof ReusableLoggingEvent) {
+      event = ((ReusableLoggingEvent) event).copy();
+    }
     cb.add(event);
     if(evaluator.isTriggeringEvent(event)) {
       sendBuffer();
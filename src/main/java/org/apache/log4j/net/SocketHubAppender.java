@@ -30,6 +30,7 @@ import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.helpers.CyclicBuffer;
 import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.ReusableLoggingEvent;
 
 /**
   Sends {@link LoggingEvent} objects to a set of remote log servers,
@@ -216,6 +217,9 @@ public class SocketHubAppender extends AppenderSkeleton {
         event.getThrowableStrRep();
         
       if (buffer != null) {
+        if (event instanceof ReusableLoggingEvent) {
+          event = ((ReusableLoggingEvent) event).copy();
+        }
         buffer.add(event);
       }
     }
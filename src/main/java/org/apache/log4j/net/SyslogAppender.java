@@ -312,7 +312,7 @@ public class SyslogAppender extends AppenderSkeleton {
         layoutHeaderChecked = true;
     }
 
-    String hdr = getPacketHeader(event.timeStamp);
+    String hdr = getPacketHeader(event.getTimeStamp());
     String packet;
     if (layout == null) {
         packet = String.valueOf(event.getMessage());
@@ -21,7 +21,9 @@ import org.apache.log4j.spi.RendererSupport;
 import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.helpers.Loader;
 import org.apache.log4j.helpers.OptionConverter;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Map;
 
 /**
    Map class objects to an {@link ObjectRenderer}.
@@ -34,6 +36,28 @@ public class RendererMap {
 
   static ObjectRenderer defaultRenderer = new DefaultRenderer();
 
+  /**
+     Maximum number of classes in the resolved renderer cache.
+     @since 1.2.18 */
+  private static final int MAX_RESOLVED = 256;
+
+  /**
+     Renderer resolved by {@link #get(Class)} for each class, including
+     the default renderer when no renderer was found. Only classes
+     loaded by the class loader of log4j or one of its ancestors are
+     kept, so that the cache does not keep other class loaders, such as
+     those of undeployed web applications, from being collected. The
+     map is never modified once published so that it can be read
+     without locking.
+     @since 1.2.18 */
+  volatile Map resolved = new HashMap();
+
+  /**
+     Incremented on every change to the configured renderers so that
+     a lookup racing with a change does not publish a stale renderer.
+     @since 1.2.18 */
+  private int generation;
+
   public
   RendererMap() {
     map = new Hashtable();
@@ -141,10 +165,81 @@ public class RendererMap {
      algorithm. However, the present algorithm should be acceptable in
      the vast majority of circumstances.
 
+     <p>The result of the search is cached per class until a renderer
+     is added or the map is cleared. Classes of class loaders which
+     are not the class loader of log4j or one of its ancestors are
+     searched on every call.
+
  */
   public
   ObjectRenderer get(Class clazz) {
-    //System.out.println("\nget: "+clazz);
+    ObjectRenderer r = (ObjectRenderer) resolved.get(clazz);
+    if(r == null) {
+      int expected;
+      synchronized(this) {
+	expected = generation;
+      }
+      r = search(clazz);
+      cache(clazz, r, expected);
+    }
+    return r;
+  }
+
+  /**
+     Add a resolved renderer to the cache unless the configured
+     renderers changed since the search started, the cache is full or
+     the class may be unloaded before log4j.
+     @since 1.2.18 */
+  private
+  synchronized
+  void cache(Class clazz, ObjectRenderer r, int expected) {
+    if(expected == generation && resolved.size() < MAX_RESOLVED
+       && isCacheable(clazz)) {
+      Map copy = new HashMap(resolved);
+      copy.put(clazz, r);
+      resolved = copy;
+    }
+  }
+
+  /**
+     Returns true if <code>clazz</code> was loaded by the class loader
+     of this class or one of its ancestors.
+     @since 1.2.18 */
+  private
+  static
+  boolean isCacheable(Class clazz) {
+    ClassLoader loader = clazz.getClassLoader();
+    if(loader == null) {
+      return true;
+    }
+    try {
+      for(ClassLoader l = RendererMap.class.getClassLoader(); l != null;
+	  l = l.getParent()) {
+	if(l == loader) {
+	  return true;
+	}
+      }
+    } catch(SecurityException e) {
+      // the ancestors cannot be inspected
+    }
+    return false;
+  }
+
+  /**
+     Discard the resolved renderers after a change.
+     @since 1.2.18 */
+  private
+  synchronized
+  void invalidate() {
+    generation++;
+    resolved = new HashMap();
+  }
+
+  /**
+     Search the configured renderers for <code>clazz</code>.
+     @since 1.2.18 */
+  private
+  ObjectRenderer search(Class clazz) {
     ObjectRenderer r = null;
     for(Class c = clazz; c != null; c = c.getSuperclass()) {
       //System.out.println("Searching for class: "+c);
@@ -186,6 +281,7 @@ public class RendererMap {
   public
   void clear() {
     map.clear();
+    invalidate();
   }
 
   /**
@@ -194,5 +290,6 @@ public class RendererMap {
   public
   void put(Class clazz, ObjectRenderer or) {
     map.put(clazz, or);
+    invalidate();
   }
 }
@@ -19,11 +19,6 @@ package org.apache.log4j.pattern;
 
 import org.apache.log4j.spi.LoggingEvent;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-
 
 /**
  * The class implements the pre log4j 1.3 org.apache.log4j.helpers.PatternConverter
@@ -36,19 +31,9 @@ import java.util.Map;
 public final class BridgePatternConverter
   extends org.apache.log4j.helpers.PatternConverter {
   /**
-   * Pattern converters.
-   */
-  private LoggingEventPatternConverter[] patternConverters;
-
-  /**
-   * Field widths and alignment corresponding to pattern converters.
+   * Compiled pattern, shared with other converters of the same pattern.
    */
-  private FormattingInfo[] patternFields;
-
-  /**
-   * Does pattern process exceptions.
-   */
-  private boolean handlesExceptions;
+  private final CompiledPattern compiled;
 
   /**
    * Create a new instance.
@@ -57,42 +42,7 @@ public final class BridgePatternConverter
   public BridgePatternConverter(
     final String pattern) {
     next = null;
-    handlesExceptions = false;
-
-    List converters = new ArrayList();
-    List fields = new ArrayList();
-    Map converterRegistry = null;
-
-    PatternParser.parse(
-      pattern, converters, fields, converterRegistry,
-      PatternParser.getPatternLayoutRules());
-
-    patternConverters = new LoggingEventPatternConverter[converters.size()];
-    patternFields = new FormattingInfo[converters.size()];
-
-    int i = 0;
-    Iterator converterIter = converters.iterator();
-    Iterator fieldIter = fields.iterator();
-
-    while (converterIter.hasNext()) {
-      Object converter = converterIter.next();
-
-      if (converter instanceof LoggingEventPatternConverter) {
-        patternConverters[i] = (LoggingEventPatternConverter) converter;
-        handlesExceptions |= patternConverters[i].handlesThrowable();
-      } else {
-        patternConverters[i] =
-          new org.apache.log4j.pattern.LiteralPatternConverter("");
-      }
-
-      if (fieldIter.hasNext()) {
-        patternFields[i] = (FormattingInfo) fieldIter.next();
-      } else {
-        patternFields[i] = FormattingInfo.getDefault();
-      }
-
-      i++;
-    }
+    compiled = CompiledPattern.getInstance(pattern);
   }
 
   /**
@@ -114,11 +64,7 @@ public final class BridgePatternConverter
      @param e event to format, may not be null.
    */
   public void format(final StringBuffer sbuf, final LoggingEvent e) {
-    for (int i = 0; i < patternConverters.length; i++) {
-      int startField = sbuf.length();
-      patternConverters[i].format(e, sbuf);
-      patternFields[i].format(startField, sbuf);
-    }
+    compiled.format(sbuf, e);
   }
 
   /**
@@ -127,6 +73,6 @@ public final class BridgePatternConverter
    * @return true if the pattern formats any information from exceptions.
    */
   public boolean ignoresThrowable() {
-    return !handlesExceptions;
+    return !compiled.handlesExceptions();
   }
 }
@@ -17,6 +17,8 @@
 
 package org.apache.log4j.pattern;
 
+import org.apache.log4j.helpers.FormattedSecond;
+
 import java.text.DateFormat;
 import java.text.FieldPosition;
 import java.text.NumberFormat;
@@ -27,11 +29,15 @@ import java.util.TimeZone;
 
 /**
  * CachedDateFormat optimizes the performance of a wrapped
- * DateFormat.  The implementation is not thread-safe.
- * If the millisecond pattern is not recognized,
+ * DateFormat.  If the millisecond pattern is not recognized,
  * the class will only use the cache if the
  * same value is requested.
  *
+ * <p>The implementation is thread-safe.  The cached value is immutable
+ * and published through a volatile field, threads formatting a
+ * cached second never wait.  The wrapped DateFormat is only
+ * locked while the cache is rebuilt.
+ *
  */
 public final class CachedDateFormat extends DateFormat {
   /**
@@ -91,18 +97,14 @@ public final class CachedDateFormat extends DateFormat {
   /**
    *  Index of initial digit of millisecond pattern or
    *   UNRECOGNIZED_MILLISECONDS or NO_MILLISECONDS.
+   *   Only modified while formatter is locked.
    */
-  private int millisecondStart;
-
-  /**
-   *  Integral second preceding the previous convered Date.
-   */
-  private long slotBegin;
+  private volatile int millisecondStart;
 
   /**
-   *  Cache of previous conversion.
+   *  Cache of previous conversion, null if the cache is invalid.
    */
-  private StringBuffer cache = new StringBuffer(50);
+  private volatile FormattedSecond cache;
 
   /**
    *  Maximum validity period for the cache.
@@ -111,16 +113,6 @@ public final class CachedDateFormat extends DateFormat {
    */
   private final int expiration;
 
-  /**
-   *  Date requested in previous conversion.
-   */
-  private long previousTime;
-
-  /**
-   *   Scratch date object used to minimize date object creation.
-   */
-  private final Date tmpDate = new Date(0);
-
   /**
    *  Creates a new CachedDateFormat object.
    *  @param dateFormat Date format, may not be null.
@@ -141,12 +133,7 @@ public final class CachedDateFormat extends DateFormat {
     formatter = dateFormat;
     this.expiration = expiration;
     millisecondStart = 0;
-
-    //
-    //   set the previousTime so the cache will be invalid
-    //        for the next request.
-    previousTime = Long.MIN_VALUE;
-    slotBegin = Long.MIN_VALUE;
+    cache = null;
   }
 
   /**
@@ -239,66 +226,59 @@ public final class CachedDateFormat extends DateFormat {
    * @return the formatted time string.
    */
   public StringBuffer format(long now, StringBuffer buf) {
-    //
-    // If the current requested time is identical to the previously
-    //     requested time, then append the cache contents.
-    //
-    if (now == previousTime) {
-      buf.append(cache);
+    FormattedSecond cached = cache;
 
-      return buf;
+    if ((cached == null) || !cached.contains(now)) {
+      cached = rebuild(now);
     }
 
-    //
-    //   If millisecond pattern was not unrecognized 
-    //     (that is if it was found or milliseconds did not appear)   
-    //    
-    if (millisecondStart != UNRECOGNIZED_MILLISECONDS &&
-      //    Check if the cache is still valid.
-      //    If the requested time is within the same integral second
-      //       as the last request and a shorter expiration was not requested.
-        (now < (slotBegin + expiration)) && (now >= slotBegin)
-          && (now < (slotBegin + 1000L))) {
-        // 
-        //    if there was a millisecond field then update it
-        //
-        if (millisecondStart >= 0) {
-          millisecondFormat((int) (now - slotBegin), cache, millisecondStart);
-        }
+    cached.format(now, buf);
 
-        //
-        //   update the previously requested time
-        //      (the slot begin should be unchanged)
-        previousTime = now;
-        buf.append(cache);
+    return buf;
+  }
 
-        return buf;
-    }
+  /**
+   * Formats a time with the wrapped formatter and publishes the result
+   * as the new cache.
+   * @param now Number of milliseconds after midnight 1 Jan 1970 GMT.
+   * @return new cache.
+   */
+  private FormattedSecond rebuild(final long now) {
+    FormattedSecond cached;
+
+    synchronized (formatter) {
+      String formatted = formatter.format(new Date(now));
+      long slotBegin = FormattedSecond.startOfSecond(now);
+
+      //
+      //    if the milliseconds field was previous found
+      //       then reevaluate in case it moved.
+      //
+      int start = millisecondStart;
+
+      if (start >= 0) {
+        start = findMillisecondStart(now, formatted, formatter);
+        millisecondStart = start;
+      }
 
-    //
-    //  could not use previous value.  
-    //    Call underlying formatter to format date.
-    cache.setLength(0);
-    tmpDate.setTime(now);
-    cache.append(formatter.format(tmpDate));
-    buf.append(cache);
-    previousTime = now;
-    slotBegin = (previousTime / 1000) * 1000;
-
-    if (slotBegin > previousTime) {
-      slotBegin -= 1000;
-    }
+      if ((start == UNRECOGNIZED_MILLISECONDS) || (expiration <= 1)) {
+        //  only duplicate requests may use the cache
+        cached = new FormattedSecond(now, now + 1, formatted, -1);
+      } else {
+        long slotEnd = slotBegin + Math.min(expiration, 1000);
+
+        if (now >= slotEnd) {
+          cached = new FormattedSecond(now, now + 1, formatted, -1);
+        } else {
+          cached = new FormattedSecond(
+            slotBegin, slotEnd, formatted, (start >= 0) ? start : -1);
+        }
+      }
 
-    //
-    //    if the milliseconds field was previous found
-    //       then reevaluate in case it moved.
-    //
-    if (millisecondStart >= 0) {
-      millisecondStart =
-        findMillisecondStart(now, cache.toString(), formatter);
+      cache = cached;
     }
 
-    return buf;
+    return cached;
   }
 
   /**
@@ -323,9 +303,10 @@ public final class CachedDateFormat extends DateFormat {
    * @param timeZone TimeZone new timezone
    */
   public void setTimeZone(final TimeZone timeZone) {
-    formatter.setTimeZone(timeZone);
-    previousTime = Long.MIN_VALUE;
-    slotBegin = Long.MIN_VALUE;
+    synchronized (formatter) {
+      formatter.setTimeZone(timeZone);
+      cache = null;
+    }
   }
 
   /**
@@ -336,7 +317,9 @@ public final class CachedDateFormat extends DateFormat {
    * @return parsed date, likely null.
    */
   public Date parse(String s, ParsePosition pos) {
-    return formatter.parse(s, pos);
+    synchronized (formatter) {
+      return formatter.parse(s, pos);
+    }
   }
 
   /**
@@ -52,15 +52,12 @@ public final class ClassNamePatternConverter extends NamePatternConverter {
    * @param toAppendTo string buffer to which class name will be appended.
    */
   public void format(final LoggingEvent event, final StringBuffer toAppendTo) {
-    final int initialLength = toAppendTo.length();
     LocationInfo li = event.getLocationInformation();
 
     if (li == null) {
-      toAppendTo.append(LocationInfo.NA);
+      toAppendTo.append(abbreviate(LocationInfo.NA));
     } else {
-      toAppendTo.append(li.getClassName());
+      toAppendTo.append(abbreviate(li.getClassName()));
     }
-
-    abbreviate(initialLength, toAppendTo);
   }
 }
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.pattern;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * Converters and field formatting of a conversion pattern, prepared
+ * so that formatting an event does as little work as possible.
+ *
+ * <p>Adjacent literals and line separators are fused into a single
+ * literal, fields without width constraints are not adjusted and
+ * padded levels are formatted ahead of time.  Pattern converters are
+ * thread-safe, compiled patterns are immutable and are shared by
+ * layouts using the same pattern, as long as the pattern stays in the
+ * cache.
+ *
+ * @since 1.2.18
+ */
+final class CompiledPattern {
+  /**
+   * Number of slots of the pattern cache, a power of two.
+   */
+  private static final int CACHE_SIZE = 256;
+
+  /**
+   * Compiled patterns, in the slot given by the hash of their pattern.
+   * A pattern replaces the one cached in its slot.
+   */
+  private static final CompiledPattern[] cache =
+    new CompiledPattern[CACHE_SIZE];
+
+  /**
+   * Pattern.
+   */
+  private final String pattern;
+
+  /**
+   * Pattern converters.
+   */
+  private final LoggingEventPatternConverter[] converters;
+
+  /**
+   * Field widths and alignment corresponding to pattern converters,
+   * null for fields which are never adjusted.
+   */
+  private final FormattingInfo[] fields;
+
+  /**
+   * Does pattern process exceptions.
+   */
+  private final boolean handlesExceptions;
+
+  /**
+   * Create new instance.
+   * @param pattern pattern.
+   * @param converters converters.
+   * @param fields fields, elements may be null.
+   */
+  private CompiledPattern(
+    final String pattern,
+    final LoggingEventPatternConverter[] converters,
+    final FormattingInfo[] fields) {
+    this.pattern = pattern;
+    this.converters = converters;
+    this.fields = fields;
+
+    boolean handles = false;
+
+    for (int i = 0; i < converters.length; i++) {
+      handles |= converters[i].handlesThrowable();
+    }
+
+    handlesExceptions = handles;
+  }
+
+  /**
+   * Get the compiled form of a pattern.
+   * @param pattern pattern, may not be null.
+   * @return compiled pattern.
+   */
+  static CompiledPattern getInstance(final String pattern) {
+    int hash = pattern.hashCode();
+    int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    CompiledPattern compiled = cache[slot];
+
+    if ((compiled == null) || !compiled.pattern.equals(pattern)) {
+      compiled = compile(pattern);
+      cache[slot] = compiled;
+    }
+
+    return compiled;
+  }
+
+  /**
+   * Parse and compile a pattern.
+   * @param pattern pattern, may not be null.
+   * @return compiled pattern.
+   */
+  private static CompiledPattern compile(final String pattern) {
+    List converters = new ArrayList();
+    List fields = new ArrayList();
+
+    PatternParser.parse(
+      pattern, converters, fields, null,
+      PatternParser.getPatternLayoutRules());
+
+    List compiledConverters = new ArrayList();
+    List compiledFields = new ArrayList();
+    StringBuffer literal = new StringBuffer();
+    Iterator fieldIter = fields.iterator();
+
+    for (Iterator iter = converters.iterator(); iter.hasNext();) {
+      Object converter = iter.next();
+      FormattingInfo field;
+
+      if (fieldIter.hasNext()) {
+        field = (FormattingInfo) fieldIter.next();
+      } else {
+        field = FormattingInfo.getDefault();
+      }
+
+      if (!(converter instanceof LoggingEventPatternConverter)) {
+        continue;
+      }
+
+      boolean unconstrained =
+        (field.getMinLength() <= 0)
+        && (field.getMaxLength() == Integer.MAX_VALUE);
+
+      if (unconstrained
+          && (converter instanceof LiteralPatternConverter
+            || converter instanceof LineSeparatorPatternConverter)) {
+        ((PatternConverter) converter).format((Object) null, literal);
+        continue;
+      }
+
+      if (literal.length() > 0) {
+        compiledConverters.add(new LiteralPatternConverter(literal.toString()));
+        compiledFields.add(null);
+        literal.setLength(0);
+      }
+
+      if (converter instanceof LevelPatternConverter && !unconstrained) {
+        compiledConverters.add(new PaddedLevelPatternConverter(field));
+        compiledFields.add(null);
+      } else {
+        compiledConverters.add(converter);
+        compiledFields.add(unconstrained ? null : field);
+      }
+    }
+
+    if (literal.length() > 0) {
+      compiledConverters.add(new LiteralPatternConverter(literal.toString()));
+      compiledFields.add(null);
+    }
+
+    LoggingEventPatternConverter[] converterArray =
+      new LoggingEventPatternConverter[compiledConverters.size()];
+    compiledConverters.toArray(converterArray);
+
+    FormattingInfo[] fieldArray = new FormattingInfo[compiledFields.size()];
+    compiledFields.toArray(fieldArray);
+
+    return new CompiledPattern(pattern, converterArray, fieldArray);
+  }
+
+  /**
+   * Format event to string buffer.
+   * @param sbuf string buffer to receive formatted event, may not be null.
+   * @param e event to format, may not be null.
+   */
+  void format(final StringBuffer sbuf, final LoggingEvent e) {
+    // holding the lock lets the compiler elide the locks
+    // taken by each append to the buffer
+    synchronized (sbuf) {
+      for (int i = 0; i < converters.length; i++) {
+        FormattingInfo field = fields[i];
+
+        if (field == null) {
+          converters[i].format(e, sbuf);
+        } else {
+          int startField = sbuf.length();
+          converters[i].format(e, sbuf);
+          field.format(startField, sbuf);
+        }
+      }
+    }
+  }
+
+  /**
+   * Determine if any converter handles exceptions.
+   * @return true if the pattern formats any information from exceptions.
+   */
+  boolean handlesExceptions() {
+    return handlesExceptions;
+  }
+
+  /**
+   * Formats the level of the event with padding or truncation which is
+   * applied ahead of time to the standard levels.
+   */
+  private static final class PaddedLevelPatternConverter
+    extends LoggingEventPatternConverter {
+    /**
+     * Standard levels.
+     */
+    private static final Level[] LEVELS =
+      new Level[] {
+        Level.INFO, Level.DEBUG, Level.WARN, Level.ERROR, Level.TRACE,
+        Level.FATAL, Level.ALL, Level.OFF
+      };
+
+    /**
+     * Padded or truncated names of standard levels.
+     */
+    private final String[] formatted;
+
+    /**
+     * Field width and alignment.
+     */
+    private final FormattingInfo field;
+
+    /**
+     * Create new instance.
+     * @param field field width and alignment.
+     */
+    PaddedLevelPatternConverter(final FormattingInfo field) {
+      super("Level", "level");
+      this.field = field;
+      formatted = new String[LEVELS.length];
+
+      StringBuffer buf = new StringBuffer();
+
+      for (int i = 0; i < LEVELS.length; i++) {
+        buf.setLength(0);
+        buf.append(LEVELS[i].toString());
+        field.format(0, buf);
+        formatted[i] = buf.toString();
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void format(final LoggingEvent event, final StringBuffer output) {
+      Level level = event.getLevel();
+
+      for (int i = 0; i < LEVELS.length; i++) {
+        if (level == LEVELS[i]) {
+          output.append(formatted[i]);
+
+          return;
+        }
+      }
+
+      int startField = output.length();
+      output.append(level.toString());
+      field.format(startField, output);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getStyleClass(final Object e) {
+      return LevelPatternConverter.newInstance(null).getStyleClass(e);
+    }
+  }
+}
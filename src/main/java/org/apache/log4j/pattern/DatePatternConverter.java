@@ -176,9 +176,7 @@ public final class DatePatternConverter extends LoggingEventPatternConverter {
    * {@inheritDoc}
    */
   public void format(final LoggingEvent event, final StringBuffer output) {
-    synchronized(this) {
-    	df.format(event.timeStamp, output);
-    }
+    df.format(event.getTimeStamp(), output);
   }
 
   /**
@@ -198,8 +196,6 @@ public final class DatePatternConverter extends LoggingEventPatternConverter {
    * @param toAppendTo buffer to which formatted date is appended.
    */
   public void format(final Date date, final StringBuffer toAppendTo) {
-    synchronized(this) {
-    	df.format(date.getTime(), toAppendTo);
-    }
+    df.format(date.getTime(), toAppendTo);
   }
 }
@@ -33,7 +33,11 @@ public final class FormattingInfo {
    *  Array of spaces.
    */
   private static final char[] SPACES =
-    new char[] { ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ' };
+    new char[] {
+      ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ',
+      ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ', ' ',
+      ' ', ' '
+    };
 
   /**
    * Default instance.
@@ -113,17 +117,16 @@ public final class FormattingInfo {
     if (rawLength > maxLength) {
       buffer.delete(fieldStart, buffer.length() - maxLength);
     } else if (rawLength < minLength) {
-      if (leftAlign) {
-        final int fieldEnd = buffer.length();
-        buffer.setLength(fieldStart + minLength);
+      int padLength = minLength - rawLength;
 
-        for (int i = fieldEnd; i < buffer.length(); i++) {
-          buffer.setCharAt(i, ' ');
+      if (leftAlign) {
+        for (; padLength > SPACES.length; padLength -= SPACES.length) {
+          buffer.append(SPACES);
         }
-      } else {
-        int padLength = minLength - rawLength;
 
-        for (; padLength > 8; padLength -= 8) {
+        buffer.append(SPACES, 0, padLength);
+      } else {
+        for (; padLength > SPACES.length; padLength -= SPACES.length) {
           buffer.insert(fieldStart, SPACES);
         }
 
@@ -114,6 +114,10 @@ public class LogEvent implements java.io.Serializable {
    *  serialized. See also the getMDC and getMDCCopy methods.  */
   private boolean mdcCopyLookupRequired = true;
 
+  /** Is mdcCopy shared with the MDC or with another event? If so, it
+   *  is copied before being modified. */
+  private transient boolean mdcCopyShared = false;
+
   /** The application supplied message of logging event. */
   transient private Object message;
 
@@ -249,7 +253,7 @@ public class LogEvent implements java.io.Serializable {
    */
   public LocationInfo getLocationInformation() {
     if(locationInfo == null) {
-      locationInfo = new LocationInfo(new Throwable(), fqnOfCategoryClass);
+      locationInfo = LocationInfo.getCallerLocation(fqnOfCategoryClass);
     }
     return locationInfo;
   }
@@ -336,12 +340,11 @@ public class LogEvent implements java.io.Serializable {
   void getMDCCopy() {
     if(mdcCopyLookupRequired) {
       mdcCopyLookupRequired = false;
-      // the clone call is required for asynchronous logging.
-      // See also bug #5932.
-      Hashtable t = (Hashtable) MDC.getContext();
-      if(t != null) {
-	mdcCopy = (Hashtable) t.clone();
-      }
+      // A copy is required for asynchronous logging, see also bug
+      // #5932. The snapshot never changes so it is shared, and only
+      // copied by setProperty.
+      mdcCopy = MDC.getSnapshot();
+      mdcCopyShared = true;
     }
   }
 
@@ -499,13 +502,23 @@ public class LogEvent implements java.io.Serializable {
      */
   public final void setProperty(final String propName,
                           final String propValue) {
+        getWritableMDCCopy().put(propName, propValue);
+  }
+
+  /**
+   * Returns mdcCopy, copying it first if it is shared.
+   */
+  private Hashtable getWritableMDCCopy() {
         if (mdcCopy == null) {
             getMDCCopy();
         }
         if (mdcCopy == null) {
             mdcCopy = new Hashtable();
+        } else if (mdcCopyShared) {
+            mdcCopy = (Hashtable) mdcCopy.clone();
         }
-        mdcCopy.put(propName, propValue);      
+        mdcCopyShared = false;
+        return mdcCopy;
   }
 
     /**
@@ -59,8 +59,11 @@ public final class LoggerPatternConverter extends NamePatternConverter {
    * {@inheritDoc}
    */
   public void format(final LoggingEvent event, final StringBuffer toAppendTo) {
-    final int initialLength = toAppendTo.length();
-    toAppendTo.append(event.getLoggerName());
-    abbreviate(initialLength, toAppendTo);
+    if (this == INSTANCE) {
+      // default abbreviator leaves the name unchanged
+      toAppendTo.append(event.getLoggerName());
+      return;
+    }
+    toAppendTo.append(abbreviate(event.getLoggerName()));
   }
 }
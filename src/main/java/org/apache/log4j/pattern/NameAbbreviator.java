@@ -145,6 +145,22 @@ public abstract class NameAbbreviator {
    */
   public abstract void abbreviate(final int nameStart, final StringBuffer buf);
 
+  /**
+   * Abbreviates a name.
+   *
+   * <p>The abbreviators returned by {@link #getAbbreviator} cache
+   * the abbreviations of recently used names.
+   *
+   * @param name name, may not be null.
+   * @return abbreviated name.
+   * @since 1.2.18
+   */
+  public String abbreviate(final String name) {
+    StringBuffer buf = new StringBuffer(name);
+    abbreviate(0, buf);
+    return buf.toString();
+  }
+
   /**
    * Abbreviator that simply appends full name to buffer.
    */
@@ -160,12 +176,88 @@ public abstract class NameAbbreviator {
      */
     public void abbreviate(final int nameStart, final StringBuffer buf) {
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String abbreviate(final String name) {
+      return name;
+    }
+  }
+
+  /**
+   * Abbreviator caching the abbreviations of recently used names.
+   *
+   * <p>The cache is a fixed size table indexed by the hash code of the
+   * name, a name replaces any other name in its slot.  Entries are
+   * immutable and may be read and replaced without locking.
+   */
+  private abstract static class CachingAbbreviator extends NameAbbreviator {
+    /**
+     * Number of slots, a power of two.
+     */
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * Cached abbreviations.
+     */
+    private final CachedName[] cache = new CachedName[CACHE_SIZE];
+
+    /**
+     * Create new instance.
+     */
+    protected CachingAbbreviator() {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String abbreviate(final String name) {
+      int hash = name.hashCode();
+      int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+      CachedName cached = cache[slot];
+
+      if ((cached != null)
+          && ((cached.name == name) || cached.name.equals(name))) {
+        return cached.abbreviation;
+      }
+
+      String abbreviation = super.abbreviate(name);
+      cache[slot] = new CachedName(name, abbreviation);
+
+      return abbreviation;
+    }
+  }
+
+  /**
+   * Name and its abbreviation.
+   */
+  private static final class CachedName {
+    /**
+     * Name.
+     */
+    private final String name;
+
+    /**
+     * Abbreviated name.
+     */
+    private final String abbreviation;
+
+    /**
+     * Create new instance.
+     * @param name name.
+     * @param abbreviation abbreviated name.
+     */
+    public CachedName(final String name, final String abbreviation) {
+      this.name = name;
+      this.abbreviation = abbreviation;
+    }
   }
 
   /**
    * Abbreviator that drops starting path elements.
    */
-  private static class MaxElementAbbreviator extends NameAbbreviator {
+  private static class MaxElementAbbreviator extends CachingAbbreviator {
     /**
      * Maximum number of path elements to output.
      */
@@ -206,7 +298,7 @@ public abstract class NameAbbreviator {
   /**
    * Abbreviator that drops starting path elements.
    */
-  private static class DropElementAbbreviator extends NameAbbreviator {
+  private static class DropElementAbbreviator extends CachingAbbreviator {
     /**
      * Maximum number of path elements to output.
      */
@@ -299,7 +391,7 @@ public abstract class NameAbbreviator {
    *
    *
    */
-  private static class PatternAbbreviator extends NameAbbreviator {
+  private static class PatternAbbreviator extends CachingAbbreviator {
     /**
      * Element abbreviation patterns.
      */
@@ -58,4 +58,14 @@ public abstract class NamePatternConverter
   protected final void abbreviate(final int nameStart, final StringBuffer buf) {
     abbreviator.abbreviate(nameStart, buf);
   }
+
+  /**
+   * Abbreviate name.
+   * @param name name, may not be null.
+   * @return abbreviated name, cached by the abbreviator.
+   * @since 1.2.18
+   */
+  protected final String abbreviate(final String name) {
+    return abbreviator.abbreviate(name);
+  }
 }
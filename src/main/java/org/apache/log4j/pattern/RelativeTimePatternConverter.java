@@ -53,7 +53,7 @@ public class RelativeTimePatternConverter extends LoggingEventPatternConverter {
    * {@inheritDoc}
    */
   public void format(final LoggingEvent event, final StringBuffer toAppendTo) {
-    long timestamp = event.timeStamp;
+    long timestamp = event.getTimeStamp();
 
     if (!lastTimestamp.format(timestamp, toAppendTo)) {
       final String formatted =
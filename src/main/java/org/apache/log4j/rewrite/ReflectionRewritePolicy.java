@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
+import org.apache.log4j.ParameterizedMessage;
 import org.apache.log4j.helpers.LogLog;
 import org.apache.log4j.spi.LoggingEvent;
 
@@ -33,7 +34,8 @@ import org.apache.log4j.spi.LoggingEvent;
  * used as the message for the rewritten event and will
  * not be added to the event properties.  Values from the
  * JavaBean properties will replace any existing property
- * with the same name.
+ * with the same name.  Parameterized messages of LogMF and
+ * LogSF are left unchanged.
  *
  * The combination of the RewriteAppender and this policy
  * performs the same actions as the ReflectionFilter from log4j 1.3. 
@@ -44,7 +46,7 @@ public class ReflectionRewritePolicy implements RewritePolicy {
      */
     public LoggingEvent rewrite(final LoggingEvent source) {
         Object msg = source.getMessage();
-        if (!(msg instanceof String)) {
+        if (!(msg instanceof String) && !(msg instanceof ParameterizedMessage)) {
             Object newMsg = msg;
             Map rewriteProps = new HashMap(source.getProperties());
 
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.spi;
+
+import org.apache.log4j.Appender;
+
+/**
+   Implemented by appenders which can process several logging events
+   at once more efficiently than one at a time, for example by taking
+   their lock once or by flushing their output once per batch.
+
+   <p>Components which collect events, such as {@link
+   org.apache.log4j.AsyncAppender}, hand batches to the appenders
+   implementing this interface and single events to the others.
+
+   @since 1.2.18 */
+public interface BatchAppender extends Appender {
+
+  /**
+     Log the first <code>count</code> events of <code>events</code>
+     in order. The array belongs to the caller and must neither be
+     modified nor retained.  */
+  public
+  void doAppend(LoggingEvent[] events, int count);
+}
@@ -25,8 +25,13 @@ import org.apache.log4j.helpers.LogLog;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 /**
    The internal representation of caller location information.
@@ -66,6 +71,41 @@ public class LocationInfo implements java.io.Serializable {
   private static Method getFileNameMethod;
   private static Method getLineNumberMethod;
 
+  /** java.lang.StackWalker instance, null before Java 9. */
+  private static Object stackWalker;
+  private static Method walkMethod;
+  private static Class functionClass;
+  private static Method iteratorMethod;
+  private static Method frameGetClassNameMethod;
+  private static Method frameGetMethodNameMethod;
+  private static Method frameGetFileNameMethod;
+  private static Method frameGetLineNumberMethod;
+
+  /**
+     Number of slots of the call site cache, a power of two.
+  */
+  private static final int CALL_SITE_CACHE_SIZE = 1024;
+
+  /**
+     Call sites seen by {@link #getCallerLocation}, in the slot given
+     by their hash. A call site replaces the one cached in its slot.
+  */
+  private static final CallSite[] callSites =
+    new CallSite[CALL_SITE_CACHE_SIZE];
+
+  /**
+     Maximum number of functions kept in {@link #callerFinders}.
+  */
+  private static final int MAX_CACHED_CALLER_FINDERS = 64;
+
+  /**
+     Functions passed to StackWalker.walk, keyed by the class name
+     of the logging framework they look for. Never modified once
+     published, replaced by a copy when a function is added. Once
+     full, further functions are not cached.
+  */
+  private static volatile Map callerFinders = new HashMap();
+
 
   /**
      When location information is not available the constant
@@ -106,6 +146,24 @@ public class LocationInfo implements java.io.Serializable {
       } catch(NoSuchMethodException ex) {
           LogLog.debug("LocationInfo will use pre-JDK 1.4 methods to determine location.");
       }
+      try {
+          Class[] noArgs = null;
+          Class walkerClass = Class.forName("java.lang.StackWalker");
+          Class frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+          functionClass = Class.forName("java.util.function.Function");
+          walkMethod = walkerClass.getMethod("walk", new Class[] { functionClass });
+          iteratorMethod = Class.forName("java.util.stream.BaseStream").getMethod("iterator", noArgs);
+          frameGetClassNameMethod = frameClass.getMethod("getClassName", noArgs);
+          frameGetMethodNameMethod = frameClass.getMethod("getMethodName", noArgs);
+          frameGetFileNameMethod = frameClass.getMethod("getFileName", noArgs);
+          frameGetLineNumberMethod = frameClass.getMethod("getLineNumber", noArgs);
+          stackWalker = walkerClass.getMethod("getInstance", noArgs).invoke(null, (Object[]) null);
+      } catch(ClassNotFoundException ex) {
+          // don't do anything - java prior 9
+      } catch(Exception ex) {
+          LogLog.debug("LocationInfo will not use StackWalker.", ex);
+          stackWalker = null;
+      }
   }
 
   /**
@@ -137,38 +195,30 @@ public class LocationInfo implements java.io.Serializable {
           try {
               Object[] noArgs = null;
               Object[] elements =  (Object[]) getStackTraceMethod.invoke(t, noArgs);
-              String prevClass = NA;
-              for(int i = elements.length - 1; i >= 0; i--) {
-                  String thisClass = (String) getClassNameMethod.invoke(elements[i], noArgs);
-                  if(fqnOfCallingClass.equals(thisClass)) {
-                      int caller = i + 1;
-                      if (caller < elements.length) {
-                          className = prevClass;
-                          methodName = (String) getMethodNameMethod.invoke(elements[caller], noArgs);
-                          fileName = (String) getFileNameMethod.invoke(elements[caller], noArgs);
-                          if (fileName == null) {
-                              fileName = NA;
-                          }
-                          int line = ((Integer) getLineNumberMethod.invoke(elements[caller], noArgs)).intValue();
-                          if (line < 0) {
-                              lineNumber = NA;
-                          } else {
-                              lineNumber = String.valueOf(line);
-                          }
-                          StringBuffer buf = new StringBuffer();
-                          buf.append(className);
-                          buf.append(".");
-                          buf.append(methodName);
-                          buf.append("(");
-                          buf.append(fileName);
-                          buf.append(":");
-                          buf.append(lineNumber);
-                          buf.append(")");
-                          this.fullInfo = buf.toString();
-                      }
-                      return;
+              int caller = findCaller(elements, fqnOfCallingClass);
+              if (caller != -1) {
+                  className = (String) getClassNameMethod.invoke(elements[caller], noArgs);
+                  methodName = (String) getMethodNameMethod.invoke(elements[caller], noArgs);
+                  fileName = (String) getFileNameMethod.invoke(elements[caller], noArgs);
+                  if (fileName == null) {
+                      fileName = NA;
+                  }
+                  int line = ((Integer) getLineNumberMethod.invoke(elements[caller], noArgs)).intValue();
+                  if (line < 0) {
+                      lineNumber = NA;
+                  } else {
+                      lineNumber = String.valueOf(line);
                   }
-                  prevClass = thisClass;
+                  StringBuffer buf = new StringBuffer();
+                  buf.append(className);
+                  buf.append(".");
+                  buf.append(methodName);
+                  buf.append("(");
+                  buf.append(fileName);
+                  buf.append(":");
+                  buf.append(lineNumber);
+                  buf.append(")");
+                  this.fullInfo = buf.toString();
               }
               return;
           } catch(IllegalAccessException ex) {
@@ -245,6 +295,177 @@ public class LocationInfo implements java.io.Serializable {
       this.fullInfo = s.substring(ibegin, iend);
     }
 
+    /**
+     *   Finds the caller of the logging framework in a stack trace.
+     *   @param elements stack trace elements, innermost first.
+     *   @param fqnOfCallingClass class name of first class considered part of
+     *     the logging framework.
+     *   @return index of the element following the outermost element of
+     *     fqnOfCallingClass, or -1 if there is none. The StackWalker path
+     *     of {@link #getCallerLocation} finds the same frame.
+     */
+    private static int findCaller(final Object[] elements,
+                                  final String fqnOfCallingClass)
+        throws IllegalAccessException, InvocationTargetException {
+        Object[] noArgs = null;
+        for(int i = elements.length - 1; i >= 0; i--) {
+            String thisClass = (String) getClassNameMethod.invoke(elements[i], noArgs);
+            if(fqnOfCallingClass.equals(thisClass)) {
+                if (i + 1 < elements.length) {
+                    return i + 1;
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     *   Finds the caller of the logging framework in a stack trace as
+     *   {@link #getCallerLocation} does.
+     *   @param elements stack trace elements, innermost first.
+     *   @param fqnOfCallingClass class name of first class considered part of
+     *     the logging framework.
+     *   @return index of the first element following the innermost run of
+     *     elements of fqnOfCallingClass, or -1 if there is none.
+     */
+    private static int findInnermostCaller(final Object[] elements,
+                                           final String fqnOfCallingClass)
+        throws IllegalAccessException, InvocationTargetException {
+        Object[] noArgs = null;
+        boolean inFramework = false;
+        for(int i = 0; i < elements.length; i++) {
+            String thisClass = (String) getClassNameMethod.invoke(elements[i], noArgs);
+            if(fqnOfCallingClass.equals(thisClass)) {
+                inFramework = true;
+            } else if (inFramework) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the location of the caller of the logging framework in
+     * the current thread.
+     *
+     * <p>Unlike {@link #LocationInfo(Throwable, String)} this method does
+     * not need a stack trace of the current thread under Java 9 or
+     * later: the stack is walked from the innermost frame and only the
+     * class names of its frames are inspected until the first frame
+     * following a frame of <code>fqnOfCallingClass</code> is found.
+     * The walk stops there, so its cost does not depend on the depth
+     * of the stack. If the logging framework is entered again from a
+     * callback of a logging request, the caller found is the frame
+     * which entered it last, whereas the constructor returns the
+     * frame which entered it first. The location of each call site is
+     * computed once and then shared, the returned instance must not
+     * be modified.
+     *
+     * @param fqnOfCallingClass class name of first class considered part of
+     *    the logging framework.  Location will be site that calls a method on this class.
+     * @return location, not null.
+     * @since 1.2.18
+     */
+    public static LocationInfo getCallerLocation(final String fqnOfCallingClass) {
+        if (fqnOfCallingClass == null) {
+            return new LocationInfo(null, null);
+        }
+        Object[] noArgs = null;
+        if (stackWalker != null) {
+            try {
+                Object function = callerFinders.get(fqnOfCallingClass);
+                if (function == null) {
+                    function = Proxy.newProxyInstance(
+                        LocationInfo.class.getClassLoader(),
+                        new Class[] { functionClass },
+                        new CallerFinder(fqnOfCallingClass));
+                    addCallerFinder(fqnOfCallingClass, function);
+                }
+                Object frame = walkMethod.invoke(stackWalker, new Object[] { function });
+                if (frame == null) {
+                    return new LocationInfo(null, null);
+                }
+                return getCallSite(
+                    (String) frameGetClassNameMethod.invoke(frame, noArgs),
+                    (String) frameGetMethodNameMethod.invoke(frame, noArgs),
+                    (String) frameGetFileNameMethod.invoke(frame, noArgs),
+                    ((Integer) frameGetLineNumberMethod.invoke(frame, noArgs)).intValue());
+            } catch(IllegalAccessException ex) {
+                LogLog.debug("LocationInfo failed using StackWalker", ex);
+            } catch(InvocationTargetException ex) {
+                LogLog.debug("LocationInfo failed using StackWalker", ex);
+            } catch(RuntimeException ex) {
+                LogLog.debug("LocationInfo failed using StackWalker", ex);
+            }
+        } else if (getLineNumberMethod != null) {
+            try {
+                Object[] elements =  (Object[]) getStackTraceMethod.invoke(new Throwable(), noArgs);
+                int caller = findInnermostCaller(elements, fqnOfCallingClass);
+                if (caller == -1) {
+                    return new LocationInfo(null, null);
+                }
+                Object element = elements[caller];
+                return getCallSite(
+                    (String) getClassNameMethod.invoke(element, noArgs),
+                    (String) getMethodNameMethod.invoke(element, noArgs),
+                    (String) getFileNameMethod.invoke(element, noArgs),
+                    ((Integer) getLineNumberMethod.invoke(element, noArgs)).intValue());
+            } catch(IllegalAccessException ex) {
+                LogLog.debug("LocationInfo failed using JDK 1.4 methods", ex);
+            } catch(InvocationTargetException ex) {
+                LogLog.debug("LocationInfo failed using JDK 1.4 methods", ex);
+            } catch(RuntimeException ex) {
+                LogLog.debug("LocationInfo failed using JDK 1.4 methods", ex);
+            }
+        }
+        return new LocationInfo(new Throwable(), fqnOfCallingClass);
+    }
+
+    /**
+     * Caches the function finding the caller of a logging framework.
+     * @param fqnOfCallingClass class name of the logging framework.
+     * @param function function.
+     */
+    private static synchronized void addCallerFinder(
+        final String fqnOfCallingClass, final Object function) {
+        Map finders = callerFinders;
+        if (finders.size() < MAX_CACHED_CALLER_FINDERS
+            && !finders.containsKey(fqnOfCallingClass)) {
+            Map copy = new HashMap(finders);
+            copy.put(fqnOfCallingClass, function);
+            callerFinders = copy;
+        }
+    }
+
+    /**
+     * Returns the shared location of a call site.
+     * @param className class name, may be null.
+     * @param methodName method name, may be null.
+     * @param fileName file name, may be null.
+     * @param line line number, negative if not available.
+     * @return location, not null.
+     */
+    private static LocationInfo getCallSite(final String className,
+                                            final String methodName,
+                                            final String fileName,
+                                            final int line) {
+        int hash = CallSite.hashCode(className, methodName, line);
+        int slot = (hash ^ (hash >>> 16)) & (CALL_SITE_CACHE_SIZE - 1);
+        CallSite site = callSites[slot];
+        if (site == null
+            || !site.matches(className, methodName, fileName, line)) {
+            LocationInfo info = new LocationInfo(
+                (fileName == null) ? NA : fileName,
+                (className == null) ? NA : className,
+                (methodName == null) ? NA : methodName,
+                (line < 0) ? NA : String.valueOf(line));
+            site = new CallSite(className, methodName, fileName, line, info);
+            callSites[slot] = site;
+        }
+        return site.info;
+    }
+
     /**
      *   Appends a location fragment to a buffer to build the 
      *     full location info.
@@ -388,4 +609,95 @@ public class LocationInfo implements java.io.Serializable {
       }
       return methodName;
     }
+
+    /**
+     * Entry of the call site cache.
+     */
+    private static final class CallSite {
+        private final String className;
+        private final String methodName;
+        private final String fileName;
+        private final int line;
+        private final LocationInfo info;
+
+        CallSite(final String className,
+                 final String methodName,
+                 final String fileName,
+                 final int line,
+                 final LocationInfo info) {
+            this.className = className;
+            this.methodName = methodName;
+            this.fileName = fileName;
+            this.line = line;
+            this.info = info;
+        }
+
+        static int hashCode(final String className,
+                            final String methodName,
+                            final int line) {
+            int h = line;
+            if (className != null) {
+                h = 31 * h + className.hashCode();
+            }
+            if (methodName != null) {
+                h = 31 * h + methodName.hashCode();
+            }
+            return h;
+        }
+
+        boolean matches(final String className,
+                        final String methodName,
+                        final String fileName,
+                        final int line) {
+            return this.line == line
+                && equals(this.className, className)
+                && equals(this.methodName, methodName)
+                && equals(this.fileName, fileName);
+        }
+
+        private static boolean equals(final String s1, final String s2) {
+            return (s1 == null) ? (s2 == null) : s1.equals(s2);
+        }
+    }
+
+    /**
+     * Implementation of java.util.function.Function passed to
+     * StackWalker.walk, returns the first frame which follows a frame
+     * of the logging framework, as findInnermostCaller does.
+     */
+    private static final class CallerFinder implements InvocationHandler {
+        private final String fqnOfCallingClass;
+
+        CallerFinder(final String fqnOfCallingClass) {
+            this.fqnOfCallingClass = fqnOfCallingClass;
+        }
+
+        public Object invoke(final Object proxy,
+                             final Method method,
+                             final Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("apply".equals(name)) {
+                Object[] noArgs = null;
+                Iterator frames = (Iterator) iteratorMethod.invoke(args[0], noArgs);
+                boolean inFramework = false;
+                while (frames.hasNext()) {
+                    Object frame = frames.next();
+                    String thisClass = (String) frameGetClassNameMethod.invoke(frame, noArgs);
+                    if (fqnOfCallingClass.equals(thisClass)) {
+                        inFramework = true;
+                    } else if (inFramework) {
+                        return frame;
+                    }
+                }
+                return null;
+            }
+            if ("hashCode".equals(name)) {
+                return new Integer(System.identityHashCode(proxy));
+            }
+            if ("equals".equals(name)) {
+                return (proxy == args[0]) ? Boolean.TRUE : Boolean.FALSE;
+            }
+            return "CallerFinder[" + fqnOfCallingClass + "]";
+        }
+    }
 }
@@ -114,6 +114,10 @@ public class LoggingEvent implements java.io.Serializable {
    *  serialized. See also the getMDC and getMDCCopy methods.  */
   private boolean mdcCopyLookupRequired = true;
 
+  /** Is mdcCopy shared with the MDC or with another event? If so, it
+   *  is copied before being modified. */
+  private transient boolean mdcCopyShared = false;
+
   /** The application supplied message of logging event. */
   transient private Object message;
 
@@ -133,9 +137,20 @@ public class LoggingEvent implements java.io.Serializable {
   /** The number of milliseconds elapsed from 1/1/1970 until logging event
       was created. */
   public final long timeStamp;
+
+  /* The values returned by the getters. They equal the public final
+     fields above except in a ReusableLoggingEvent, whose public fields
+     are never set. */
+  private transient String fqnOfLoggerClass;
+  private transient String loggerName;
+  private transient long eventTimeStamp;
   /** Location information for the caller. */
   private LocationInfo locationInfo;
 
+  /** Output shared by the last layout which formatted this event
+      with sharing enabled, may be null. */
+  private transient FormattedOutput formattedOutput;
+
   // Serialization
   static final long serialVersionUID = -868428216207166145L;
 
@@ -165,6 +180,9 @@ public class LoggingEvent implements java.io.Serializable {
       this.throwableInfo = new ThrowableInformation(throwable, logger);
     }
     timeStamp = System.currentTimeMillis();
+    this.fqnOfLoggerClass = fqnOfCategoryClass;
+    this.loggerName = categoryName;
+    this.eventTimeStamp = timeStamp;
   }
 
   /**
@@ -191,6 +209,9 @@ public class LoggingEvent implements java.io.Serializable {
     }
 
     this.timeStamp = timeStamp;
+    this.fqnOfLoggerClass = fqnOfCategoryClass;
+    this.loggerName = categoryName;
+    this.eventTimeStamp = timeStamp;
   }
 
     /**
@@ -233,6 +254,9 @@ public class LoggingEvent implements java.io.Serializable {
       }
 
       this.timeStamp = timeStamp;
+      this.fqnOfLoggerClass = fqnOfCategoryClass;
+      this.loggerName = categoryName;
+      this.eventTimeStamp = timeStamp;
       this.threadName = threadName;
       ndcLookupRequired = false;
       this.ndc = ndc;
@@ -244,13 +268,74 @@ public class LoggingEvent implements java.io.Serializable {
     }
 
 
+  /**
+     Creates a copy of <code>event</code> which no longer depends on
+     the calling thread. The thread name, NDC and MDC of the calling
+     thread are captured by the copy.
+
+     @param event event to copy, may not be null.
+     @since 1.2.18 */
+  LoggingEvent(final LoggingEvent event) {
+    this.fqnOfCategoryClass = event.fqnOfLoggerClass;
+    this.logger = event.logger;
+    this.categoryName = event.loggerName;
+    this.level = event.level;
+    this.message = event.message;
+    this.renderedMessage = event.renderedMessage;
+    this.throwableInfo = event.throwableInfo;
+    this.timeStamp = event.eventTimeStamp;
+    this.fqnOfLoggerClass = this.fqnOfCategoryClass;
+    this.loggerName = this.categoryName;
+    this.eventTimeStamp = this.timeStamp;
+    this.locationInfo = event.locationInfo;
+    this.threadName = event.getThreadName();
+    this.ndc = event.getNDC();
+    this.ndcLookupRequired = false;
+    event.getMDCCopy();
+    if(event.mdcCopy != null) {
+      // copied by whichever event is modified first
+      this.mdcCopy = event.mdcCopy;
+      this.mdcCopyShared = true;
+      event.mdcCopyShared = true;
+    }
+    this.mdcCopyLookupRequired = false;
+  }
+
+  /**
+     Reinitializes this event as if it had just been created by the
+     {@link #LoggingEvent(String, Category, long, Priority, Object,
+     Throwable)} constructor, except that the public final fields keep
+     their values. Only used by {@link ReusableLoggingEvent}.
+
+     @since 1.2.18 */
+  void reset(String fqnOfCategoryClass, Category logger, long timeStamp,
+	     Priority level, Object message, Throwable throwable) {
+    this.fqnOfLoggerClass = fqnOfCategoryClass;
+    this.logger = logger;
+    this.loggerName = (logger == null) ? null : logger.getName();
+    this.level = level;
+    this.message = message;
+    this.renderedMessage = null;
+    this.threadName = null;
+    this.ndc = null;
+    this.ndcLookupRequired = true;
+    this.mdcCopy = null;
+    this.mdcCopyShared = false;
+    this.mdcCopyLookupRequired = true;
+    this.locationInfo = null;
+    this.formattedOutput = null;
+    this.throwableInfo = (throwable == null) ? null
+      : new ThrowableInformation(throwable, logger);
+    this.eventTimeStamp = timeStamp;
+  }
+
   /**
      Set the location information for this logging event. The collected
      information is cached for future use.
    */
   public LocationInfo getLocationInformation() {
     if(locationInfo == null) {
-      locationInfo = new LocationInfo(new Throwable(), fqnOfCategoryClass);
+      locationInfo = LocationInfo.getCallerLocation(fqnOfLoggerClass);
     }
     return locationInfo;
   }
@@ -267,7 +352,7 @@ public class LoggingEvent implements java.io.Serializable {
    * accessing the <code>categoryName</code> field.  
    */
   public String getLoggerName() {
-    return categoryName;
+    return loggerName;
   }
 
     /**
@@ -346,12 +431,11 @@ public class LoggingEvent implements java.io.Serializable {
   void getMDCCopy() {
     if(mdcCopyLookupRequired) {
       mdcCopyLookupRequired = false;
-      // the clone call is required for asynchronous logging.
-      // See also bug #5932.
-      Hashtable t = (Hashtable) MDC.getContext();
-      if(t != null) {
-	mdcCopy = (Hashtable) t.clone();
-      }
+      // A copy is required for asynchronous logging, see also bug
+      // #5932. The snapshot never changes so it is shared, and only
+      // copied by setProperty or removeProperty.
+      mdcCopy = MDC.getSnapshot();
+      mdcCopyShared = true;
     }
   }
 
@@ -461,6 +545,8 @@ public class LoggingEvent implements java.io.Serializable {
                         throws java.io.IOException, ClassNotFoundException {
     ois.defaultReadObject();
     readLevel(ois);
+    loggerName = categoryName;
+    eventTimeStamp = timeStamp;
 
     // Make sure that no location info is available to Layouts
     if(locationInfo == null)
@@ -521,13 +607,25 @@ public class LoggingEvent implements java.io.Serializable {
      */
   public final void setProperty(final String propName,
                           final String propValue) {
+        getWritableMDCCopy().put(propName, propValue);
+  }
+
+  /**
+   * Returns mdcCopy, copying it first if it is shared.
+   */
+  private Hashtable getWritableMDCCopy() {
+        // the output of layouts may depend on the properties
+        formattedOutput = null;
         if (mdcCopy == null) {
             getMDCCopy();
         }
         if (mdcCopy == null) {
             mdcCopy = new Hashtable();
+        } else if (mdcCopyShared) {
+            mdcCopy = (Hashtable) mdcCopy.clone();
         }
-        mdcCopy.put(propName, propValue);      
+        mdcCopyShared = false;
+        return mdcCopy;
   }
 
     /**
@@ -567,7 +665,7 @@ public class LoggingEvent implements java.io.Serializable {
      * @since 1.2.15
      */
     public final long getTimeStamp() {
-      return timeStamp;
+      return eventTimeStamp;
     }
 
     /**
@@ -614,7 +712,7 @@ public class LoggingEvent implements java.io.Serializable {
      * @since 1.2.15
      */
     public String getFQNOfLoggerClass() {
-      return fqnOfCategoryClass;
+      return fqnOfLoggerClass;
     }
 
 
@@ -627,12 +725,64 @@ public class LoggingEvent implements java.io.Serializable {
      * @since 1.2.16
      */
     public Object removeProperty(String propName) {
-        if (mdcCopy == null) {
-            getMDCCopy();
+        return getWritableMDCCopy().remove(propName);
+    }
+
+    /**
+     * Gets the output shared by a layout which formatted this event.
+     *
+     * @param key key identifying the output of equivalent layouts,
+     * may not be null.
+     * @return output of a layout with an equal key, or null if no
+     * such output was shared.
+     * @since 1.2.18
+     */
+    public String getFormattedOutput(final Object key) {
+        FormattedOutput output = formattedOutput;
+        if (output != null && key.equals(output.key)) {
+            return output.text;
         }
-        if (mdcCopy == null) {
-            mdcCopy = new Hashtable();
+        return null;
+    }
+
+    /**
+     * Shares the output of a layout with the equivalent layouts of
+     * the other appenders of this event. Only the last output shared
+     * is kept, it is discarded when the properties of the event
+     * change.
+     *
+     * @param key key identifying the output of equivalent layouts,
+     * may not be null.
+     * @param text output of the layout, may not be null.
+     * @since 1.2.18
+     */
+    public void setFormattedOutput(final Object key, final String text) {
+        // a single immutable object, the event may be formatted
+        // concurrently by the appenders of several threads
+        formattedOutput = new FormattedOutput(key, text);
+    }
+
+    /**
+     * Output of a layout and its key.
+     */
+    private static final class FormattedOutput {
+        /**
+         * Key of the layout.
+         */
+        private final Object key;
+        /**
+         * Output of the layout.
+         */
+        private final String text;
+
+        /**
+         * Create new instance.
+         * @param key key.
+         * @param text output.
+         */
+        FormattedOutput(final Object key, final String text) {
+            this.key = key;
+            this.text = text;
         }
-        return mdcCopy.remove(propName);
     }
 }
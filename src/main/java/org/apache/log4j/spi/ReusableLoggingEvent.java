@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.spi;
+
+import org.apache.log4j.Category;
+import org.apache.log4j.Priority;
+
+/**
+   A {@link LoggingEvent} which is recycled by the thread that logs
+   it, so that logging does not allocate a new event for each
+   request. It is used by {@link Category} when the {@link
+   Category#GARBAGE_FREE_KEY} system property is set.
+
+   <p>The event is only valid until the appenders called by {@link
+   Category#callAppenders} return. Appenders which keep a reference
+   to an event beyond that point, for instance to dispatch it from
+   another thread or to buffer it, must keep the result of {@link
+   #copy} instead. The appenders of log4j do so.
+
+   <p>The deprecated public final fields of {@link LoggingEvent}, such
+   as {@link LoggingEvent#timeStamp}, are not set in a reusable event.
+   Use the getters, or the fields of a copy, instead.
+
+   <p>When serialized, the event is replaced by such a copy.
+
+   @since 1.2.18 */
+public final class ReusableLoggingEvent extends LoggingEvent {
+
+  static final long serialVersionUID = 4328734713062245282L;
+
+  /** The event of each thread. */
+  private static final ThreadLocal EVENTS = new ThreadLocal() {
+      protected Object initialValue() {
+	return new ReusableLoggingEvent();
+      }
+    };
+
+  /** Set between {@link #acquire} and {@link #release}. */
+  private transient boolean inUse = false;
+
+  private ReusableLoggingEvent() {
+    super(null, null, 0L, null, null, null, null, null, null, null);
+  }
+
+  /**
+     Returns the event of the calling thread initialized with the
+     supplied parameters, or <code>null</code> if that event is
+     already in use, which happens when an appender logs while
+     handling it. Every event returned must be passed to {@link
+     #release} once the appenders have been called.
+
+     @param fqnOfCategoryClass Fully qualified class name
+               of Logger implementation.
+     @param logger The logger generating this event.
+     @param level The level of this event.
+     @param message  The message of this event.
+     @param throwable The throwable of this event.
+     @return event, or null if the event of this thread is in use.  */
+  public static ReusableLoggingEvent acquire(String fqnOfCategoryClass,
+					     Category logger,
+					     Priority level,
+					     Object message,
+					     Throwable throwable) {
+    ReusableLoggingEvent event = (ReusableLoggingEvent) EVENTS.get();
+    if(event.inUse) {
+      return null;
+    }
+    event.inUse = true;
+    event.reset(fqnOfCategoryClass, logger, System.currentTimeMillis(),
+		level, message, throwable);
+    return event;
+  }
+
+  /**
+     Clears the references held by this event and makes it available
+     to the next call of {@link #acquire} on this thread.  */
+  public void release() {
+    reset(null, null, 0L, null, null, null);
+    inUse = false;
+  }
+
+  /**
+     Returns a copy of this event which stays valid after this event
+     has been released. The thread name, NDC and MDC of the calling
+     thread are captured by the copy.
+
+     @return new event.  */
+  public LoggingEvent copy() {
+    return new LoggingEvent(this);
+  }
+
+  private Object writeReplace() {
+    return copy();
+  }
+}
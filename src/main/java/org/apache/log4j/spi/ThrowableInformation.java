@@ -19,6 +19,8 @@ package org.apache.log4j.spi;
 
 import org.apache.log4j.Category;
 import org.apache.log4j.DefaultThrowableRenderer;
+import org.apache.log4j.EnhancedThrowableRenderer;
+import org.apache.log4j.helpers.OptionConverter;
 
 /**
   * ThrowableInformation is log4j's internal representation of
@@ -30,6 +32,13 @@ import org.apache.log4j.DefaultThrowableRenderer;
   * corresponding to the second entry of the 'rep' array that is
   * rep[1].
   *
+  * <p>Since 1.2.18 throwables rendered by the default or the enhanced
+  * throwable renderer are cached: throwables with the same string
+  * representation, stack trace, causes and suppressed throwables are
+  * rendered once and share their string representation and a trace
+  * number, see {@link #getTraceId}. The number of cached renderings is
+  * set by the {@link #CACHE_SIZE_KEY} system property.
+  *
   * @author Ceki G&uuml;lc&uuml;
   *
   * */
@@ -37,9 +46,31 @@ public class ThrowableInformation implements java.io.Serializable {
 
   static final long serialVersionUID = -4748765566864322735L;
 
+  /**
+     System property setting the number of cached renderings of
+     throwables, 0 disables the cache. The default value is 128.
+
+     @since 1.2.18 */
+  public static final String CACHE_SIZE_KEY = "log4j.throwableCacheSize";
+
+  /** Cached renderings, null if disabled. */
+  private static final ThrowableRenderCache cache;
+
+  static {
+    int size = OptionConverter.toInt(
+      OptionConverter.getSystemProperty(CACHE_SIZE_KEY, null), 128);
+    if (size > 0 && ThrowableRenderCache.isSupported()) {
+      cache = new ThrowableRenderCache(size);
+    } else {
+      cache = null;
+    }
+  }
+
   private transient Throwable throwable;
   private transient Category category;
   private String[] rep;
+  /** Number of the cached rendering, 0 if not cached. */
+  private transient int traceId;
 
   public
   ThrowableInformation(Throwable throwable) {
@@ -75,6 +106,25 @@ public class ThrowableInformation implements java.io.Serializable {
   }
 
   public synchronized String[] getThrowableStrRep() {
+    return (String[]) getRep().clone();
+  }
+
+  /**
+     Returns the number of the rendering of the throwable. Throwables
+     with the same number have the same string representation, an
+     appender may write it once and then refer to it by its number.
+
+     @return number, 0 if the rendering was not cached.
+     @since 1.2.18 */
+  public synchronized int getTraceId() {
+    getRep();
+    return traceId;
+  }
+
+  /**
+     Render the throwable if not done yet.
+     @return rendered lines, must not be modified. */
+  private String[] getRep() {
     if(rep == null) {
       ThrowableRenderer renderer = null;
       if (category != null) {
@@ -83,13 +133,24 @@ public class ThrowableInformation implements java.io.Serializable {
               renderer = ((ThrowableRendererSupport) repo).getThrowableRenderer();
           }
       }
-      if (renderer == null) {
+      ThrowableRenderCache.Entry entry = null;
+      if (cache != null && (renderer == null
+          || renderer instanceof DefaultThrowableRenderer
+          || renderer instanceof EnhancedThrowableRenderer)) {
+          // the output of other renderers might not only depend on
+          // the structure of the throwable
+          entry = cache.get(renderer, throwable);
+      }
+      if (entry != null) {
+          rep = entry.rep;
+          traceId = entry.id;
+      } else if (renderer == null) {
           rep = DefaultThrowableRenderer.render(throwable);
       } else {
           rep = renderer.doRender(throwable);
       }
     }
-    return (String[]) rep.clone();
+    return rep;
   }
 }
 
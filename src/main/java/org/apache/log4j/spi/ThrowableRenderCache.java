@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.spi;
+
+import org.apache.log4j.DefaultThrowableRenderer;
+import org.apache.log4j.EnhancedThrowableRenderer;
+import org.apache.log4j.helpers.LogLog;
+
+import java.io.PrintWriter;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of rendered throwables used by {@link ThrowableInformation}.
+ *
+ * <p>Throwables are looked up by their structure: the string
+ * representation and the stack frames of the throwable, of its causes
+ * and of its suppressed throwables. Throwables with the same structure
+ * render to the same lines, they share a single rendering and
+ * a trace number. Throwables overriding printStackTrace are not cached
+ * when rendered by DefaultThrowableRenderer. The output of
+ * EnhancedThrowableRenderer also depends on the context class loader
+ * of the thread, which is then part of the key. The loader is
+ * referenced weakly so that the cache does not keep it from being
+ * collected.
+ *
+ * @since 1.2.18
+ */
+final class ThrowableRenderCache {
+    /**
+     * Throwable.getStackTrace, null before Java 1.4.
+     */
+    private static final Method getStackTraceMethod;
+    /**
+     * Throwable.getCause, null before Java 1.4.
+     */
+    private static final Method getCauseMethod;
+    /**
+     * Throwable.getSuppressed, null before Java 7.
+     */
+    private static final Method getSuppressedMethod;
+
+    /**
+     * Separates the parts of nested throwables in a key.
+     */
+    private static final Object CAUSE = new Object();
+    /**
+     * Separates the parts of suppressed throwables in a key.
+     */
+    private static final Object SUPPRESSED = new Object();
+    /**
+     * Ends the parts of suppressed throwables in a key.
+     */
+    private static final Object END = new Object();
+
+    static {
+        Class[] noArgs = null;
+        Method method = null;
+        try {
+            method = Throwable.class.getMethod("getStackTrace", noArgs);
+        } catch (NoSuchMethodException ex) {
+            // don't do anything - java prior 1.4
+        }
+        getStackTraceMethod = method;
+        method = null;
+        try {
+            method = Throwable.class.getMethod("getCause", noArgs);
+        } catch (NoSuchMethodException ex) {
+            // don't do anything - java prior 1.4
+        }
+        getCauseMethod = method;
+        method = null;
+        try {
+            method = Throwable.class.getMethod("getSuppressed", noArgs);
+        } catch (NoSuchMethodException ex) {
+            // don't do anything - java prior 7
+        }
+        getSuppressedMethod = method;
+    }
+
+    /**
+     * Rendered throwables, least recently used first.
+     */
+    private final Map entries;
+
+    /**
+     * Number given to the next rendering.
+     */
+    private int nextId = 1;
+
+    /**
+     * Create new instance.
+     * @param maxSize maximum number of cached renderings.
+     */
+    ThrowableRenderCache(final int maxSize) {
+        entries = new LinkedHashMap(16, 0.75f, true) {
+            protected boolean removeEldestEntry(final Map.Entry eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Determines if throwables can be looked up by their structure.
+     * @return true if running on Java 1.4 or later.
+     */
+    static boolean isSupported() {
+        return getStackTraceMethod != null && getCauseMethod != null;
+    }
+
+    /**
+     * Get the rendering of a throwable.
+     * @param renderer renderer, null for DefaultThrowableRenderer.
+     * @param throwable throwable, may not be null.
+     * @return cached rendering, or null if the throwable cannot be
+     * looked up and must be rendered directly.
+     */
+    Entry get(final ThrowableRenderer renderer, final Throwable throwable) {
+        Key key = createKey(renderer, throwable);
+        if (key == null) {
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = (Entry) entries.get(key);
+        }
+        if (entry == null) {
+            // rendered outside of the lock, a concurrent rendering
+            // of the same throwable only wastes some work
+            String[] rep;
+            if (renderer == null) {
+                rep = DefaultThrowableRenderer.render(throwable);
+            } else {
+                rep = renderer.doRender(throwable);
+            }
+            synchronized (entries) {
+                Entry existing = (Entry) entries.get(key);
+                if (existing == null) {
+                    entry = new Entry(rep, nextId++);
+                    entries.put(key, entry);
+                } else {
+                    entry = existing;
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Create the structural key of a throwable.
+     * @param renderer renderer.
+     * @param throwable throwable.
+     * @return key or null if the structure cannot be determined.
+     */
+    private static Key createKey(final ThrowableRenderer renderer,
+                                 final Throwable throwable) {
+        ArrayList parts = new ArrayList();
+        try {
+            if (!(renderer instanceof EnhancedThrowableRenderer)
+                && Throwable.class != throwable.getClass().getMethod(
+                  "printStackTrace", new Class[] { PrintWriter.class }).getDeclaringClass()) {
+                // output of printStackTrace may depend on more than the structure
+                return null;
+            }
+            if (!addParts(parts, throwable, new IdentityHashMap())) {
+                return null;
+            }
+        } catch (NoSuchMethodException ex) {
+            LogLog.debug("Unable to inspect throwable", ex);
+            return null;
+        } catch (IllegalAccessException ex) {
+            LogLog.debug("Unable to inspect throwable", ex);
+            return null;
+        } catch (InvocationTargetException ex) {
+            LogLog.debug("Unable to inspect throwable", ex);
+            return null;
+        } catch (RuntimeException ex) {
+            LogLog.debug("Unable to inspect throwable", ex);
+            return null;
+        }
+        ClassLoader loader = null;
+        if (renderer instanceof EnhancedThrowableRenderer) {
+            // class locations and versions are found through this loader
+            loader = Thread.currentThread().getContextClassLoader();
+        }
+        return new Key(renderer, loader, parts.toArray());
+    }
+
+    /**
+     * Add the parts of a throwable, its suppressed throwables and its causes.
+     * @param parts list receiving the parts.
+     * @param throwable throwable.
+     * @param seen throwables already added.
+     * @return false if a throwable is part of its own chain.
+     */
+    private static boolean addParts(final ArrayList parts,
+                                    final Throwable throwable,
+                                    final Map seen)
+        throws IllegalAccessException, InvocationTargetException {
+        Object[] noArgs = null;
+        Throwable current = throwable;
+        while (current != null) {
+            if (seen.put(current, current) != null) {
+                return false;
+            }
+            parts.add(String.valueOf(current.toString()));
+            Object[] elements = (Object[]) getStackTraceMethod.invoke(current, noArgs);
+            for (int i = 0; i < elements.length; i++) {
+                parts.add(elements[i]);
+            }
+            if (getSuppressedMethod != null) {
+                Object[] suppressed =
+                    (Object[]) getSuppressedMethod.invoke(current, noArgs);
+                for (int i = 0; i < suppressed.length; i++) {
+                    parts.add(SUPPRESSED);
+                    if (!addParts(parts, (Throwable) suppressed[i], seen)) {
+                        return false;
+                    }
+                    parts.add(END);
+                }
+            }
+            current = (Throwable) getCauseMethod.invoke(current, noArgs);
+            if (current != null) {
+                parts.add(CAUSE);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cached rendering of a throwable.
+     */
+    static final class Entry {
+        /**
+         * Rendered lines, shared and must not be modified.
+         */
+        final String[] rep;
+        /**
+         * Number of this rendering, starting at 1.
+         */
+        final int id;
+
+        /**
+         * Create new instance.
+         * @param rep rendered lines.
+         * @param id number.
+         */
+        Entry(final String[] rep, final int id) {
+            this.rep = rep;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Structural key of a throwable.
+     */
+    private static final class Key {
+        /**
+         * Renderer, compared by identity.
+         */
+        private final ThrowableRenderer renderer;
+        /**
+         * Context class loader the throwable was rendered with,
+         * compared by identity, null if the rendering does not
+         * depend on it or the thread has none.
+         */
+        private final WeakReference loader;
+        /**
+         * Strings and stack trace elements.
+         */
+        private final Object[] parts;
+        /**
+         * Hash code.
+         */
+        private final int hashCode;
+
+        /**
+         * Create new instance.
+         * @param renderer renderer.
+         * @param loader context class loader, may be null.
+         * @param parts parts.
+         */
+        Key(final ThrowableRenderer renderer,
+            final ClassLoader loader,
+            final Object[] parts) {
+            this.renderer = renderer;
+            this.loader = (loader == null) ? null : new WeakReference(loader);
+            this.parts = parts;
+            int h = (renderer == null) ? 0 : System.identityHashCode(renderer);
+            h = 31 * h + System.identityHashCode(loader);
+            for (int i = 0; i < parts.length; i++) {
+                h = 31 * h + parts[i].hashCode();
+            }
+            this.hashCode = h;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int hashCode() {
+            return hashCode;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            if (hashCode != other.hashCode
+                || renderer != other.renderer
+                || !sameLoader(other)
+                || parts.length != other.parts.length) {
+                return false;
+            }
+            for (int i = 0; i < parts.length; i++) {
+                if (!parts[i].equals(other.parts[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Determines if two keys were created with the same loader.
+         * A collected loader matches no key.
+         * @param other other key.
+         * @return true if the loaders are the same.
+         */
+        private boolean sameLoader(final Key other) {
+            if (loader == null || other.loader == null) {
+                return loader == other.loader;
+            }
+            Object l = loader.get();
+            return l != null && l == other.loader.get();
+        }
+    }
+}
@@ -17,7 +17,7 @@
 
 package org.apache.log4j.varia;
 
-import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.UnsynchronizedAppenderSkeleton;
 import org.apache.log4j.spi.LoggingEvent;
 
 /**
@@ -25,7 +25,7 @@ import org.apache.log4j.spi.LoggingEvent;
   * device.  
   * @author Ceki G&uuml;lc&uml;
   */
-public class NullAppender extends AppenderSkeleton {
+public class NullAppender extends UnsynchronizedAppenderSkeleton {
 
   private static NullAppender instance = new NullAppender();
 
@@ -64,6 +64,13 @@ public class NullAppender extends AppenderSkeleton {
   public void doAppend(LoggingEvent event) {
   }
 
+  /**
+   * Does not do anything. 
+   * @since 1.2.18
+   * */
+  public void doAppend(LoggingEvent[] events, int count) {
+  }
+
   /**
    * Does not do anything. 
    * */
@@ -137,7 +137,7 @@ public class XMLLayout extends Layout {
     buf.append("<log4j:event logger=\"");
     buf.append(Transform.escapeTags(event.getLoggerName()));
     buf.append("\" timestamp=\"");
-    buf.append(event.timeStamp);
+    buf.append(event.getTimeStamp());
     buf.append("\" level=\"");
     buf.append(Transform.escapeTags(String.valueOf(event.getLevel())));
     buf.append("\" thread=\"");
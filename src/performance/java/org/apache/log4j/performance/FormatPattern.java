@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.performance;
+
+import org.apache.log4j.EnhancedPatternLayout;
+import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+   Measures the time taken by {@link PatternLayout} and {@link
+   EnhancedPatternLayout} to format an event into a reusable buffer.
+
+   <p>Usage: <code>java org.apache.log4j.performance.FormatPattern
+   [pattern...]</code>
+
+   <p>The default patterns are the ISO8601 patterns most commonly
+   found in configurations. Each pattern is run several times with
+   each layout, the best average time per event is printed in
+   nanoseconds. The time includes the creation of the event.
+
+   @since 1.2.18 */
+public class FormatPattern {
+
+  static int RUN_LENGTH = 500000;
+  static int RUNS = 8;
+
+  static String[] DEFAULT_PATTERNS = {
+    "%d %-5p [%t] %c - %m%n",
+    "%d{ISO8601} %5p %c{1} - %m%n",
+    PatternLayout.TTCC_CONVERSION_PATTERN };
+
+  static
+  public
+  void main(String[] args) {
+    String[] patterns = (args.length > 0) ? args : DEFAULT_PATTERNS;
+    Logger logger = Logger.getLogger(FormatPattern.class.getName());
+
+    for(int i = 0; i < patterns.length; i++) {
+      System.out.println(patterns[i]);
+      System.out.println("  PatternLayout:         "
+			 + run(new PatternLayout(patterns[i]), logger) + " ns");
+      System.out.println("  EnhancedPatternLayout: "
+			 + run(new EnhancedPatternLayout(patterns[i]), logger) + " ns");
+    }
+  }
+
+  static
+  long run(Layout layout, Logger logger) {
+    StringBuffer buf = new StringBuffer(256);
+    long best = Long.MAX_VALUE;
+    for(int r = 0; r < RUNS; r++) {
+      long before = System.currentTimeMillis();
+      for(int i = 0; i < RUN_LENGTH; i++) {
+	LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger,
+					      System.currentTimeMillis(),
+					      Level.INFO, "Hello, World", null);
+	buf.setLength(0);
+	layout.format(buf, event);
+      }
+      long elapsed = System.currentTimeMillis() - before;
+      best = Math.min(best, elapsed * 1000000 / RUN_LENGTH);
+    }
+    return best;
+  }
+}
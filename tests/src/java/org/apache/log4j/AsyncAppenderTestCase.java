@@ -22,6 +22,8 @@ import junit.framework.TestCase;
 import java.util.Vector;
 
 import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.varia.DenyAllFilter;
+import org.apache.log4j.varia.StringMatchFilter;
 
 /**
    A superficial but general test of log4j.
@@ -334,6 +336,271 @@ public class AsyncAppenderTestCase extends TestCase {
         assertEquals("Hello", msg);
     }
 
+    /**
+     * Logs from several threads through an AsyncAppender in ring
+     * buffer mode and checks that every event is dispatched.
+     * @param waitStrategy wait strategy.
+     * @throws InterruptedException if interrupted.
+     */
+    private void ringBufferTest(final String waitStrategy)
+        throws InterruptedException {
+        VectorAppender vectorAppender = new NonBlockingVectorAppender();
+        AsyncAppender async = new AsyncAppender();
+        async.addAppender(vectorAppender);
+        async.setBufferSize(16);
+        async.setRingBuffer(true);
+        async.setWaitStrategy(waitStrategy);
+        async.activateOptions();
+        assertEquals(waitStrategy, async.getWaitStrategy());
+        Logger rootLogger = Logger.getRootLogger();
+        rootLogger.addAppender(async);
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Greeter(rootLogger, 50));
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        async.close();
+        assertEquals(200, vectorAppender.getVector().size());
+        assertTrue(vectorAppender.isClosed());
+    }
+
+    /**
+     * Tests ring buffer mode with the block wait strategy.
+     * @throws InterruptedException if interrupted.
+     */
+    public void testRingBufferBlock() throws InterruptedException {
+        ringBufferTest("block");
+    }
+
+    /**
+     * Tests ring buffer mode with the park wait strategy.
+     * @throws InterruptedException if interrupted.
+     */
+    public void testRingBufferPark() throws InterruptedException {
+        ringBufferTest("park");
+    }
+
+    /**
+     * Tests ring buffer mode with the yield wait strategy.
+     * @throws InterruptedException if interrupted.
+     */
+    public void testRingBufferYield() throws InterruptedException {
+        ringBufferTest("yield");
+    }
+
+    /**
+     * Tests ring buffer mode with the spin wait strategy.
+     * @throws InterruptedException if interrupted.
+     */
+    public void testRingBufferSpin() throws InterruptedException {
+        ringBufferTest("spin");
+    }
+
+    /**
+     * Tests that events are summarized when the ring buffer is full
+     * and blocking is false.
+     */
+    public void testRingBufferDiscard() {
+        BlockableVectorAppender blockableAppender = new BlockableVectorAppender();
+        AsyncAppender async = new AsyncAppender();
+        async.addAppender(blockableAppender);
+        async.setBufferSize(4);
+        async.setBlocking(false);
+        async.setRingBuffer(true);
+        async.activateOptions();
+        Logger rootLogger = Logger.getRootLogger();
+        rootLogger.addAppender(async);
+        synchronized(blockableAppender.getMonitor()) {
+            for (int i = 0; i < 20; i++) {
+                rootLogger.info("Hello, World");
+            }
+        }
+        async.close();
+        Vector events = blockableAppender.getVector();
+        assertTrue(events.size() < 20);
+        LoggingEvent discardEvent = (LoggingEvent) events.get(events.size() - 1);
+        assertTrue(discardEvent.getMessage().toString().startsWith("Discarded"));
+    }
+
+    /**
+     * Tests that a producer blocked on the full list buffer delivers
+     * its event when the ring buffer is activated meanwhile.
+     * @throws InterruptedException if interrupted.
+     */
+    public void testRingBufferActivatedWhileBlocked() throws InterruptedException {
+        BlockableVectorAppender blockableAppender = new BlockableVectorAppender();
+        AsyncAppender async = new AsyncAppender();
+        async.addAppender(blockableAppender);
+        async.setBufferSize(2);
+        async.setRingBuffer(true);
+        final Logger rootLogger = Logger.getRootLogger();
+        rootLogger.addAppender(async);
+        Thread[] producers = new Thread[8];
+        synchronized(blockableAppender.getMonitor()) {
+            // the dispatcher blocks on the first event, the list fills
+            // and the producers wait for space
+            for (int i = 0; i < producers.length; i++) {
+                producers[i] = new Thread(new Greeter(rootLogger, 2));
+                producers[i].start();
+            }
+            Thread.sleep(200);
+            async.activateOptions();
+        }
+        for (int i = 0; i < producers.length; i++) {
+            producers[i].join(5000);
+            assertFalse(producers[i].isAlive());
+        }
+        async.close();
+        rootLogger.removeAppender(async);
+        assertEquals(16, blockableAppender.getVector().size());
+    }
+
+    /**
+     * Tests that a filter already linked to a next filter when added
+     * is applied with its next filter.
+     */
+    public void testAddLinkedFilter() throws InterruptedException {
+        VectorAppender vectorAppender = new VectorAppender();
+        AsyncAppender async = new AsyncAppender();
+        async.addAppender(vectorAppender);
+        StringMatchFilter filter = new StringMatchFilter();
+        filter.setStringToMatch("accept");
+        filter.setNext(new DenyAllFilter());
+        async.addFilter(filter);
+        Logger logger = Logger.getLogger("org.apache.log4j.AsyncAppenderTestCase");
+        logger.addAppender(async);
+        logger.info("denied");
+        logger.info("accept me");
+        async.close();
+        logger.removeAppender(async);
+        Vector events = vectorAppender.getVector();
+        assertEquals(1, events.size());
+        assertEquals("accept me",
+            ((LoggingEvent) events.get(0)).getMessage());
+    }
+
+    /**
+     * Tests that callers are not serialized by the lock of the
+     * appender and that the threshold and filters still apply.
+     */
+    public void testUnsynchronizedAppend() throws InterruptedException {
+        VectorAppender vectorAppender = new NonBlockingVectorAppender();
+        final AsyncAppender async = new AsyncAppender();
+        async.addAppender(vectorAppender);
+        async.setThreshold(Level.INFO);
+        StringMatchFilter filter = new StringMatchFilter();
+        filter.setStringToMatch("deny");
+        filter.setAcceptOnMatch(false);
+        async.addFilter(filter);
+        final Logger logger = Logger.getLogger("org.apache.log4j.AsyncAppenderTestCase");
+        logger.addAppender(async);
+        Thread producer = new Thread() {
+            public void run() {
+                logger.debug("below threshold");
+                logger.info("deny me");
+                logger.info("Hello, World");
+            }
+        };
+        synchronized(async) {
+            producer.start();
+            producer.join(10000);
+            assertFalse(producer.isAlive());
+        }
+        async.clearFilters();
+        logger.info("deny me");
+        async.close();
+        Vector events = vectorAppender.getVector();
+        assertEquals(2, events.size());
+        assertEquals("Hello, World", ((LoggingEvent) events.get(0)).getMessage());
+        assertEquals("deny me", ((LoggingEvent) events.get(1)).getMessage());
+    }
+
+    /**
+     * Argument recording the thread which formats it.
+     */
+    private static final class ThreadRecorder {
+      /**
+       * Thread which called toString.
+       */
+      Thread thread;
+
+      /**
+       * {@inheritDoc}
+       */
+      public String toString() {
+        thread = Thread.currentThread();
+        return "recorder";
+      }
+    }
+
+    /**
+     * Logs a parameterized message through an AsyncAppender.
+     * @param deferred value of DeferredRendering.
+     * @return thread which formatted the message.
+     */
+    private Thread deferredRenderingTest(final boolean deferred) {
+        VectorAppender vectorAppender = new RenderingVectorAppender();
+        AsyncAppender async = new AsyncAppender();
+        async.addAppender(vectorAppender);
+        async.setDeferredRendering(deferred);
+        async.activateOptions();
+        assertEquals(deferred, async.getDeferredRendering());
+        Logger logger = Logger.getLogger("org.apache.log4j.AsyncAppenderTestCase");
+        logger.addAppender(async);
+        ThreadRecorder recorder = new ThreadRecorder();
+        LogMF.info(logger, "Formatted by {0}", recorder);
+        async.close();
+        Vector events = vectorAppender.getVector();
+        assertEquals(1, events.size());
+        assertEquals("Formatted by recorder",
+            ((LoggingEvent) events.get(0)).getRenderedMessage());
+        return recorder.thread;
+    }
+
+    /**
+     * Tests that parameterized messages are formatted by the calling
+     * thread by default.
+     */
+    public void testEagerRendering() {
+        assertSame(Thread.currentThread(), deferredRenderingTest(false));
+    }
 
+    /**
+     * Tests that parameterized messages are formatted by the dispatcher
+     * when DeferredRendering is set.
+     */
+    public void testDeferredRendering() {
+        Thread thread = deferredRenderingTest(true);
+        assertNotNull(thread);
+        assertNotSame(Thread.currentThread(), thread);
+    }
+
+    /**
+     * Vector appender which renders the message of each event.
+     */
+    private static final class RenderingVectorAppender extends VectorAppender {
+      /**
+       * {@inheritDoc}
+       */
+      public void append(final LoggingEvent event) {
+        event.getRenderedMessage();
+        vector.addElement(event);
+      }
+    }
 
+    /**
+     * Vector appender which does not pause on each event.
+     */
+    private static final class NonBlockingVectorAppender extends VectorAppender {
+      /**
+       * {@inheritDoc}
+       */
+      public void append(final LoggingEvent event) {
+        vector.addElement(event);
+      }
+    }
 }
@@ -19,6 +19,9 @@ package org.apache.log4j;
 
 import junit.framework.TestCase;
 
+import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.spi.RootLogger;
+
 import java.lang.reflect.Method;
 
 
@@ -86,6 +89,44 @@ public class CategoryTest extends TestCase {
     logger.setPriority(debug);
   }
 
+  /**
+   * Tests that callAppendersLockFree sees appenders added and removed
+   * and honors additivity.
+   */
+  public void testCallAppendersLockFree() {
+    Hierarchy h = new Hierarchy(new RootLogger(Level.DEBUG));
+    Logger root = h.getRootLogger();
+    Logger logger = h.getLogger("org.example.foo");
+    VectorAppender rootAppender = new VectorAppender();
+    VectorAppender appender = new VectorAppender();
+    root.addAppender(rootAppender);
+    logger.addAppender(appender);
+
+    logger.callAppendersLockFree(
+      new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "1", null));
+    assertEquals(1, appender.getVector().size());
+    assertEquals(1, rootAppender.getVector().size());
+
+    logger.setAdditivity(false);
+    logger.callAppendersLockFree(
+      new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "2", null));
+    assertEquals(2, appender.getVector().size());
+    assertEquals(1, rootAppender.getVector().size());
+
+    logger.removeAppender(appender);
+    logger.setAdditivity(true);
+    logger.callAppendersLockFree(
+      new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "3", null));
+    assertEquals(2, appender.getVector().size());
+    assertEquals(2, rootAppender.getVector().size());
+
+    root.removeAllAppenders();
+    assertTrue(rootAppender.isClosed());
+    logger.callAppendersLockFree(
+      new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "4", null));
+    assertEquals(2, rootAppender.getVector().size());
+  }
+
   /**
    * Derived category to check method signature of forcedLog.
    */
@@ -37,6 +37,7 @@ public class CoreTestSuite {
         s.addTestSuite(org.apache.log4j.PriorityTest.class);
         s.addTestSuite(org.apache.log4j.CategoryTest.class);
         s.addTestSuite(org.apache.log4j.FileAppenderTest.class);
+        s.addTestSuite(org.apache.log4j.MappedFileAppenderTest.class);
         s.addTestSuite(org.apache.log4j.LogManagerTest.class);
         s.addTestSuite(org.apache.log4j.helpers.LogLogTest.class);
         s.addTestSuite(org.apache.log4j.LayoutTest.class);
@@ -57,10 +58,13 @@ public class CoreTestSuite {
         s.addTestSuite(org.apache.log4j.TestLogMF.class);
         s.addTestSuite(org.apache.log4j.TestLogSF.class);
         s.addTestSuite(org.apache.log4j.pattern.CachedDateFormatTest.class);
+        s.addTestSuite(org.apache.log4j.pattern.CompiledPatternTest.class);
         s.addTestSuite(org.apache.log4j.pattern.FormattingInfoTest.class);
         s.addTestSuite(org.apache.log4j.pattern.NameAbbreviatorTest.class);
         s.addTestSuite(org.apache.log4j.pattern.PatternParserTest.class);
         s.addTestSuite(org.apache.log4j.helpers.UtilLoggingLevelTest.class);
+        s.addTestSuite(org.apache.log4j.NDCTestCase.class);
+        s.addTestSuite(org.apache.log4j.MDCTestCase.class);
         return s;
     }
 }
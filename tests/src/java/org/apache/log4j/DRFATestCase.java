@@ -19,13 +19,17 @@ package org.apache.log4j;
 
 import junit.framework.TestCase;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.util.zip.GZIPInputStream;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import org.apache.log4j.spi.LoggingEvent;
 import org.apache.log4j.util.Compare;
 
 /**
@@ -497,6 +501,65 @@ public class DRFATestCase extends TestCase {
                 "witness/drfa_blockedRollover.log"));
     }
 
+    /**
+     * Waits for the background compression of a file and returns
+     * the first line of the compressed file.
+     * @param file uncompressed file.
+     * @return first line.
+     */
+    private static String readCompressed(final File file)
+        throws IOException, InterruptedException {
+        for (int i = 0; i < 250 && file.exists(); i++) {
+            Thread.sleep(20);
+        }
+        assertFalse(file.exists());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(new FileInputStream(file.getPath() + ".gz"))));
+        try {
+            return reader.readLine();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Tests that rolled files are compressed on rollover and that
+     * rolled files left uncompressed are compressed on activation.
+     */
+    public void testCompression() throws Exception {
+        File old = new File("output/drfa-gz.log.2001-02-16");
+        File other = new File("output/drfa-gz.log.old");
+        new File(old.getPath() + ".gz").delete();
+        new File(other.getPath() + ".gz").delete();
+        FileOutputStream os = new FileOutputStream(old);
+        os.write("old\n".getBytes());
+        os.close();
+        new FileOutputStream(other).close();
+
+        DailyRollingFileAppender appender = new DailyRollingFileAppender();
+        appender.setFile("output/drfa-gz.log");
+        appender.setAppend(false);
+        appender.setDatePattern("'.'yyyy-MM-dd");
+        appender.setLayout(new PatternLayout("%m%n"));
+        appender.setCompression("gz");
+        assertEquals("gz", appender.getCompression());
+        appender.activateOptions();
+        assertEquals("old", readCompressed(old));
+        assertTrue(other.exists());
+
+        String today = new SimpleDateFormat("'.'yyyy-MM-dd").format(new Date());
+        File rolled = new File("output/drfa-gz.log" + today);
+        new File(rolled.getPath() + ".gz").delete();
+        Logger logger = Logger.getLogger(DRFATestCase.class);
+        appender.doAppend(new LoggingEvent(
+            Logger.class.getName(), logger, Level.INFO, "first", null));
+        appender.now.setTime(System.currentTimeMillis() + 2 * 86400000L);
+        appender.rollOver();
+        appender.close();
+        assertEquals("first", readCompressed(rolled));
+        assertEquals(0, new File("output/drfa-gz.log").length());
+    }
+
     /** Check that the computed rollover period for a pattern containing a week as the finest unit is set to be
      * a week.  Due to a locale mismatch this was incorrect in non-English locales.  See bug 40888.
      *
@@ -64,6 +64,57 @@ public class EnhancedPatternLayoutTest extends LayoutTest {
     assertEquals(buf.toString(), result);
   }
 
+  /**
+   * Tests formatsInPlace and that subclasses overriding
+   * format(LoggingEvent) are honored when formatting into a buffer.
+   */
+  public void testFormatsInPlace() {
+    Logger logger = Logger.getLogger("org.apache.log4j.LayoutTest");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    assertTrue(createLayout().formatsInPlace());
+    EnhancedPatternLayout overridden = new EnhancedPatternLayout("%m") {
+        public String format(final LoggingEvent event) {
+          return "overridden " + super.format(event);
+        }
+      };
+    assertFalse(overridden.formatsInPlace());
+    StringBuffer buf = new StringBuffer();
+    overridden.format(buf, event);
+    assertEquals("overridden Hello, World", buf.toString());
+  }
+
+  /**
+   * Tests that layouts with the same pattern share their output.
+   */
+  public void testShareOutput() {
+    Logger logger = Logger.getLogger("org.apache.log4j.LayoutTest");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    EnhancedPatternLayout first = new EnhancedPatternLayout("%p %m");
+    EnhancedPatternLayout second = new EnhancedPatternLayout("%p %m");
+    EnhancedPatternLayout other = new EnhancedPatternLayout("%m");
+    assertFalse(first.getShareOutput());
+    first.setShareOutput(true);
+    second.setShareOutput(true);
+    other.setShareOutput(true);
+    String output = first.format(event);
+    assertEquals("INFO Hello, World", output);
+    assertSame(output, second.format(event));
+    assertEquals("Hello, World", other.format(event));
+    StringBuffer buf = new StringBuffer("> ");
+    second.format(buf, event);
+    assertEquals("> INFO Hello, World", buf.toString());
+    buf.setLength(0);
+    first.format(buf, event);
+    assertEquals("INFO Hello, World", buf.toString());
+    PatternLayout bridged = new PatternLayout("%p %m");
+    bridged.setShareOutput(true);
+    assertEquals("INFO Hello, World", bridged.format(event));
+  }
+
   /**
    * Tests getPatternFormat().
    */
@@ -45,4 +45,32 @@ public class EnhancedThrowableRendererTest extends TestCase {
             assertNotNull(strRep[i]);
         }
     }
+
+    /**
+     * Render the same exception with different context class loaders.
+     */
+    public void testRenderWithContextClassLoader() {
+        Exception ex = new Exception();
+        String[] strRep = new EnhancedThrowableRenderer().doRender(ex);
+        String frame = "\tat " + EnhancedThrowableRendererTest.class.getName()
+                + ".testRenderWithContextClassLoader(";
+        assertTrue(strRep[1].startsWith(frame));
+        assertTrue(strRep[1].endsWith("]"));
+
+        Thread thread = Thread.currentThread();
+        ClassLoader loader = thread.getContextClassLoader();
+        try {
+            thread.setContextClassLoader(new ClassLoader(loader) {});
+            String[] other = new EnhancedThrowableRenderer().doRender(ex);
+            assertEquals(strRep.length, other.length);
+            for (int i = 0; i < strRep.length; i++) {
+                assertEquals(strRep[i], other[i]);
+            }
+            thread.setContextClassLoader(null);
+            other = new EnhancedThrowableRenderer().doRender(ex);
+            assertEquals(strRep[1], other[1]);
+        } finally {
+            thread.setContextClassLoader(loader);
+        }
+    }
 }
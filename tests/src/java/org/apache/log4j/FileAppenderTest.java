@@ -19,10 +19,19 @@ package org.apache.log4j;
 
 import junit.framework.TestCase;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 
 import java.lang.reflect.Method;
 
+import org.apache.log4j.spi.LoggingEvent;
+import org.apache.log4j.varia.LevelMatchFilter;
+import org.apache.log4j.varia.DenyAllFilter;
+
 
 /**
  *
@@ -83,4 +92,271 @@ public class FileAppenderTest extends TestCase {
     Priority debug = Level.DEBUG;
     assertTrue(appender.isAsSevereAsThreshold(debug));
   }
+
+  /**
+   * Tests that a batch of events is written in order after applying
+   * the threshold and the filters.
+   * @throws IOException if the file cannot be read.
+   */
+  public void testBatchAppend() throws IOException {
+    File file = new File("output/batch.log");
+    file.delete();
+    FileAppender appender = new FileAppender();
+    appender.setFile(file.getPath());
+    appender.setLayout(new PatternLayout("%m%n"));
+    appender.setThreshold(Level.INFO);
+    LevelMatchFilter warnFilter = new LevelMatchFilter();
+    warnFilter.setLevelToMatch("WARN");
+    warnFilter.setAcceptOnMatch(false);
+    appender.addFilter(warnFilter);
+    appender.activateOptions();
+
+    Logger logger = Logger.getLogger(FileAppenderTest.class);
+    LoggingEvent[] events = new LoggingEvent[] {
+      new LoggingEvent(Logger.class.getName(), logger, Level.INFO, "one", null),
+      new LoggingEvent(Logger.class.getName(), logger, Level.DEBUG, "two", null),
+      new LoggingEvent(Logger.class.getName(), logger, Level.WARN, "three", null),
+      new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, "four", null),
+      new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, "five", null)
+    };
+    appender.doAppend(events, 4);
+    assertEquals("two", events[1].getMessage());
+
+    appender.addFilter(new DenyAllFilter());
+    appender.doAppend(events, 5);
+    appender.close();
+
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      assertEquals("one", reader.readLine());
+      assertEquals("four", reader.readLine());
+      assertNull(reader.readLine());
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Tests that filters linked through Filter.setNext after addFilter
+   * are applied.
+   * @throws IOException if the file cannot be read.
+   */
+  public void testFilterChainNext() throws IOException {
+    File file = new File("output/filternext.log");
+    file.delete();
+    FileAppender appender = new FileAppender();
+    appender.setFile(file.getPath());
+    appender.setLayout(new PatternLayout("%m%n"));
+    LevelMatchFilter infoFilter = new LevelMatchFilter();
+    infoFilter.setLevelToMatch("INFO");
+    appender.addFilter(infoFilter);
+    appender.getFilter().setNext(new DenyAllFilter());
+    appender.activateOptions();
+
+    Logger logger = Logger.getLogger(FileAppenderTest.class);
+    appender.doAppend(new LoggingEvent(Logger.class.getName(), logger,
+      Level.DEBUG, "denied", null));
+    appender.doAppend(new LoggingEvent(Logger.class.getName(), logger,
+      Level.INFO, "accepted", null));
+    appender.close();
+
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      assertEquals("accepted", reader.readLine());
+      assertNull(reader.readLine());
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Tests that a repeated throwable is written as a reference to
+   * its first occurrence when TraceReferences is set.
+   * @throws IOException if the file cannot be read.
+   */
+  public void testTraceReferences() throws IOException {
+    File file = new File("output/tracerefs.log");
+    file.delete();
+    FileAppender appender = new FileAppender();
+    appender.setFile(file.getPath());
+    appender.setLayout(new PatternLayout("%m%n"));
+    appender.setTraceReferences(true);
+    appender.activateOptions();
+
+    Logger logger = Logger.getLogger(FileAppenderTest.class);
+    for (int i = 0; i < 2; i++) {
+      appender.doAppend(new LoggingEvent(Logger.class.getName(), logger,
+        Level.ERROR, "failed", new Exception("repeated")));
+    }
+    appender.close();
+
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      assertEquals("failed", reader.readLine());
+      String first = reader.readLine();
+      assertTrue(first.startsWith("java.lang.Exception: repeated [trace #"));
+      String id = first.substring(first.indexOf('#'));
+      String line = reader.readLine();
+      assertTrue(line.startsWith("\tat "));
+      while (line.startsWith("\tat ")) {
+        line = reader.readLine();
+      }
+      assertEquals("failed", line);
+      assertEquals("java.lang.Exception: repeated [same as trace " + id,
+        reader.readLine());
+      assertNull(reader.readLine());
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Tests writing to the channel of the file, with an encoding
+   * and appending to an existing file.
+   * @throws IOException if the file cannot be read.
+   */
+  public void testChannelIO() throws IOException {
+    File file = new File("output/channel.log");
+    file.delete();
+    Logger logger = Logger.getLogger(FileAppenderTest.class);
+    for (int i = 0; i < 2; i++) {
+      FileAppender appender = new FileAppender();
+      appender.setFile(file.getPath());
+      appender.setLayout(new PatternLayout("%m%n"));
+      appender.setEncoding("UTF-8");
+      appender.setChannelIO(true);
+      appender.setImmediateFlush(false);
+      appender.setBufferSize(64);
+      assertTrue(appender.getChannelIO());
+      appender.activateOptions();
+      appender.doAppend(new LoggingEvent(Logger.class.getName(), logger,
+        Level.INFO, "caf\u00e9 " + i, null));
+      StringBuffer longMessage = new StringBuffer();
+      for (int j = 0; j < 100; j++) {
+        longMessage.append("\u20ac");
+      }
+      appender.doAppend(new LoggingEvent(Logger.class.getName(), logger,
+        Level.INFO, longMessage.toString(), null));
+      appender.close();
+    }
+
+    BufferedReader reader = new BufferedReader(
+      new InputStreamReader(new FileInputStream(file), "UTF-8"));
+    try {
+      for (int i = 0; i < 2; i++) {
+        assertEquals("caf\u00e9 " + i, reader.readLine());
+        assertEquals(100, reader.readLine().length());
+      }
+      assertNull(reader.readLine());
+    } finally {
+      reader.close();
+    }
+    assertEquals(2 * (7 + 300) + 4 * Layout.LINE_SEP.length(), file.length());
+  }
+
+  /**
+   * Creates an appender committing 10 character events in groups.
+   * @param file file.
+   * @param flushInterval flush interval in milliseconds.
+   * @return activated appender.
+   */
+  private static FileAppender createGroupCommitAppender(final File file,
+                                                        final long flushInterval) {
+    file.delete();
+    FileAppender appender = new FileAppender();
+    appender.setFile(file.getPath());
+    appender.setAppend(false);
+    appender.setLayout(new PatternLayout("%m\n"));
+    appender.setFlushInterval(flushInterval);
+    appender.setFlushSize(100);
+    appender.setFlushLevel(Level.ERROR);
+    appender.activateOptions();
+    return appender;
+  }
+
+  /**
+   * Appends a 10 character event.
+   * @param appender appender.
+   * @param level level.
+   */
+  private static void append(final Appender appender, final Level level) {
+    Logger logger = Logger.getLogger(FileAppenderTest.class);
+    appender.doAppend(new LoggingEvent(Logger.class.getName(), logger,
+      level, "123456789", null));
+  }
+
+  /**
+   * Tests that FlushSize and FlushLevel trigger a flush when
+   * FlushInterval is set.
+   */
+  public void testGroupCommit() throws IOException {
+    File file = new File("output/groupcommit.log");
+    FileAppender appender = createGroupCommitAppender(file, 60000);
+    assertEquals(60000, appender.getFlushInterval());
+    assertEquals(100, appender.getFlushSize());
+    assertEquals(Level.ERROR, appender.getFlushLevel());
+    assertTrue(appender.getImmediateFlush());
+    for (int i = 0; i < 9; i++) {
+      append(appender, Level.INFO);
+    }
+    assertEquals(0, file.length());
+    append(appender, Level.INFO);
+    assertEquals(100, file.length());
+
+    append(appender, Level.WARN);
+    assertEquals(100, file.length());
+    append(appender, Level.ERROR);
+    assertEquals(120, file.length());
+
+    LoggingEvent[] events = new LoggingEvent[3];
+    Logger logger = Logger.getLogger(FileAppenderTest.class);
+    for (int i = 0; i < events.length; i++) {
+      events[i] = new LoggingEvent(Logger.class.getName(), logger,
+        Level.INFO, "123456789", null);
+    }
+    appender.doAppend(events, events.length);
+    assertEquals(120, file.length());
+    append(appender, Level.FATAL);
+    assertEquals(160, file.length());
+    appender.close();
+  }
+
+  /**
+   * Tests that pending events are flushed at the end of FlushInterval.
+   */
+  public void testGroupCommitInterval() throws Exception {
+    File file = new File("output/groupcommit-interval.log");
+    FileAppender appender = createGroupCommitAppender(file, 50);
+    append(appender, Level.INFO);
+    append(appender, Level.INFO);
+    for (int i = 0; i < 100 && file.length() == 0; i++) {
+      Thread.sleep(20);
+    }
+    assertEquals(20, file.length());
+    append(appender, Level.INFO);
+    for (int i = 0; i < 100 && file.length() == 20; i++) {
+      Thread.sleep(20);
+    }
+    assertEquals(30, file.length());
+    appender.close();
+  }
+
+  /**
+   * Tests that a layout returning null does not stop appending.
+   */
+  public void testNullLayoutOutput() throws IOException {
+    File file = new File("output/nulllayout.log");
+    FileAppender appender = new FileAppender();
+    appender.setFile(file.getPath());
+    appender.setAppend(false);
+    appender.setLayout(new SimpleLayout() {
+      public String format(final LoggingEvent event) {
+        return null;
+      }
+    });
+    appender.activateOptions();
+    append(appender, Level.INFO);
+    appender.close();
+    assertEquals(0, file.length());
+  }
 }
@@ -141,6 +141,30 @@ public class LayoutTest extends TestCase {
     assertEquals("Mock", result);
   }
 
+  /**
+   * Tests that formatting into a buffer appends the output of
+   * format(LoggingEvent).
+   * @throws Exception derived tests, particular XMLLayoutTest, may throw exceptions.
+   */
+  public void testFormatIntoBuffer() throws Exception {
+    Logger logger = Logger.getLogger("org.apache.log4j.LayoutTest");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    Layout layout = createLayout();
+    StringBuffer buf = new StringBuffer("prefix ");
+    layout.format(buf, event);
+    assertEquals("prefix " + layout.format(event), buf.toString());
+  }
+
+  /**
+   * Tests that formatsInPlace is false for layouts only
+   * implementing format(LoggingEvent).
+   */
+  public void testFormatsInPlace() {
+    assertFalse(new MockLayout().formatsInPlace());
+  }
+
   /**
    * Concrete Layout class for tests.
    */
@@ -329,6 +329,90 @@ public class LoggerTestCase extends TestCase {
     assertSame(a0, a1);
   }
 
+  /**
+   * Tests that loggers are found again once the lock-free index
+   * of the hierarchy has grown and after it has been cleared.
+   * @since 1.2.18
+   */
+  public
+  void testHierarchyLookup() {
+    Hierarchy h = new Hierarchy(new RootLogger((Level) Level.ERROR));
+    Logger[] loggers = new Logger[1000];
+    for(int i = 0; i < loggers.length; i++) {
+      loggers[i] = h.getLogger("a.b" + (i % 10) + ".c" + i);
+    }
+    for(int i = 0; i < 10; i++) {
+      h.getLogger("a.b" + i);
+    }
+    for(int i = 0; i < loggers.length; i++) {
+      String name = "a.b" + (i % 10) + ".c" + i;
+      assertSame(loggers[i], h.getLogger(name));
+      assertSame(loggers[i], h.exists(name));
+      assertEquals("a.b" + (i % 10), loggers[i].getParent().getName());
+    }
+    assertNull(h.exists("a.b11"));
+
+    h.clear();
+    assertNull(h.exists("a.b0.c0"));
+    assertNotSame(loggers[0], h.getLogger("a.b0.c0"));
+  }
+
+  /**
+   * Tests that cached enabled levels follow changes of levels,
+   * threshold and configuration resets.
+   * @since 1.2.18
+   */
+  public
+  void testEnabledLevelInvalidation() {
+    Hierarchy h = new Hierarchy(new RootLogger((Level) Level.ERROR));
+    Logger a_b_c = h.getLogger("a.b.c");
+    assertFalse(a_b_c.isInfoEnabled());
+
+    Logger a = h.getLogger("a");
+    a.setLevel(Level.DEBUG);
+    assertTrue(a_b_c.isDebugEnabled());
+
+    // intermediate logger created after its descendant was checked
+    Logger a_b = h.getLogger("a.b");
+    assertTrue(a_b.isDebugEnabled());
+    a_b.setLevel(Level.WARN);
+    assertFalse(a_b_c.isInfoEnabled());
+    assertTrue(a_b_c.isEnabledFor(Level.WARN));
+
+    h.setThreshold(Level.FATAL);
+    assertFalse(a_b_c.isEnabledFor(Level.ERROR));
+    h.setThreshold(Level.ALL);
+    assertTrue(a_b_c.isEnabledFor(Level.ERROR));
+
+    h.getRootLogger().setLevel(Level.OFF);
+    h.resetConfiguration();
+    assertTrue(a_b_c.isDebugEnabled());
+    assertFalse(a_b_c.isTraceEnabled());
+  }
+
+  /**
+   * Tests that a level can be set while another thread holds the
+   * logger table of the hierarchy, as configurators and shutdown do.
+   * @since 1.2.18
+   */
+  public
+  void testSetLevelWithoutHierarchyLock() throws InterruptedException {
+    final Hierarchy h = new Hierarchy(new RootLogger((Level) Level.ERROR));
+    final Logger a = h.getLogger("a");
+    assertFalse(a.isInfoEnabled());
+    Thread setter = new Thread() {
+      public void run() {
+        a.setLevel(Level.INFO);
+      }
+    };
+    synchronized(h.ht) {
+      setter.start();
+      setter.join(5000);
+      assertFalse(setter.isAlive());
+    }
+    assertTrue(a.isInfoEnabled());
+  }
+
   /**
    * Tests logger.trace(Object).
    * @since 1.2.12
@@ -19,7 +19,9 @@ package org.apache.log4j;
 import java.lang.ref.Reference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Hashtable;
 import junit.framework.TestCase;
+import org.apache.log4j.spi.LoggingEvent;
 
 /**
  * Test for MDC
@@ -49,6 +51,51 @@ public class MDCTestCase extends TestCase {
     checkThreadLocalsForLeaks();
   }
 
+  public void testSnapshotIsShared() throws Exception {
+    MDC.put("key", "some value");
+    Logger logger = Logger.getLogger(MDCTestCase.class);
+    LoggingEvent event = new LoggingEvent(
+      Logger.class.getName(), logger, Level.INFO, "Hello, World", null);
+    Hashtable snapshot = MDC.getSnapshot();
+    event.getMDCCopy();
+    assertSame(snapshot, MDC.getSnapshot());
+
+    MDC.put("other", "other value");
+    MDC.remove("key");
+    assertEquals("some value", event.getProperty("key"));
+    assertFalse(event.getProperties().containsKey("other"));
+
+    event.setProperty("key", "changed");
+    assertEquals("changed", event.getProperty("key"));
+    assertEquals("some value", snapshot.get("key"));
+    assertNull(MDC.get("key"));
+  }
+
+  public void testChildThreadInherits() throws Exception {
+    MDC.put("key", "parent value");
+    final Object[] seen = new Object[1];
+    Thread child = new Thread() {
+      public void run() {
+        seen[0] = MDC.get("key");
+        MDC.put("key", "child value");
+      }
+    };
+    child.start();
+    child.join();
+    assertEquals("parent value", seen[0]);
+    assertEquals("parent value", MDC.get("key"));
+  }
+
+  public void testContextWritesThrough() throws Exception {
+    MDC.put("key", "some value");
+    Hashtable context = MDC.getContext();
+    context.put("other", "other value");
+    assertEquals("other value", MDC.get("other"));
+    context.clear();
+    assertNull(MDC.get("key"));
+    assertNull(MDC.getContext());
+  }
+
   private void checkThreadLocalsForLeaks() throws Exception {
 
       // this code is heavily based on code in org.apache.catalina.loader.WebappClassLoader
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j;
+
+import junit.framework.TestCase;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.apache.log4j.spi.LoggingEvent;
+
+
+/**
+ *
+ * MappedFileAppender tests.
+ *
+ */
+public class MappedFileAppenderTest extends TestCase {
+  /**
+   * Create new test.
+   * @param name test name.
+   */
+  public MappedFileAppenderTest(final String name) {
+    super(name);
+  }
+
+  /**
+   * Creates an appender writing 10 byte lines.
+   * @param file file.
+   * @param append true to append to the file.
+   * @return activated appender.
+   */
+  private static MappedFileAppender createAppender(final File file,
+                                                   final boolean append) {
+    MappedFileAppender appender = new MappedFileAppender();
+    appender.setFile(file.getPath());
+    appender.setAppend(append);
+    appender.setLayout(new PatternLayout("%m\n"));
+    appender.setRegionSize("4KB");
+    appender.setBufferSize(256);
+    appender.setMaxFileSize("1GB");
+    appender.activateOptions();
+    return appender;
+  }
+
+  /**
+   * Appends numbered 10 byte lines.
+   * @param appender appender.
+   * @param start first number.
+   * @param count number of lines.
+   */
+  private static void append(final Appender appender,
+                             final int start,
+                             final int count) {
+    Logger logger = Logger.getLogger(MappedFileAppenderTest.class);
+    for (int i = start; i < start + count; i++) {
+      String msg = "00000000" + i;
+      appender.doAppend(new LoggingEvent(Logger.class.getName(), logger,
+        Level.INFO, msg.substring(msg.length() - 9), null));
+    }
+  }
+
+  /**
+   * Checks that a file contains numbered 10 byte lines.
+   * @param file file.
+   * @param start first number.
+   * @param count number of lines.
+   */
+  private static void assertLines(final File file,
+                                  final int start,
+                                  final int count) throws IOException {
+    assertEquals(10L * count, file.length());
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      for (int i = start; i < start + count; i++) {
+        assertEquals(i, Integer.parseInt(reader.readLine()));
+      }
+      assertNull(reader.readLine());
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Tests that output crossing several regions is truncated on close.
+   */
+  public void testRegions() throws IOException {
+    File file = new File("output/mapped.log");
+    file.delete();
+    MappedFileAppender appender = createAppender(file, false);
+    append(appender, 0, 1000);
+    assertEquals(3 * 4096, file.length());
+    appender.close();
+    assertLines(file, 0, 1000);
+  }
+
+  /**
+   * Tests appending to an existing file.
+   */
+  public void testAppend() throws IOException {
+    File file = new File("output/mapped-append.log");
+    file.delete();
+    MappedFileAppender appender = createAppender(file, true);
+    append(appender, 0, 5);
+    appender.close();
+    appender = createAppender(file, true);
+    append(appender, 5, 500);
+    appender.close();
+    assertLines(file, 0, 505);
+
+    appender = createAppender(file, false);
+    append(appender, 0, 3);
+    appender.close();
+    assertLines(file, 0, 3);
+  }
+
+  /**
+   * Tests appending to a file which was not closed and ends with the
+   * zero bytes of its last mapped region.
+   */
+  public void testAppendAfterUnclosed() throws IOException {
+    File file = new File("output/mapped-unclosed.log");
+    file.delete();
+    MappedFileAppender appender = createAppender(file, false);
+    append(appender, 0, 5);
+    appender.close();
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    raf.setLength(4096);
+    raf.close();
+
+    appender = createAppender(file, true);
+    assertEquals(50L, file.length());
+    append(appender, 5, 500);
+    appender.close();
+    assertLines(file, 0, 505);
+  }
+
+  /**
+   * Tests rolling over on MaxFileSize.
+   */
+  public void testRollOver() throws IOException {
+    File file = new File("output/mapped-roll.log");
+    File backup1 = new File("output/mapped-roll.log.1");
+    File backup2 = new File("output/mapped-roll.log.2");
+    file.delete();
+    backup1.delete();
+    backup2.delete();
+    MappedFileAppender appender = createAppender(file, false);
+    appender.setMaxFileSize("1000");
+    appender.setMaxBackupIndex(1);
+    append(appender, 0, 250);
+    appender.close();
+    assertLines(backup1, 100, 100);
+    assertLines(file, 200, 50);
+    assertFalse(backup2.exists());
+  }
+
+  /**
+   * Tests forcing output crossing several regions.
+   */
+  public void testForceRegions() throws Exception {
+    File file = new File("output/mapped-forced.log");
+    file.delete();
+    MappedFileAppender appender = new MappedFileAppender();
+    appender.setFile(file.getPath());
+    appender.setAppend(false);
+    appender.setLayout(new PatternLayout("%m\n"));
+    appender.setRegionSize("4KB");
+    appender.setForceInterval(10);
+    appender.activateOptions();
+    append(appender, 0, 1000);
+    Thread.sleep(50);
+    append(appender, 1000, 1000);
+    appender.close();
+    assertLines(file, 0, 2000);
+  }
+
+  /**
+   * Tests the default and setting of ForceInterval and RegionSize.
+   */
+  public void testForceInterval() throws IOException {
+    MappedFileAppender appender = new MappedFileAppender();
+    assertEquals(1000, appender.getForceInterval());
+    assertEquals("33554432", appender.getRegionSize());
+    appender.setRegionSize("4KB");
+    assertEquals("4096", appender.getRegionSize());
+    File file = new File("output/mapped-force.log");
+    file.delete();
+    appender = new MappedFileAppender(new PatternLayout("%m\n"),
+      file.getPath(), false);
+    appender.setForceInterval(0);
+    assertEquals(0, appender.getForceInterval());
+    append(appender, 0, 1);
+    appender.close();
+    assertLines(file, 0, 1);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.log4j;
+
+import java.util.Stack;
+import junit.framework.TestCase;
+
+/**
+ * Test for NDC.
+ */
+public class NDCTestCase extends TestCase {
+
+  public void setUp() {
+    NDC.remove();
+  }
+
+  public void tearDown() {
+    NDC.remove();
+  }
+
+  public void testPushPop() {
+    NDC.push("a");
+    NDC.push("b");
+    assertEquals("a b", NDC.get());
+    assertEquals(2, NDC.getDepth());
+    assertEquals("b", NDC.pop());
+    assertEquals("a", NDC.peek());
+    NDC.clear();
+    assertEquals(0, NDC.getDepth());
+    assertNull(NDC.get());
+  }
+
+  public void testClonedStackIsNotModified() {
+    NDC.push("a");
+    Stack clone = NDC.cloneStack();
+    NDC.push("b");
+    NDC.setMaxDepth(0);
+    assertEquals(1, clone.size());
+    NDC.inherit(clone);
+    assertEquals("a", NDC.get());
+    NDC.pop();
+    NDC.clear();
+    assertEquals(1, clone.size());
+  }
+
+  public void testModifiedCloneDoesNotAffectContext() {
+    NDC.push("a");
+    Stack clone = NDC.cloneStack();
+    clone.clear();
+    assertEquals("a", NDC.get());
+    assertNotSame(clone, NDC.cloneStack());
+  }
+
+  public void testInheritInOtherThread() throws InterruptedException {
+    NDC.push("parent");
+    final Stack stack = NDC.cloneStack();
+    final String[] result = new String[2];
+    Thread child = new Thread() {
+      public void run() {
+        NDC.inherit(stack);
+        NDC.push("child");
+        result[0] = NDC.get();
+        result[1] = NDC.pop();
+        NDC.remove();
+      }
+    };
+    child.start();
+    child.join();
+    assertEquals("parent child", result[0]);
+    assertEquals("child", result[1]);
+    assertEquals("parent", NDC.get());
+    assertEquals(1, stack.size());
+  }
+
+  public void testThreadsDoNotShareContext() throws InterruptedException {
+    NDC.push("main");
+    final String[] result = new String[1];
+    Thread other = new Thread() {
+      public void run() {
+        result[0] = NDC.get();
+      }
+    };
+    other.start();
+    other.join();
+    assertNull(result[0]);
+    assertEquals("main", NDC.get());
+  }
+}
@@ -113,6 +113,134 @@ public class PatternLayoutTest extends LayoutTest {
     assertEquals("[", result.substring(0, 1));
   }
 
+  /**
+   * Tests that formatting into a buffer appends the same output
+   * as format(LoggingEvent).
+   */
+  public void testFormatIntoBuffer() {
+    Logger logger = Logger.getLogger("org.apache.log4j.PatternLayoutTest");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    PatternLayout layout = new PatternLayout("%r %d{ABSOLUTE} %-6p [%t] %c - %m%n");
+    StringBuffer buf = new StringBuffer("prefix ");
+    layout.format(buf, event);
+    assertEquals("prefix " + layout.format(event), buf.toString());
+  }
+
+  /**
+   * Tests padded and truncated levels, formatted ahead of time
+   * for the standard levels.
+   */
+  public void testPaddedLevel() {
+    Logger logger = Logger.getLogger("org.apache.log4j.PatternLayoutTest");
+    PatternLayout layout = new PatternLayout("[%-6p][%6p][%.2p][%-3.4p]");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    assertEquals("[INFO  ][  INFO][FO][INFO]", layout.format(event));
+    event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.ERROR, "Hello, World", null);
+    assertEquals("[ERROR ][ ERROR][OR][RROR]", layout.format(event));
+    event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger,
+        new Level(Level.INFO_INT, "CUSTOMIZED", 6) {}, "Hello, World", null);
+    assertEquals("[CUSTOMIZED][CUSTOMIZED][ED][IZED]", layout.format(event));
+  }
+
+  /**
+   * Tests that adjacent literals are fused without changing the output.
+   */
+  public void testAdjacentLiterals() {
+    Logger logger = Logger.getLogger("org.apache.log4j.PatternLayoutTest");
+    PatternLayout layout = new PatternLayout("a%%b%nc%qd%m");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    assertEquals("a%b" + Layout.LINE_SEP + "c%qdHello, World", layout.format(event));
+  }
+
+  /**
+   * Tests formatsInPlace and that subclasses overriding
+   * format(LoggingEvent) are honored when formatting into a buffer.
+   */
+  public void testFormatsInPlace() {
+    Logger logger = Logger.getLogger("org.apache.log4j.PatternLayoutTest");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    assertTrue(new PatternLayout().formatsInPlace());
+    assertTrue(new DerivedPatternLayout().formatsInPlace());
+    PatternLayout overridden = new PatternLayout() {
+        public String format(final LoggingEvent event) {
+          return "overridden " + super.format(event);
+        }
+      };
+    assertFalse(overridden.formatsInPlace());
+    StringBuffer buf = new StringBuffer();
+    overridden.format(buf, event);
+    assertEquals("overridden Hello, World" + Layout.LINE_SEP, buf.toString());
+  }
+
+  /**
+   * Tests that layouts with the same pattern share their output.
+   */
+  public void testShareOutput() {
+    Logger logger = Logger.getLogger("org.apache.log4j.PatternLayoutTest");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    PatternLayout first = new PatternLayout("%p %m%n");
+    PatternLayout second = new PatternLayout("%p %m%n");
+    PatternLayout other = new PatternLayout("%m%n");
+    assertFalse(first.getShareOutput());
+    String output = first.format(event);
+    assertNotSame(output, second.format(event));
+
+    first.setShareOutput(true);
+    second.setShareOutput(true);
+    other.setShareOutput(true);
+    assertTrue(first.getShareOutput());
+    output = first.format(event);
+    assertEquals("INFO Hello, World" + Layout.LINE_SEP, output);
+    assertSame(output, second.format(event));
+    assertEquals("Hello, World" + Layout.LINE_SEP, other.format(event));
+
+    StringBuffer buf = new StringBuffer("> ");
+    first.format(buf, event);
+    assertEquals("> INFO Hello, World" + Layout.LINE_SEP, buf.toString());
+    buf.setLength(0);
+    second.format(buf, event);
+    assertEquals(output, buf.toString());
+
+    second.setConversionPattern("%m%n");
+    assertEquals("Hello, World" + Layout.LINE_SEP, second.format(event));
+  }
+
+  /**
+   * Tests that subclasses and changed event properties do not reuse
+   * shared output.
+   */
+  public void testShareOutputNotReused() {
+    Logger logger = Logger.getLogger("org.apache.log4j.PatternLayoutTest");
+    LoggingEvent event =
+      new LoggingEvent(
+        "org.apache.log4j.Logger", logger, Level.INFO, "Hello, World", null);
+    PatternLayout layout = new PatternLayout("%X{user} %m");
+    layout.setShareOutput(true);
+    PatternLayout derived = new DerivedPatternLayout();
+    derived.setConversionPattern("%X{user} %m");
+    derived.setShareOutput(true);
+    event.setProperty("user", "a");
+    assertEquals("a Hello, World", layout.format(event));
+    event.setProperty("user", "b");
+    assertEquals("b Hello, World", layout.format(event));
+    event.setProperty("user", "c");
+    assertEquals("c Hello, World", derived.format(event));
+  }
+
   /**
    * Class to ensure that protected members are still available.
    */
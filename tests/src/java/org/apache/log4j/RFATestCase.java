@@ -19,9 +19,18 @@ package org.apache.log4j;
 
 import junit.framework.TestCase;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
+
+import org.apache.log4j.helpers.FileCompressor;
 
 /**
  *  Test of RollingFileAppender.
@@ -92,6 +101,303 @@ public class RFATestCase extends TestCase {
       assertFalse(new File("output/RFA-test2.log.4").exists());
     }
 
+    /**
+     * Tests that the size of the file is counted in bytes when writing
+     * to its channel.
+     */
+    public void testChannelIO() throws Exception {
+      for (int i = 1; i <= 3; i++) {
+        new File("output/RFA-channel.log." + i).delete();
+      }
+      Logger logger = Logger.getLogger(RFATestCase.class);
+      Logger root = Logger.getRootLogger();
+      PatternLayout layout = new PatternLayout("%m\n");
+      RollingFileAppender rfa = new RollingFileAppender();
+      rfa.setName("ROLLING");
+      rfa.setLayout(layout);
+      rfa.setAppend(false);
+      rfa.setEncoding("UTF-8");
+      rfa.setChannelIO(true);
+      rfa.setMaxBackupIndex(3);
+      rfa.setMaximumFileSize(105);
+      rfa.setFile("output/RFA-channel.log");
+      rfa.activateOptions();
+      root.addAppender(rfa);
+
+      // Write exactly 9 characters and 10 bytes with each log,
+      // the file rolls after 11 logs instead of 12
+      for (int i = 0; i < 30; i++) {
+        if (i < 10) {
+          logger.debug("H\u00e9llo--" + i);
+        } else {
+          logger.debug("H\u00e9llo-" + i);
+        }
+      }
+
+      assertEquals(110, new File("output/RFA-channel.log.1").length());
+      assertEquals(110, new File("output/RFA-channel.log.2").length());
+      assertFalse(new File("output/RFA-channel.log.3").exists());
+    }
+
+    /**
+     * Waits for the background compression or deletion of a file.
+     * @param file uncompressed file.
+     */
+    private static void waitForRemoval(final File file) throws InterruptedException {
+      for (int i = 0; i < 250 && file.exists(); i++) {
+        Thread.sleep(20);
+      }
+      assertFalse(file.exists());
+    }
+
+    /**
+     * Reads a compressed file.
+     * @param file compressed file.
+     * @return uncompressed content.
+     */
+    private static String readCompressed(final File file) throws IOException {
+      InputStream in;
+      if (file.getName().endsWith(".zip")) {
+        ZipInputStream zip = new ZipInputStream(new FileInputStream(file));
+        assertNotNull(zip.getNextEntry());
+        in = zip;
+      } else {
+        in = new GZIPInputStream(new FileInputStream(file));
+      }
+      try {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[256];
+        for (int n = in.read(buf); n >= 0; n = in.read(buf)) {
+          out.write(buf, 0, n);
+        }
+        return out.toString("US-ASCII");
+      } finally {
+        in.close();
+      }
+    }
+
+    /**
+     * Tests that backup files are compressed in the background and
+     * that compressed backups are renamed on rollover.
+     */
+    public void testCompression() throws Exception {
+      for (int i = 1; i <= 4; i++) {
+        new File("output/RFA-gz.log." + i).delete();
+        new File("output/RFA-gz.log." + i + ".gz").delete();
+      }
+      Logger logger = Logger.getLogger(RFATestCase.class);
+      Logger root = Logger.getRootLogger();
+      RollingFileAppender rfa = new RollingFileAppender();
+      rfa.setName("ROLLING");
+      rfa.setLayout(new PatternLayout("%m\n"));
+      rfa.setAppend(false);
+      rfa.setMaxBackupIndex(3);
+      rfa.setMaximumFileSize(100);
+      rfa.setCompression("gzip");
+      assertEquals("gz", rfa.getCompression());
+      rfa.setFile("output/RFA-gz.log");
+      rfa.activateOptions();
+      root.addAppender(rfa);
+
+      // 10 or 11 characters per log, the file rolls after every 10 logs
+      for (int i = 0; i < 45; i++) {
+        logger.debug("Hello---" + i);
+      }
+      root.removeAppender(rfa);
+      rfa.close();
+
+      for (int i = 1; i <= 3; i++) {
+        waitForRemoval(new File("output/RFA-gz.log." + i));
+        StringBuffer expected = new StringBuffer();
+        for (int j = 40 - 10 * i; j < 50 - 10 * i; j++) {
+          expected.append("Hello---").append(j).append('\n');
+        }
+        assertEquals(expected.toString(),
+          readCompressed(new File("output/RFA-gz.log." + i + ".gz")));
+      }
+      assertFalse(new File("output/RFA-gz.log.4").exists());
+      assertFalse(new File("output/RFA-gz.log.4.gz").exists());
+      assertEquals(55, new File("output/RFA-gz.log").length());
+    }
+
+    /**
+     * Tests that backup files left uncompressed are compressed
+     * on activation.
+     */
+    public void testResumeCompression() throws Exception {
+      File backup = new File("output/RFA-zip.log.1");
+      new File("output/RFA-zip.log.1.zip").delete();
+      FileWriter writer = new FileWriter(backup);
+      writer.write("Hello\n");
+      writer.close();
+
+      RollingFileAppender rfa = new RollingFileAppender();
+      rfa.setLayout(new PatternLayout("%m\n"));
+      rfa.setCompression("zip");
+      rfa.setFile("output/RFA-zip.log");
+      rfa.activateOptions();
+      rfa.close();
+
+      waitForRemoval(backup);
+      assertEquals("Hello\n",
+        readCompressed(new File("output/RFA-zip.log.1.zip")));
+    }
+
+    /**
+     * Tests that a backup file renamed while its compression was
+     * interrupted is restored and compressed on activation.
+     */
+    public void testResumeInterruptedCompression() throws Exception {
+      File backup = new File("output/RFA-tmp.log.1");
+      File snapshot = new File("output/RFA-tmp.log.1.tmp");
+      backup.delete();
+      new File("output/RFA-tmp.log.1.gz").delete();
+      FileWriter writer = new FileWriter(snapshot);
+      writer.write("Hello\n");
+      writer.close();
+
+      RollingFileAppender rfa = new RollingFileAppender();
+      rfa.setLayout(new PatternLayout("%m\n"));
+      rfa.setCompression("gz");
+      rfa.setFile("output/RFA-tmp.log");
+      rfa.activateOptions();
+      rfa.close();
+
+      waitForRemoval(backup);
+      waitForRemoval(snapshot);
+      assertEquals("Hello\n",
+        readCompressed(new File("output/RFA-tmp.log.1.gz")));
+    }
+
+    /**
+     * Tests that a file can be renamed while it is compressed.
+     */
+    public void testRenameWhileCompressing() throws Exception {
+      File file = new File("output/RFA-move.log.1");
+      File target = new File("output/RFA-move.log.2");
+      target.delete();
+      new File("output/RFA-move.log.1.gz").delete();
+      new File("output/RFA-move.log.2.gz").delete();
+      StringBuffer content = new StringBuffer();
+      for (int i = 0; i < 200000; i++) {
+        content.append("Hello---").append(i).append('\n');
+      }
+      FileWriter writer = new FileWriter(file);
+      writer.write(content.toString());
+      writer.close();
+
+      assertTrue(FileCompressor.submit(file, FileCompressor.GZ));
+      assertTrue(FileCompressor.rename(file, target, FileCompressor.GZ));
+      // the file is compressed under either name followed by ".tmp"
+      waitForRemoval(target);
+      waitForRemoval(new File("output/RFA-move.log.1.tmp"));
+      waitForRemoval(new File("output/RFA-move.log.2.tmp"));
+      assertFalse(file.exists());
+      assertFalse(new File("output/RFA-move.log.1.gz").exists());
+      assertEquals(content.toString(),
+        readCompressed(new File("output/RFA-move.log.2.gz")));
+    }
+
+    /**
+     * Deletes the log file and backup files of a test.
+     * @param prefix name of the log file followed by a dot.
+     */
+    private static void deleteBackups(final String prefix) {
+      File[] files = new File("output").listFiles();
+      for (int i = 0; i < files.length; i++) {
+        if (files[i].getName().startsWith(prefix)) {
+          files[i].delete();
+        }
+      }
+    }
+
+    /**
+     * Reads the first line of a file.
+     * @param file file.
+     * @return first line.
+     */
+    private static String readFirstLine(final File file) throws IOException {
+      BufferedReader reader = new BufferedReader(new FileReader(file));
+      try {
+        return reader.readLine();
+      } finally {
+        reader.close();
+      }
+    }
+
+    /**
+     * Tests that backup indexes increase from the newest backup
+     * and that the oldest backups are deleted.
+     */
+    public void testIncreasingIndex() throws Exception {
+      deleteBackups("RFA-inc.log.");
+      new FileWriter("output/RFA-inc.log.5").close();
+      Logger logger = Logger.getLogger(RFATestCase.class);
+      Logger root = Logger.getRootLogger();
+      RollingFileAppender rfa = new RollingFileAppender();
+      rfa.setName("ROLLING");
+      rfa.setLayout(new PatternLayout("%m\n"));
+      rfa.setAppend(false);
+      rfa.setMaxBackupIndex(3);
+      rfa.setMaximumFileSize(100);
+      rfa.setIncreasingIndex(true);
+      assertTrue(rfa.getIncreasingIndex());
+      rfa.setFile("output/RFA-inc.log");
+      rfa.activateOptions();
+      root.addAppender(rfa);
+
+      // the file rolls after every 10 logs to .6, .7, .8 and .9
+      for (int i = 0; i < 45; i++) {
+        logger.debug("Hello---" + i);
+      }
+      root.removeAppender(rfa);
+      rfa.close();
+
+      waitForRemoval(new File("output/RFA-inc.log.6"));
+      assertFalse(new File("output/RFA-inc.log.5").exists());
+      for (int i = 7; i <= 9; i++) {
+        assertEquals("Hello---" + (i * 10 - 60),
+          readFirstLine(new File("output/RFA-inc.log." + i)));
+      }
+      assertFalse(new File("output/RFA-inc.log.10").exists());
+      assertEquals("Hello---40", readFirstLine(new File("output/RFA-inc.log")));
+    }
+
+    /**
+     * Tests that backups beyond MaxBackupIndex are deleted and others
+     * compressed on activation when IncreasingIndex is set.
+     */
+    public void testIncreasingIndexActivation() throws Exception {
+      deleteBackups("RFA-incgz.log.");
+      for (int i = 1; i <= 5; i++) {
+        FileWriter writer = new FileWriter("output/RFA-incgz.log." + i);
+        writer.write("Hello " + i + "\n");
+        writer.close();
+      }
+      new FileWriter("output/RFA-incgz.log.old").close();
+
+      RollingFileAppender rfa = new RollingFileAppender();
+      rfa.setLayout(new PatternLayout("%m\n"));
+      rfa.setMaxBackupIndex(2);
+      rfa.setIncreasingIndex(true);
+      rfa.setCompression("gz");
+      rfa.setFile("output/RFA-incgz.log");
+      rfa.activateOptions();
+      rfa.close();
+
+      for (int i = 1; i <= 5; i++) {
+        waitForRemoval(new File("output/RFA-incgz.log." + i));
+      }
+      for (int i = 1; i <= 3; i++) {
+        assertFalse(new File("output/RFA-incgz.log." + i + ".gz").exists());
+      }
+      for (int i = 4; i <= 5; i++) {
+        assertEquals("Hello " + i + "\n",
+          readCompressed(new File("output/RFA-incgz.log." + i + ".gz")));
+      }
+      assertTrue(new File("output/RFA-incgz.log.old").exists());
+    }
+
     /**
      * Tests 2 parameter constructor.
      * @throws IOException if IOException during test.
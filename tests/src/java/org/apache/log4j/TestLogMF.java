@@ -17,6 +17,7 @@
 package org.apache.log4j;
 
 import junit.framework.TestCase;
+import org.apache.log4j.spi.LoggingEvent;
 
 import java.io.CharArrayWriter;
 import java.text.MessageFormat;
@@ -1287,5 +1288,134 @@ public class TestLogMF extends TestCase {
         assertEquals(pattern, capture.getMessage());
     }
 
+    /**
+     * Test that a cached pattern is formatted with new arguments.
+     */
+    public void testRepeatedPattern() {
+        for (int i = 0; i < 3; i++) {
+            LogManager.resetConfiguration();
+            LogCapture capture = new LogCapture(Level.INFO);
+            LogMF.info(logger, "{1}, {0}{1}", "World", String.valueOf(i));
+            assertEquals(i + ", World" + i, capture.getMessage());
+        }
+    }
+
+    /**
+     * Test formatting doubles and dates from several threads at once.
+     * @throws InterruptedException if interrupted.
+     */
+    public void testConcurrentFormat() throws InterruptedException {
+        CharArrayWriter writer = new CharArrayWriter();
+        WriterAppender appender =
+                new WriterAppender(new PatternLayout("%m%n"), writer);
+        appender.activateOptions();
+        logger.addAppender(appender);
+        logger.setLevel(Level.INFO);
+        final Date date = new Date(0);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        LogMF.info(logger, "{0} {1}",
+                                new Double(Math.PI), date);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        String expected = NumberFormat.getInstance().format(Math.PI) + " "
+                + DateFormat.getDateTimeInstance(DateFormat.SHORT,
+                        DateFormat.SHORT).format(date);
+        String[] lines = writer.toString().split(Layout.LINE_SEP);
+        assertEquals(2000, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(expected, lines[i]);
+        }
+    }
 
+    /**
+     * Test that the message is formatted when logged by default.
+     */
+    public void testMessageIsEager() {
+        LogCapture capture = new LogCapture(Level.INFO);
+        final int[] count = new int[1];
+        Object world = new Object() {
+            public String toString() {
+                count[0]++;
+                return "World";
+            }
+        };
+        LogMF.info(logger, "Hello, {0}", world);
+        assertEquals(1, count[0]);
+        assertEquals("Hello, World", capture.getMessage());
+        assertEquals(1, count[0]);
+    }
+
+    /**
+     * Test that the message is only formatted when rendered, once,
+     * while an AsyncAppender defers rendering.
+     */
+    public void testMessageIsDeferred() {
+        AsyncAppender async = new AsyncAppender();
+        async.setDeferredRendering(true);
+        logger.addAppender(async);
+        try {
+            LogCapture capture = new LogCapture(Level.INFO);
+            final int[] count = new int[1];
+            Object world = new Object() {
+                public String toString() {
+                    count[0]++;
+                    return "World";
+                }
+            };
+            LogMF.info(logger, "Hello, {0}", world);
+            assertEquals(0, count[0]);
+            assertEquals("Hello, World", capture.getMessage());
+            assertEquals("Hello, World", capture.getMessage());
+            assertEquals(1, count[0]);
+        } finally {
+            logger.removeAppender(async);
+            async.close();
+        }
+    }
+
+    /**
+     * Test that the message is formatted at once when the deferring
+     * AsyncAppender is attached to another logger.
+     */
+    public void testMessageIsNotDeferredForOtherLogger() {
+        AsyncAppender async = new AsyncAppender();
+        async.setDeferredRendering(true);
+        Logger other = Logger.getLogger("org.apache.log4j.TestLogMF.other");
+        other.addAppender(async);
+        try {
+            VectorAppender appender = new VectorAppender();
+            logger.addAppender(appender);
+            LogMF.info(logger, "Hello, {0}", "World");
+            LoggingEvent event =
+              (LoggingEvent) appender.getVector().elementAt(0);
+            assertEquals("Hello, World", event.getMessage());
+        } finally {
+            other.removeAppender(async);
+            async.close();
+        }
+    }
+
+    /**
+     * Test that an argument failing to format does not reach the appender.
+     */
+    public void testFailingArgument() {
+        LogCapture capture = new LogCapture(Level.INFO);
+        Object bad = new Object() {
+            public String toString() {
+                throw new IllegalStateException("Intentional exception");
+            }
+        };
+        LogMF.info(logger, "Hello, {0}", bad);
+        assertEquals("Hello, {0}", capture.getMessage());
+    }
 }
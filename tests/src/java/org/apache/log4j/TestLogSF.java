@@ -1188,4 +1188,16 @@ public class TestLogSF extends TestCase {
         LogSF.info(logger, "\\{}\\{{}}, {}}{}\\{","Hello", "World");
         assertEquals("{}{Hello}, World}{}{", capture.getMessage());
     }
+
+    /**
+     * Test that a cached pattern is formatted with new arguments.
+     */
+    public void testRepeatedPattern() {
+        for (int i = 0; i < 3; i++) {
+            LogManager.resetConfiguration();
+            LogCapture capture = new LogCapture(Level.INFO);
+            LogSF.info(logger, "\\{{}}, {} {}", "Hello", String.valueOf(i));
+            assertEquals("{Hello}, " + i + " {}", capture.getMessage());
+        }
+    }
 }
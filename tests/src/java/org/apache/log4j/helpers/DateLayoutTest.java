@@ -26,6 +26,7 @@ import java.text.SimpleDateFormat;
 
 import java.util.TimeZone;
 import java.util.Calendar;
+import java.util.Date;
 
 
 /**
@@ -247,6 +248,86 @@ public class DateLayoutTest extends LayoutTest {
       assertEquals(expected, actual);
   }
 
+  /**
+   * Tests that ISO8601DateFormat instances for different time zones
+   * do not share formatted values.
+   */
+  public void testISO8601TimeZones() {
+      DateFormat gmt = new ISO8601DateFormat(TimeZone.getTimeZone("GMT"));
+      DateFormat chicago =
+        new ISO8601DateFormat(TimeZone.getTimeZone("America/Chicago"));
+      Date jul2 = new Date(12602L * 86400000L + 5);
+      assertEquals("2004-07-03 00:00:00,005", gmt.format(jul2));
+      assertEquals("2004-07-02 19:00:00,005", chicago.format(jul2));
+      assertEquals("2004-07-03 00:00:00,005", gmt.format(jul2));
+  }
+
+  /**
+   * Tests milliseconds within a second, at second boundaries
+   * and prior to 1 Jan 1970.
+   */
+  public void testAbsoluteTimeMilliseconds() {
+      DateFormat format = new AbsoluteTimeDateFormat(TimeZone.getTimeZone("GMT"));
+      long ticks = 12601L * 86400000L;
+      assertEquals("00:00:00,000", format.format(new Date(ticks)));
+      assertEquals("00:00:00,087", format.format(new Date(ticks + 87)));
+      assertEquals("00:00:00,999", format.format(new Date(ticks + 999)));
+      assertEquals("00:00:01,000", format.format(new Date(ticks + 1000)));
+      assertEquals("00:00:00,087", format.format(new Date(ticks + 87)));
+      assertEquals("23:59:59,999", format.format(new Date(-1)));
+      assertEquals("23:59:59,001", format.format(new Date(-999)));
+      assertEquals("23:59:59,000", format.format(new Date(-1000)));
+  }
+
+  /**
+   * Tests that time zone changes are honored.
+   */
+  public void testAbsoluteTimeSetTimeZone() {
+      DateFormat format = new AbsoluteTimeDateFormat(TimeZone.getTimeZone("GMT"));
+      Date jul2 = new Date(12602L * 86400000L + 5);
+      assertEquals("00:00:00,005", format.format(jul2));
+      format.setTimeZone(TimeZone.getTimeZone("America/Chicago"));
+      assertEquals("19:00:00,005", format.format(jul2));
+  }
+
+  /**
+   * Tests ISO8601DateFormat from several threads against SimpleDateFormat.
+   * @throws InterruptedException if interrupted.
+   */
+  public void testConcurrentISO8601Format() throws InterruptedException {
+      final DateFormat format = new ISO8601DateFormat(TimeZone.getTimeZone("GMT"));
+      final String[] failure = new String[1];
+      Thread[] threads = new Thread[4];
+      for (int i = 0; i < threads.length; i++) {
+        final long offset = i * 1500L;
+        threads[i] = new Thread() {
+          public void run() {
+            SimpleDateFormat expected =
+              new SimpleDateFormat("yyyy-MM-dd HH:mm:ss,SSS");
+            expected.setTimeZone(TimeZone.getTimeZone("GMT"));
+            long ticks = 12601L * 86400000L + offset;
+            for (int j = 0; j < 20000; j++) {
+              Date date = new Date(ticks + j * 7L);
+              String actual = format.format(date);
+              if (!actual.equals(expected.format(date))) {
+                synchronized (failure) {
+                  failure[0] = actual + " != " + expected.format(date);
+                }
+                return;
+              }
+            }
+          }
+        };
+        threads[i].start();
+      }
+      for (int i = 0; i < threads.length; i++) {
+        threads[i].join();
+      }
+      synchronized (failure) {
+        assertNull(failure[0]);
+      }
+  }
+
   /**
    * Concrete Layout class for tests.
    */
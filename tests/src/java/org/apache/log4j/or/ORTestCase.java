@@ -31,6 +31,9 @@ import junit.framework.TestSuite;
 import junit.framework.Test;
 
 import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
 
 
 /**
@@ -187,7 +190,46 @@ public class ORTestCase extends TestCase {
     assertEquals(r, xor);
   }
 
+  // Add: X after a lookup of B
+  // Expect: X
+  public
+  void test11() {
+    RendererMap map = new RendererMap();
+    assertEquals(map.getDefaultRenderer(), map.get(B.class));
+    assertEquals(map.getDefaultRenderer(), map.get(B.class));
+    map.put(X.class, xor);
+    assertEquals(xor, map.get(B.class));
+    map.put(A.class, aor);
+    assertEquals(aor, map.get(B.class));
+  }
+
+  // Add: A, then clear
+  // Expect: defaultRenderer
+  public
+  void test12() {
+    RendererMap map = new RendererMap();
+    map.put(A.class, aor);
+    assertEquals(aor, map.get(B.class));
+    map.clear();
+    assertEquals(map.getDefaultRenderer(), map.get(B.class));
+  }
 
+  // Add: R, render a class of a child class loader
+  // Expect: R, only cached for classes of the loader of log4j
+  public
+  void test13() {
+    RendererMap map = new RendererMap();
+    ObjectRenderer ror = new UTObjectRenderer("Runnable");
+    map.put(Runnable.class, ror);
+    ClassLoader child = new URLClassLoader(new URL[0],
+                                           ORTestCase.class.getClassLoader());
+    Class proxyClass = Proxy.getProxyClass(child,
+                                           new Class[] { Runnable.class });
+    assertEquals(ror, map.get(proxyClass));
+    assertFalse(map.resolved.containsKey(proxyClass));
+    assertEquals(ror, map.get(Thread.class));
+    assertTrue(map.resolved.containsKey(Thread.class));
+  }
 
 
   public
@@ -204,6 +246,9 @@ public class ORTestCase extends TestCase {
     suite.addTest(new ORTestCase("test8"));
     suite.addTest(new ORTestCase("test9"));
     suite.addTest(new ORTestCase("test10"));
+    suite.addTest(new ORTestCase("test11"));
+    suite.addTest(new ORTestCase("test12"));
+    suite.addTest(new ORTestCase("test13"));
     return suite;
   }
 
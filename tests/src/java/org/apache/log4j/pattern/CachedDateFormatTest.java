@@ -382,6 +382,43 @@ public final class CachedDateFormatTest
       assertEquals(1, maxValid);
   }
 
+
+  /**
+   * Check concurrent use of a single instance.
+   * @throws InterruptedException if interrupted.
+   */
+  public void testConcurrentFormat() throws InterruptedException {
+      final DateFormat cachedFormat = new CachedDateFormat(
+        createAbsoluteTimeDateFormat(GMT), 1000);
+      final String[] failure = new String[1];
+      Thread[] threads = new Thread[4];
+      for (int i = 0; i < threads.length; i++) {
+        final long offset = i * 1500L;
+        threads[i] = new Thread() {
+          public void run() {
+            DateFormat expected = createAbsoluteTimeDateFormat(GMT);
+            long ticks = 12601L * 86400000L + offset;
+            for (int j = 0; j < 20000; j++) {
+              Date date = new Date(ticks + j * 7L);
+              String actual = cachedFormat.format(date);
+              if (!actual.equals(expected.format(date))) {
+                synchronized (failure) {
+                  failure[0] = actual + " != " + expected.format(date);
+                }
+                return;
+              }
+            }
+          }
+        };
+        threads[i].start();
+      }
+      for (int i = 0; i < threads.length; i++) {
+        threads[i].join();
+      }
+      synchronized (failure) {
+        assertNull(failure[0]);
+      }
+  }
   
   public static Test xsuite() {
     TestSuite suite = new TestSuite();
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.log4j.pattern;
+
+import junit.framework.TestCase;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * Tests for CompiledPattern.
+ */
+public class CompiledPatternTest extends TestCase {
+  /**
+   * Create a new instance.
+   *
+   * @param name test name
+   */
+  public CompiledPatternTest(final String name) {
+    super(name);
+  }
+
+  /**
+   * Format an event with the parsed converters, without compilation.
+   * @param pattern pattern.
+   * @param event event.
+   * @return formatted event.
+   */
+  private static String formatParsed(
+    final String pattern, final LoggingEvent event) {
+    List converters = new ArrayList();
+    List fields = new ArrayList();
+    PatternParser.parse(
+      pattern, converters, fields, null, PatternParser.getPatternLayoutRules());
+
+    StringBuffer buf = new StringBuffer();
+    Iterator fieldIter = fields.iterator();
+
+    for (Iterator iter = converters.iterator(); iter.hasNext();) {
+      int fieldStart = buf.length();
+      ((LoggingEventPatternConverter) iter.next()).format(event, buf);
+      ((FormattingInfo) fieldIter.next()).format(fieldStart, buf);
+    }
+
+    return buf.toString();
+  }
+
+  /**
+   * Format an event with the compiled pattern.
+   * @param pattern pattern.
+   * @param event event.
+   * @return formatted event.
+   */
+  private static String formatCompiled(
+    final String pattern, final LoggingEvent event) {
+    StringBuffer buf = new StringBuffer();
+    CompiledPattern.getInstance(pattern).format(buf, event);
+
+    return buf.toString();
+  }
+
+  /**
+   * Tests that compiled patterns format like the parsed converters.
+   */
+  public void testSameOutput() {
+    Logger logger = Logger.getLogger("org.apache.log4j.pattern.CompiledPatternTest");
+    Level[] levels =
+      new Level[] {
+        Level.INFO, Level.ERROR, Level.TRACE, Level.OFF,
+        new Level(Level.INFO_INT, "CUSTOMIZED", 6) {
+        }
+      };
+    String[] patterns =
+      new String[] {
+        "%d %-5p [%t] %c - %m%n", "%d{ISO8601} %5p %c{1} - %m%n",
+        "%r [%t] %p %c %x - %m%n", "[%-10p][%10p][%.2p][%-3.4p]%n%n--",
+        "%m", "literal only", "%5n|%-3m|%20c{2}|%-40.50m%%"
+      };
+
+    for (int i = 0; i < levels.length; i++) {
+      LoggingEvent event =
+        new LoggingEvent(
+          "org.apache.log4j.Logger", logger, levels[i], "Hello, World", null);
+
+      for (int j = 0; j < patterns.length; j++) {
+        assertEquals(
+          patterns[j], formatParsed(patterns[j], event),
+          formatCompiled(patterns[j], event));
+      }
+    }
+  }
+
+  /**
+   * Tests that layouts with the same pattern share the compiled pattern.
+   */
+  public void testShared() {
+    String pattern = "%d %-5p [%t] %c - %m [shared]%n";
+    assertSame(
+      CompiledPattern.getInstance(pattern), CompiledPattern.getInstance(pattern));
+  }
+
+  /**
+   * Tests handlesExceptions.
+   */
+  public void testHandlesExceptions() {
+    assertFalse(CompiledPattern.getInstance("%m%n").handlesExceptions());
+    assertTrue(CompiledPattern.getInstance("%m%n%throwable").handlesExceptions());
+  }
+}
@@ -90,4 +90,29 @@ public class FormattingInfoTest extends TestCase {
         assertEquals("foobar ", buf.toString());
     }
 
+    /**
+     * Add more padding to left than a single block of spaces.
+     */
+    public void testPadLeftWide() {
+        StringBuffer buf = new StringBuffer("foobar");
+        FormattingInfo field = new FormattingInfo(false, 74, 100);
+        field.format(2, buf);
+        assertEquals(76, buf.length());
+        assertEquals("fo", buf.substring(0, 2));
+        assertEquals("obar", buf.substring(72));
+        assertEquals("", buf.substring(2, 72).trim());
+    }
+
+    /**
+     * Add more padding to right than a single block of spaces.
+     */
+    public void testPadRightWide() {
+        StringBuffer buf = new StringBuffer("foobar");
+        FormattingInfo field = new FormattingInfo(true, 74, 100);
+        field.format(2, buf);
+        assertEquals(76, buf.length());
+        assertEquals("foobar", buf.substring(0, 6));
+        assertEquals("", buf.substring(6).trim());
+    }
+
 }
@@ -333,4 +333,42 @@ public class NameAbbreviatorTest extends TestCase {
 
   }
 
+  /**
+   * Check that abbreviate(String) matches abbreviate(int, StringBuffer).
+   *
+   */
+  public void testAbbreviateString() {
+    String[] patterns = { "", "0", "1", "2", "-1", "1.", "1~.2~", "*.1" };
+    String[] names = { "org.example.foo.bar", "bar", "", ".", "org.", "a..b" };
+    for (int i = 0; i < patterns.length; i++) {
+      NameAbbreviator abbrev = NameAbbreviator.getAbbreviator(patterns[i]);
+      for (int j = 0; j < names.length; j++) {
+        StringBuffer buf = new StringBuffer("DEBUG - ");
+        int fieldStart = buf.length();
+        buf.append(names[j]);
+        abbrev.abbreviate(fieldStart, buf);
+        String expected = buf.substring(fieldStart);
+        assertEquals(patterns[i] + " " + names[j], expected,
+          abbrev.abbreviate(names[j]));
+        assertEquals(patterns[i] + " " + names[j], expected,
+          abbrev.abbreviate(new String(names[j])));
+      }
+    }
+  }
+
+  /**
+   * Check that abbreviations of recently used names are cached.
+   *
+   */
+  public void testAbbreviateStringCached() {
+    NameAbbreviator abbrev = NameAbbreviator.getAbbreviator("1.");
+    String first = abbrev.abbreviate("org.example.foo.bar");
+    assertEquals("o.e.f.bar", first);
+    assertSame(first, abbrev.abbreviate("org.example.foo.bar"));
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("o.e.f.bar" + i, abbrev.abbreviate("org.example.foo.bar" + i));
+    }
+    assertEquals("o.e.f.bar", abbrev.abbreviate("org.example.foo.bar"));
+  }
+
 }
@@ -18,6 +18,7 @@ package org.apache.log4j.rewrite;
 
 import junit.framework.*;
 import org.apache.log4j.*;
+import org.apache.log4j.spi.LoggingEvent;
 import org.apache.log4j.util.Compare;
 import org.apache.log4j.xml.*;
 
@@ -121,6 +122,25 @@ public class RewriteAppenderTest extends TestCase {
         assertTrue(Compare.compare(RewriteAppenderTest.class, "temp", "reflection.log"));
     }
 
+    public void testReflectionPolicyParameterizedMessage() {
+        AsyncAppender async = new AsyncAppender();
+        async.setDeferredRendering(true);
+        Logger logger = Logger.getLogger(RewriteAppenderTest.class);
+        logger.addAppender(async);
+        try {
+            VectorAppender appender = new VectorAppender();
+            logger.addAppender(appender);
+            LogMF.info(logger, "Hello, {0}", "World");
+            LoggingEvent event =
+              (LoggingEvent) appender.getVector().elementAt(0);
+            assertTrue(event.getMessage() instanceof ParameterizedMessage);
+            assertSame(event, new ReflectionRewritePolicy().rewrite(event));
+        } finally {
+            logger.removeAppender(async);
+            async.close();
+        }
+    }
+
     public void testPropertyPolicy() throws Exception {
         configure("property.xml");
         Logger logger = Logger.getLogger(RewriteAppenderTest.class);
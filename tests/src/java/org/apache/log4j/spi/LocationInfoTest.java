@@ -82,4 +82,94 @@ public class LocationInfoTest extends TestCase {
          assertEquals("getInfo", li.getMethodName());
      }
 
+    /**
+     * Class obtaining the location of its caller with getCallerLocation.
+     */
+    private static class CallerLocation {
+        /**
+         * Construct a LocationInfo.  Location should be immediate caller of this method.
+         * @return location info.
+         */
+        public static LocationInfo getInfo() {
+            return LocationInfo.getCallerLocation(CallerLocation.class.getName());
+        }
+    }
+
+    /**
+     * Tests getCallerLocation.
+     */
+    public void testGetCallerLocation() {
+        LocationInfo li = CallerLocation.getInfo();
+        int line = new Throwable().getStackTrace()[0].getLineNumber() - 1;
+        assertEquals(LocationInfoTest.class.getName(), li.getClassName());
+        assertEquals("testGetCallerLocation", li.getMethodName());
+        assertEquals("LocationInfoTest.java", li.getFileName());
+        assertEquals(String.valueOf(line), li.getLineNumber());
+        assertEquals(LocationInfoTest.class.getName()
+                + ".testGetCallerLocation(LocationInfoTest.java:" + line + ")",
+                li.fullInfo);
+    }
+
+    /**
+     * Tests that getCallerLocation shares the location of a call site.
+     */
+    public void testCallSiteIsShared() {
+        LocationInfo[] infos = new LocationInfo[2];
+        for (int i = 0; i < infos.length; i++) {
+            infos[i] = CallerLocation.getInfo();
+        }
+        assertSame(infos[0], infos[1]);
+        assertNotSame(infos[0], CallerLocation.getInfo());
+    }
+
+    /**
+     * Class which logs from a callback of another logging request.
+     */
+    private static class NestedCallerLocation {
+        /**
+         * Runs a callback.
+         * @param callback callback.
+         */
+        public static void run(final Runnable callback) {
+            callback.run();
+        }
+
+        /**
+         * Construct LocationInfo instances with both methods.
+         * @return locations, by getCallerLocation then from a stack trace.
+         */
+        public static LocationInfo[] getInfo() {
+            String fqn = NestedCallerLocation.class.getName();
+            return new LocationInfo[] {
+                LocationInfo.getCallerLocation(fqn),
+                new LocationInfo(new Throwable(), fqn) };
+        }
+    }
+
+    /**
+     * Tests that getCallerLocation finds the caller of the innermost
+     * frames of the logging class, and the stack trace constructor the
+     * caller of its outermost frame.
+     */
+    public void testNestedCallerLocation() {
+        final LocationInfo[][] infos = new LocationInfo[1][];
+        NestedCallerLocation.run(new Runnable() {
+            public void run() {
+                infos[0] = NestedCallerLocation.getInfo();
+            }
+        });
+        assertEquals("run", infos[0][0].getMethodName());
+        assertEquals("testNestedCallerLocation", infos[0][1].getMethodName());
+    }
+
+    /**
+     * Tests getCallerLocation when the class is not on the stack.
+     */
+    public void testGetCallerLocationNotFound() {
+        LocationInfo li = LocationInfo.getCallerLocation("org.example.NotCalled");
+        assertNull(li.fullInfo);
+        assertEquals(LocationInfo.NA, li.getClassName());
+        assertEquals(LocationInfo.NA, li.getLineNumber());
+    }
+
 }
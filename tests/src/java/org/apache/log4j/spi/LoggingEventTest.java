@@ -268,4 +268,48 @@ public class LoggingEventTest extends TestCase {
     }
 
 
+    /**
+     * Tests that a reusable event is reset on each use, that it is not
+     * handed out again while in use and that copies are independent.
+     */
+    public void testReusableEvent() throws Exception {
+        Logger root = Logger.getRootLogger();
+        NDC.clear();
+        NDC.push("ndc test");
+        ReusableLoggingEvent event = ReusableLoggingEvent.acquire(
+          root.getClass().getName(), root, Level.INFO, "Hello, world.", null);
+        try {
+            assertNull(ReusableLoggingEvent.acquire(
+              root.getClass().getName(), root, Level.WARN, "Nested", null));
+            assertEquals("Hello, world.", event.getRenderedMessage());
+            assertEquals("ndc test", event.getNDC());
+            LoggingEvent copy = event.copy();
+            assertFalse(copy instanceof ReusableLoggingEvent);
+            assertEquals(root.getName(), event.getLoggerName());
+            assertEquals(event.getTimeStamp(), copy.timeStamp);
+            assertEquals(root.getName(), copy.categoryName);
+            assertEquals(root.getClass().getName(), copy.fqnOfCategoryClass);
+            assertEquals(root.getName(), copy.getLoggerName());
+            assertEquals("ndc test", copy.getNDC());
+        } finally {
+            event.release();
+            NDC.pop();
+        }
+        assertNull(event.getLogger());
+        assertNull(event.getMessage());
+
+        ReusableLoggingEvent next = ReusableLoggingEvent.acquire(
+          root.getClass().getName(), root, Level.WARN, "Again", null);
+        try {
+            assertSame(event, next);
+            assertEquals(Level.WARN, next.getLevel());
+            assertEquals("Again", next.getMessage());
+            assertNull(next.getNDC());
+            Object obj = SerializationTestHelper.serializeClone(next);
+            assertEquals(LoggingEvent.class, obj.getClass());
+            assertEquals("Again", ((LoggingEvent) obj).getRenderedMessage());
+        } finally {
+            next.release();
+        }
+    }
 }
@@ -19,6 +19,13 @@ package org.apache.log4j.spi;
 import junit.framework.TestCase;
 
 import java.io.PrintWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.apache.log4j.EnhancedThrowableRenderer;
+import org.apache.log4j.Hierarchy;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
 
 
 /**
@@ -340,4 +347,66 @@ public class ThrowableInformationTest extends TestCase {
         assertEquals("NastyException", rep[0]);
     }
 
+    /**
+     * Tests that structurally identical throwables share their rendering.
+     */
+    public void testRepeatedThrowable() {
+        ThrowableInformation[] infos = new ThrowableInformation[3];
+        for (int i = 0; i < infos.length; i++) {
+            Exception cause = new IllegalStateException("cause");
+            infos[i] = new ThrowableInformation(
+                    new Exception(i == 2 ? "other" : "repeated", cause));
+        }
+        int id = infos[0].getTraceId();
+        assertTrue(id > 0);
+        assertEquals(id, infos[1].getTraceId());
+        assertFalse(id == infos[2].getTraceId());
+        String[] rep = infos[0].getThrowableStrRep();
+        String[] rep1 = infos[1].getThrowableStrRep();
+        assertEquals(rep.length, rep1.length);
+        for (int i = 0; i < rep.length; i++) {
+            assertSame(rep[i], rep1[i]);
+        }
+        assertEquals("java.lang.Exception: repeated", rep[0]);
+        assertEquals("java.lang.Exception: other",
+                infos[2].getThrowableStrRep()[0]);
+    }
+
+    /**
+     * Tests that renderings by EnhancedThrowableRenderer are only
+     * shared by threads with the same context class loader.
+     */
+    public void testEnhancedRenderingPerContextLoader() {
+        Hierarchy h = new Hierarchy(new RootLogger(Level.DEBUG));
+        h.setThrowableRenderer(new EnhancedThrowableRenderer());
+        Logger logger = h.getLogger("enhanced");
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        ClassLoader other = new URLClassLoader(new URL[0], original);
+        int[] ids = new int[3];
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                thread.setContextClassLoader(i == 2 ? other : original);
+                ids[i] = new ThrowableInformation(
+                        new Exception("enhanced"), logger).getTraceId();
+            }
+        } finally {
+            thread.setContextClassLoader(original);
+        }
+        assertTrue(ids[0] > 0);
+        assertEquals(ids[0], ids[1]);
+        assertTrue(ids[2] > 0);
+        assertFalse(ids[0] == ids[2]);
+    }
+
+    /**
+     * Tests that throwables overriding printStackTrace are not cached.
+     */
+    public void testOverriddenPrintStackTraceNotCached() {
+        ThrowableInformation ti = new ThrowableInformation(
+                new StringThrowable("Hello, World"));
+        assertEquals(0, ti.getTraceId());
+        assertEquals("Hello, World", ti.getThrowableStrRep()[0]);
+    }
+
 }